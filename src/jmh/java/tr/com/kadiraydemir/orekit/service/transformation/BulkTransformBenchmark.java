@@ -0,0 +1,112 @@
+package tr.com.kadiraydemir.orekit.service.transformation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.data.DataContext;
+import org.orekit.data.DataProvidersManager;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.data.ZipJarCrawler;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Transform;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EME2000 to ITRF on packed state vectors: {@link PackedTransform} against
+ * {@code Transform.transformPVCoordinates} per vector, for the same
+ * transform. Orekit data is read from {@code -Dorekit.data.path}, by
+ * default {@code orekit-data.zip} or {@code orekit-data/} in the working
+ * directory, as in {@code OrekitConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkTransformBenchmark {
+
+    private static final String EPOCH = "2024-01-01T12:00:00Z";
+
+    @Param({ "1000", "100000", "1000000" })
+    int count;
+
+    private Transform transform;
+    private PackedTransform packed;
+    private double[] positions;
+    private double[] velocities;
+    private double[] outPositions;
+    private double[] outVelocities;
+
+    @Setup
+    public void setup() {
+        loadOrekitData();
+        transform = FramesFactory.getEME2000().getTransformTo(FramesFactory.getITRF(IERSConventions.IERS_2010, true),
+                new AbsoluteDate(EPOCH, TimeScalesFactory.getUTC()));
+        packed = PackedTransform.of(transform);
+        positions = new double[3 * count];
+        velocities = new double[3 * count];
+        outPositions = new double[3 * count];
+        outVelocities = new double[3 * count];
+        for (int k = 0; k < count; k++) {
+            double angle = 1.0e-3 * k;
+            positions[3 * k] = 7.0e6 * FastMath.cos(angle);
+            positions[3 * k + 1] = 7.0e6 * FastMath.sin(angle);
+            positions[3 * k + 2] = 1.0e5 * (k % 11 - 5);
+            velocities[3 * k] = -7500.0 * FastMath.sin(angle);
+            velocities[3 * k + 1] = 7500.0 * FastMath.cos(angle);
+            velocities[3 * k + 2] = 10.0 * (k % 7 - 3);
+        }
+    }
+
+    @Benchmark
+    public double[] perVector() {
+        for (int k = 0; k < count; k++) {
+            int i = 3 * k;
+            PVCoordinates pv = transform.transformPVCoordinates(new PVCoordinates(
+                    new Vector3D(positions[i], positions[i + 1], positions[i + 2]),
+                    new Vector3D(velocities[i], velocities[i + 1], velocities[i + 2])));
+            outPositions[i] = pv.getPosition().getX();
+            outPositions[i + 1] = pv.getPosition().getY();
+            outPositions[i + 2] = pv.getPosition().getZ();
+            outVelocities[i] = pv.getVelocity().getX();
+            outVelocities[i + 1] = pv.getVelocity().getY();
+            outVelocities[i + 2] = pv.getVelocity().getZ();
+        }
+        return outPositions;
+    }
+
+    @Benchmark
+    public double[] bulk() {
+        packed.apply(positions, velocities, 0, count, outPositions, outVelocities);
+        return outPositions;
+    }
+
+    private static void loadOrekitData() {
+        DataProvidersManager manager = DataContext.getDefault().getDataProvidersManager();
+        if (!manager.getProviders().isEmpty()) {
+            return;
+        }
+        File data = new File(System.getProperty("orekit.data.path", "orekit-data.zip"));
+        if (!data.exists()) {
+            data = new File("orekit-data");
+        }
+        manager.addProvider(data.isFile() ? new ZipJarCrawler(data) : new DirectoryCrawler(data));
+    }
+}
@@ -9,6 +9,7 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ApplicationScoped
 public class ThreadPoolConfig {
@@ -19,6 +20,10 @@ public class ThreadPoolConfig {
     @ConfigProperty(name = "orekit.executor.max-threads", defaultValue = "16")
     int maxThreads;
 
+    // 0 uses one thread per available processor
+    @ConfigProperty(name = "orekit.executor.parallel-threads", defaultValue = "0")
+    int parallelThreads;
+
     @Produces
     @ApplicationScoped
     @Named("propagationExecutor")
@@ -36,7 +41,31 @@ public class ThreadPoolConfig {
         }
     }
 
+    /**
+     * Pool for the parts of a single call computed in parallel, e.g. the
+     * ranges of a large SGP4 chunk. They are forked and joined by tasks
+     * already running on the propagation executor and never wait on other
+     * tasks themselves, so a separate pool cannot deadlock whatever the type
+     * of the propagation executor.
+     */
+    @Produces
+    @ApplicationScoped
+    @Named("parallelExecutor")
+    public ExecutorService createParallelExecutor() {
+        int threads = parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "orekit-parallel-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public void close(@Disposes @Named("propagationExecutor") ExecutorService executor) {
         executor.shutdown();
     }
+
+    public void closeParallel(@Disposes @Named("parallelExecutor") ExecutorService executor) {
+        executor.shutdown();
+    }
 }
@@ -0,0 +1,11 @@
+package tr.com.kadiraydemir.orekit.exception;
+
+/**
+ * Thrown when request parameters would make the computation or its result
+ * unreasonably large, reported to clients as {@code INVALID_ARGUMENT}.
+ */
+public class InvalidArgumentException extends OrekitException {
+    public InvalidArgumentException(String message) {
+        super(message);
+    }
+}
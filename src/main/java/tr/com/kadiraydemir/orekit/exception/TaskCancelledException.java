@@ -0,0 +1,15 @@
+package tr.com.kadiraydemir.orekit.exception;
+
+/**
+ * Thrown from a compute loop when the client cancelled the call or its
+ * deadline expired.
+ */
+public class TaskCancelledException extends OrekitException {
+    public TaskCancelledException(String message) {
+        super(message);
+    }
+
+    public TaskCancelledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,89 @@
+package tr.com.kadiraydemir.orekit.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.internal.GrpcUtil;
+import io.quarkus.grpc.GlobalInterceptor;
+import io.quarkus.grpc.runtime.Interceptors;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every call a cancellable gRPC {@link Context}.
+ * <p>
+ * The HTTP-embedded gRPC server does not create one itself, so without this
+ * interceptor client cancellations and deadlines never reach the work
+ * running on the propagation executor. The context is cancelled when the
+ * client cancels, when the deadline expires and when the call completes. A
+ * deadline already carried by the current context is kept, otherwise it is
+ * taken from the {@code grpc-timeout} header with the gRPC marshaller.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class CallCancellationInterceptor implements ServerInterceptor, Prioritized {
+
+    /**
+     * Higher priorities run first: this interceptor runs after the Quarkus
+     * routing context interceptor and before the blocking handler, which
+     * captures the gRPC context current when it runs, so the context created
+     * here is the one the service method sees.
+     */
+    static final int PRIORITY = Interceptors.BLOCKING_HANDLER + 2;
+
+    private final ScheduledExecutorService deadlineScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "grpc-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        Context current = Context.current();
+        Long timeoutNanos = current.getDeadline() == null ? headers.get(GrpcUtil.TIMEOUT_KEY) : null;
+        Context.CancellableContext context = timeoutNanos != null
+                ? current.withDeadlineAfter(timeoutNanos, TimeUnit.NANOSECONDS, deadlineScheduler)
+                : current.withCancellation();
+
+        ServerCall.Listener<ReqT> listener = Contexts.interceptCall(context, call, headers, next);
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    context.cancel(null);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } finally {
+                    context.cancel(null);
+                }
+            }
+        };
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deadlineScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package tr.com.kadiraydemir.orekit.grpc;
+
+import io.grpc.Context;
+import jakarta.enterprise.context.ApplicationScoped;
+import tr.com.kadiraydemir.orekit.service.cancellation.CallCancellation;
+
+/**
+ * Call cancellation backed by the gRPC {@link Context}, made cancellable for
+ * every call by {@link CallCancellationInterceptor}.
+ */
+@ApplicationScoped
+public class GrpcCallCancellation implements CallCancellation {
+
+    @Override
+    public Signal current() {
+        Context context = Context.current();
+        return new Signal() {
+            @Override
+            public boolean isCancelled() {
+                return context.isCancelled();
+            }
+
+            @Override
+            public Throwable cause() {
+                return context.cancellationCause();
+            }
+        };
+    }
+
+    @Override
+    public Runnable propagate(Runnable runnable) {
+        return Context.current().wrap(runnable);
+    }
+}
@@ -0,0 +1,133 @@
+package tr.com.kadiraydemir.orekit.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiSubscriber;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber forwarding a {@link Multi} to a gRPC response stream at the pace
+ * of the transport.
+ * <p>
+ * Items are requested one at a time and only while the call is ready, so a
+ * slow client stops upstream work (e.g. a {@code merge(128)} stage no longer
+ * starts new items) instead of piling up responses in the outbound buffers.
+ * When the observer does not expose flow control everything is requested
+ * upfront, as a plain {@code subscribe().with(...)} would.
+ *
+ * @param <T> response type
+ */
+public final class ReadinessAwareSubscriber<T> implements MultiSubscriber<T> {
+
+    private final StreamObserver<T> responseObserver;
+    private final ServerCallStreamObserver<T> flowControl;
+    private final Runnable onCompletion;
+    private final Consumer<Throwable> onFailure;
+    private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private volatile boolean cancelled;
+
+    /**
+     * @param responseObserver observer receiving the items
+     * @param onCompletion     called once the upstream completes
+     * @param onFailure        called if the upstream fails
+     */
+    public ReadinessAwareSubscriber(StreamObserver<T> responseObserver, Runnable onCompletion,
+            Consumer<Throwable> onFailure) {
+        this.responseObserver = responseObserver;
+        this.flowControl = responseObserver instanceof ServerCallStreamObserver<T> serverObserver
+                ? serverObserver
+                : null;
+        this.onCompletion = onCompletion;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * Stream the items to the observer and complete or fail the call with the
+     * upstream. Must be called from the service method, before it returns.
+     *
+     * @param responses        response items
+     * @param responseObserver response stream of the call
+     * @param <T>              response type
+     */
+    public static <T> void stream(Multi<T> responses, StreamObserver<T> responseObserver) {
+        ReadinessAwareSubscriber<T> subscriber = new ReadinessAwareSubscriber<>(responseObserver,
+                responseObserver::onCompleted, responseObserver::onError);
+        if (responseObserver instanceof ServerCallStreamObserver<T> serverObserver) {
+            serverObserver.setOnReadyHandler(subscriber::onReady);
+            serverObserver.setOnCancelHandler(subscriber::cancel);
+        }
+        responses.subscribe().withSubscriber(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription s) {
+        subscription.set(s);
+        if (cancelled) {
+            s.cancel();
+        } else if (flowControl == null) {
+            s.request(Long.MAX_VALUE);
+        } else {
+            requestIfReady();
+        }
+    }
+
+    @Override
+    public void onItem(T item) {
+        if (cancelled) {
+            return;
+        }
+        responseObserver.onNext(item);
+        requested.set(false);
+        requestIfReady();
+    }
+
+    @Override
+    public void onFailure(Throwable failure) {
+        if (!cancelled) {
+            onFailure.accept(failure);
+        }
+    }
+
+    @Override
+    public void onCompletion() {
+        if (!cancelled) {
+            onCompletion.run();
+        }
+    }
+
+    /**
+     * Resume the upstream once the transport can take more, to be called from
+     * the call's on-ready handler.
+     */
+    public void onReady() {
+        requestIfReady();
+    }
+
+    /**
+     * Stop the upstream, e.g. when the client cancelled the call.
+     */
+    public void cancel() {
+        cancelled = true;
+        Flow.Subscription s = subscription.get();
+        if (s != null) {
+            s.cancel();
+        }
+    }
+
+    private void requestIfReady() {
+        Flow.Subscription s = subscription.get();
+        if (s == null || cancelled || flowControl == null) {
+            return;
+        }
+        // At most one outstanding request, whether triggered by an item or by the on-ready handler
+        if (flowControl.isReady() && requested.compareAndSet(false, true)) {
+            s.request(1);
+        }
+    }
+}
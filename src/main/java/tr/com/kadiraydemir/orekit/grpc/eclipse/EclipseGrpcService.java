@@ -3,8 +3,10 @@ package tr.com.kadiraydemir.orekit.grpc.eclipse;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
+import io.grpc.Context;
 import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
@@ -16,6 +18,7 @@ import org.hipparchus.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tr.com.kadiraydemir.orekit.grpc.*;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
 import tr.com.kadiraydemir.orekit.mapper.EclipseMapper;
 import tr.com.kadiraydemir.orekit.model.EclipseResult;
 import tr.com.kadiraydemir.orekit.service.eclipse.EclipseService;
@@ -39,8 +42,9 @@ public class EclipseGrpcService extends EclipseServiceGrpc.EclipseServiceImplBas
 
     @Override
     public void calculateEclipses(EclipseRequest request, StreamObserver<EclipseResponse> responseObserver) {
+        Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
         Uni.createFrom().item(() -> eclipseService.calculateEclipses(eclipseMapper.toDTO(request)))
-                .runSubscriptionOn(propagationExecutor)
+                .runSubscriptionOn(callExecutor)
                 .map(eclipseMapper::map)
                 .subscribe().with(
                         response -> {
@@ -53,6 +57,7 @@ public class EclipseGrpcService extends EclipseServiceGrpc.EclipseServiceImplBas
 
     @Override
     public void batchCalculateEclipses(BatchEclipseRequest request, StreamObserver<BatchEclipseResponse> responseObserver) {
+        Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
         List<TLEPair> allTles = request.getTlesList();
         log.info("Starting bulk eclipse calculation for {} satellites", allTles.size());
 
@@ -66,18 +71,16 @@ public class EclipseGrpcService extends EclipseServiceGrpc.EclipseServiceImplBas
         
         log.info("Dynamic batch size calculated: {} (Date range: {} days)", batchSize, dateRangeDays);
 
-        Multi.createFrom().iterable(allTles)
+        Multi<BatchEclipseResponse> responses = Multi.createFrom().iterable(allTles)
                 .onItem()
                 .transformToUni(tle -> Uni.createFrom().item(() -> processSingleTle(tle, request))
-                        .runSubscriptionOn(propagationExecutor))
+                        .runSubscriptionOn(callExecutor))
                 .merge(128) // Concurrency control
                 .group().intoLists().of(batchSize) // Use dynamic batch size
                 .onItem()
-                .transform(results -> BatchEclipseResponse.newBuilder().addAllResults(results).build())
-                .subscribe().with(
-                        responseObserver::onNext,
-                        responseObserver::onError,
-                        responseObserver::onCompleted);
+                .transform(results -> BatchEclipseResponse.newBuilder().addAllResults(results).build());
+        // Results are only pulled while the client keeps up
+        ReadinessAwareSubscriber.stream(responses, responseObserver);
     }
 
     // Helper method to calculate date range in days
@@ -113,6 +116,9 @@ public class EclipseGrpcService extends EclipseServiceGrpc.EclipseServiceImplBas
                         .setError("No result returned from eclipse service")
                         .build();
             }
+        } catch (TaskCancelledException e) {
+            // The call is gone, there is nobody to report this satellite to
+            throw e;
         } catch (Exception e) {
             log.error("Error processing TLE in batch: {}", tlePair.getLine1(), e);
             return EclipseResponse.newBuilder()
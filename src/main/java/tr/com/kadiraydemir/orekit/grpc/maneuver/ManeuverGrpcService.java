@@ -1,13 +1,16 @@
 package tr.com.kadiraydemir.orekit.grpc.maneuver;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
 import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 import tr.com.kadiraydemir.orekit.service.analysis.StatelessOrbitAnalysisService;
+import tr.com.kadiraydemir.orekit.service.propagation.TlePropagatorCache;
 import org.orekit.propagation.analytical.tle.TLE;
 
 import java.util.List;
@@ -21,12 +24,15 @@ public class ManeuverGrpcService extends ManeuverServiceGrpc.ManeuverServiceImpl
     @Inject
     StatelessOrbitAnalysisService analysisService;
 
+    @Inject
+    TlePropagatorCache tlePropagatorCache;
+
     @Override
     public void detectManeuvers(ManeuverDetectionRequest request,
             StreamObserver<ManeuverDetectionResponse> responseObserver) {
         try {
             // Convert initial TLE
-            TLE initialTle = new TLE(
+            TLE initialTle = tlePropagatorCache.getTle(
                     request.getInitialTle().getTleLine1(),
                     request.getInitialTle().getTleLine2());
 
@@ -34,10 +40,9 @@ public class ManeuverGrpcService extends ManeuverServiceGrpc.ManeuverServiceImpl
             List<TLE> observedTles = request.getObservedTlesList().stream()
                     .map(tleLines -> {
                         try {
-                            return new TLE(tleLines.getTleLine1(), tleLines.getTleLine2());
+                            return tlePropagatorCache.getTle(tleLines.getTleLine1(), tleLines.getTleLine2());
                         } catch (Exception e) {
-                            log.error("Error parsing observed TLE: {} {}",
-                                    tleLines.getTleLine1(), tleLines.getTleLine2(), e);
+                            log.error("Error parsing observed TLE: {} {}", tleLines.getTleLine1(), tleLines.getTleLine2(), e);
                             return null;
                         }
                     })
@@ -96,6 +101,8 @@ public class ManeuverGrpcService extends ManeuverServiceGrpc.ManeuverServiceImpl
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
 
+        } catch (InvalidArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
         } catch (Exception e) {
             log.error("Error detecting maneuvers", e);
             responseObserver.onError(e);
@@ -1,5 +1,8 @@
 package tr.com.kadiraydemir.orekit.grpc.propagation;
 
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
@@ -11,11 +14,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.hipparchus.util.FastMath;
 import tr.com.kadiraydemir.orekit.grpc.*;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
 import tr.com.kadiraydemir.orekit.mapper.PropagationMapper;
+import tr.com.kadiraydemir.orekit.model.ChebyshevEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.GroundTrackResult;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.model.SatelliteTle;
 import tr.com.kadiraydemir.orekit.model.TleResult;
+import tr.com.kadiraydemir.orekit.service.propagation.EpochGrid;
 import tr.com.kadiraydemir.orekit.service.propagation.PropagationService;
 import tr.com.kadiraydemir.orekit.utils.TleUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 @GrpcService
@@ -24,6 +39,15 @@ public class PropagationGrpcService extends OrbitalServiceGrpc.OrbitalServiceImp
 
         private static final Logger log = LoggerFactory.getLogger(PropagationGrpcService.class);
 
+        // Rough size of a CHEBYSHEV result: a day of LEO at 1 m is ~150 segments of 3 x 13 doubles
+        private static final long CHEBYSHEV_BYTES_PER_SATELLITE = 50_000L;
+
+        // Packed snapshot state: satellite id + 6 doubles, with the varint and tag overhead
+        private static final long SNAPSHOT_BYTES_PER_SATELLITE = 56L;
+
+        // Smaller snapshot blocks cost more in scheduling than they gain in parallelism
+        private static final int MIN_SNAPSHOT_BLOCK_SIZE = 256;
+
         @Inject
         PropagationService propagationService;
 
@@ -36,8 +60,10 @@ public class PropagationGrpcService extends OrbitalServiceGrpc.OrbitalServiceImp
 
         @Override
         public void propagate(PropagateRequest request, StreamObserver<PropagateResponse> responseObserver) {
+                // Work handed to the executor keeps the call context, so cancellation reaches it
+                Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
                 Uni.createFrom().item(() -> propagationService.propagate(propagationMapper.toDTO(request)))
-                                .runSubscriptionOn(propagationExecutor)
+                                .runSubscriptionOn(callExecutor)
                                 .map(propagationMapper::map)
                                 .subscribe().with(
                                                 response -> {
@@ -50,62 +76,406 @@ public class PropagationGrpcService extends OrbitalServiceGrpc.OrbitalServiceImp
         @Override
         public void propagateTLE(tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest request,
                         StreamObserver<TLEPropagateResponse> responseObserver) {
-                propagationService.propagateTLE(propagationMapper.toDTO(request))
-                                .subscribe().with(
-                                                result -> responseObserver.onNext(propagationMapper.map(result)),
-                                                responseObserver::onError,
-                                                responseObserver::onCompleted);
+                Multi<TLEPropagateResponse> responses = switch (request.getEncoding()) {
+                        case PACKED_COLUMNS -> propagationService.propagateTLEPacked(propagationMapper.toDTO(request))
+                                        .map(propagationMapper::mapPacked);
+                        case GROUND_TRACK -> propagationService.propagateTLEGroundTrack(
+                                        propagationMapper.toDTO(request))
+                                        .map(propagationMapper::mapGroundTrack);
+                        // The whole span fits in a single compact response
+                        case CHEBYSHEV -> Multi.createFrom()
+                                        .item(() -> propagationService.propagateTLEChebyshev(
+                                                        propagationMapper.toDTO(request)))
+                                        .map(propagationMapper::mapChebyshev);
+                        default -> propagationService.propagateTLE(propagationMapper.toDTO(request))
+                                        .map(propagationMapper::map);
+                };
+                responses = responses.onFailure(InvalidArgumentException.class)
+                                .transform(e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage())
+                                                .asRuntimeException());
+                // Chunks are only computed while the client keeps up
+                ReadinessAwareSubscriber.stream(responses, responseObserver);
         }
 
         @Override
         public void batchPropagateTLE(BatchTLEPropagateRequest request,
                         StreamObserver<BatchTLEPropagateResponse> responseObserver) {
+                Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
                 List<TLELines> allTles = request.getTlesList();
                 log.info("Starting bulk TLE propagation for {} satellites", allTles.size());
 
-                // Estimate size per satellite: ~50 bytes base + ~64 bytes per position (3
-                // doubles + timestamp)
-                long estimatedSizePerSatellite = 50 + (request.getPositionCount() * 64L);
-                // Target batch size: 3MB (safe margin within 4MB limit)
-                int batchSize = (int) FastMath.min(1000, FastMath.max(10, 3_000_000 / estimatedSizePerSatellite));
+                int batchSize = calculateBatchSize(request);
 
                 log.info("Dynamic batch size calculated: {} (Position count: {})", batchSize,
                                 request.getPositionCount());
 
-                Multi.createFrom().iterable(allTles)
+                // Every satellite shares the same epochs, so the TEME -> output frame
+                // transforms are computed once for the whole batch
+                EpochGrid grid;
+                try {
+                        grid = createEpochGrid(request);
+                } catch (Exception e) {
+                        log.error("Invalid time grid for bulk TLE propagation", e);
+                        responseObserver.onError(Status.INVALID_ARGUMENT
+                                        .withDescription("Invalid time grid: " + e.getMessage())
+                                        .asRuntimeException());
+                        return;
+                }
+
+                Multi<BatchTLEPropagateResponse> responses = Multi.createFrom().iterable(allTles)
                                 .onItem()
-                                .transformToUni(tle -> Uni.createFrom().item(() -> processSingleTle(tle, request))
-                                                .runSubscriptionOn(propagationExecutor))
+                                .transformToUni(tle -> Uni.createFrom().item(() -> processSingleTle(tle, request, grid))
+                                                .runSubscriptionOn(callExecutor))
                                 .merge(128) // Concurrency control
                                 .group().intoLists().of(batchSize) // Use dynamic batch size
                                 // .group().intoLists().of(100) // Batch responses in groups of 100
                                 .onItem()
                                 .transform(results -> BatchTLEPropagateResponse.newBuilder().addAllResults(results)
-                                                .build())
-                                .subscribe().with(
-                                                responseObserver::onNext,
-                                                responseObserver::onError,
-                                                responseObserver::onCompleted);
+                                                .build());
+                // Results are only pulled while the client keeps up
+                ReadinessAwareSubscriber.stream(responses, responseObserver);
+        }
+
+        @Override
+        public StreamObserver<BatchTLEPropagateRequest> batchPropagateTLEStream(
+                        StreamObserver<BatchTLEPropagateResponse> responseObserver) {
+                BatchStreamObserver inbound = new BatchStreamObserver(responseObserver);
+                if (responseObserver instanceof ServerCallStreamObserver<BatchTLEPropagateResponse> serverObserver) {
+                        // Pull request messages one at a time, the next one only once the results of
+                        // the previous one are sent and the client is ready for more
+                        serverObserver.disableAutoRequest();
+                        serverObserver.setOnReadyHandler(inbound::onReady);
+                        serverObserver.setOnCancelHandler(inbound::cancel);
+                        inbound.flowControl = serverObserver;
+                        serverObserver.request(1);
+                }
+                return inbound;
+        }
+
+        @Override
+        public void batchSnapshot(BatchSnapshotRequest request, StreamObserver<BatchSnapshotResponse> responseObserver) {
+                Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
+                List<SatelliteTle> tles = propagationMapper.toSatelliteTles(request.getTlesList());
+                log.info("Starting snapshot of {} satellites", tles.size());
+
+                // A single epoch, so a single TEME -> output frame transform for the whole set
+                EpochGrid grid;
+                try {
+                        grid = propagationService.createEpochGrid(request.getEpoch(), request.getEpoch(), 1,
+                                        propagationMapper.map(request.getOutputFrame()));
+                } catch (Exception e) {
+                        log.error("Invalid epoch for snapshot", e);
+                        responseObserver.onError(Status.INVALID_ARGUMENT
+                                        .withDescription("Invalid epoch: " + e.getMessage())
+                                        .asRuntimeException());
+                        return;
+                }
+
+                PropagationModelType model = propagationMapper.map(request.getModel());
+                tr.com.kadiraydemir.orekit.model.IntegratorType integrator = propagationMapper
+                                .map(request.getIntegrator());
+                int blockSize = calculateSnapshotBlockSize(tles.size());
+                List<List<SatelliteTle>> blocks = new ArrayList<>();
+                for (int from = 0; from < tles.size(); from += blockSize) {
+                        blocks.add(tles.subList(from, FastMath.min(tles.size(), from + blockSize)));
+                }
+
+                // Blocks are answered as they complete, each state vector carries its satellite id
+                Multi<BatchSnapshotResponse> responses = Multi.createFrom().iterable(blocks)
+                                .onItem()
+                                .transformToUni(block -> Uni.createFrom()
+                                                .item(() -> propagationService.propagateSnapshot(block, model,
+                                                                integrator, grid))
+                                                .runSubscriptionOn(callExecutor))
+                                .merge(Runtime.getRuntime().availableProcessors())
+                                .map(propagationMapper::map);
+                ReadinessAwareSubscriber.stream(responses, responseObserver);
+        }
+
+        @Override
+        public void batchPropagateTLETimeMajor(BatchTLEPropagateRequest request,
+                        StreamObserver<BatchSnapshotResponse> responseObserver) {
+                Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
+                List<SatelliteTle> tles = propagationMapper.toSatelliteTles(request.getTlesList());
+                log.info("Starting time-major propagation of {} satellites over {} epochs", tles.size(),
+                                request.getPositionCount());
+
+                // All satellites are stepped together, so each epoch's TEME -> output frame
+                // transform is computed once for the whole set
+                EpochGrid grid;
+                try {
+                        if (request.getPositionCount() < 1) {
+                                throw new IllegalArgumentException(
+                                                "Position count must be positive: " + request.getPositionCount());
+                        }
+                        grid = propagationService.createEpochGrid(request.getStartDate(), request.getEndDate(),
+                                        request.getPositionCount(), propagationMapper.map(request.getOutputFrame()));
+                } catch (Exception e) {
+                        log.error("Invalid time grid for time-major propagation", e);
+                        responseObserver.onError(Status.INVALID_ARGUMENT
+                                        .withDescription("Invalid time grid: " + e.getMessage())
+                                        .asRuntimeException());
+                        return;
+                }
+
+                Multi<BatchSnapshotResponse> responses = propagationService
+                                .propagateTimeMajor(tles, propagationMapper.map(request.getModel()),
+                                                propagationMapper.map(request.getIntegrator()), grid,
+                                                calculateSnapshotBlockSize(tles.size()))
+                                .runSubscriptionOn(callExecutor)
+                                .map(propagationMapper::map);
+                // The next epoch is only stepped once the client took the previous one
+                ReadinessAwareSubscriber.stream(responses, responseObserver);
+        }
+
+        // As large as the message size allows, but enough blocks to keep every processor busy
+        private int calculateSnapshotBlockSize(int satelliteCount) {
+                long maxBlockSize = 3_000_000 / SNAPSHOT_BYTES_PER_SATELLITE;
+                int processors = Runtime.getRuntime().availableProcessors();
+                long perProcessor = (satelliteCount + processors - 1) / processors;
+                return (int) FastMath.max(MIN_SNAPSHOT_BLOCK_SIZE, FastMath.min(maxBlockSize, perProcessor));
+        }
+
+        // CHEBYSHEV fits sample the trajectory themselves, the grid then only validates the dates.
+        // GROUND_TRACK grids hold the TEME -> ITRF transforms the geodetic conversion needs
+        private EpochGrid createEpochGrid(BatchTLEPropagateRequest request) {
+                int positionCount = request.getEncoding() == EphemerisEncoding.CHEBYSHEV
+                                ? 0
+                                : request.getPositionCount();
+                ReferenceFrame outputFrame = request.getEncoding() == EphemerisEncoding.GROUND_TRACK
+                                ? ReferenceFrame.ITRF
+                                : request.getOutputFrame();
+                return propagationService.createEpochGrid(request.getStartDate(), request.getEndDate(),
+                                positionCount, propagationMapper.map(outputFrame));
+        }
+
+        // Estimate size per satellite: ~50 bytes base + ~64 bytes per position (3
+        // doubles + timestamp), or 24 bytes per position (3 doubles) when packed or a ground track
+        private int calculateBatchSize(BatchTLEPropagateRequest request) {
+                long estimatedSizePerSatellite;
+                if (request.getEncoding() == EphemerisEncoding.CHEBYSHEV) {
+                        estimatedSizePerSatellite = CHEBYSHEV_BYTES_PER_SATELLITE;
+                } else {
+                        long bytesPerPosition = request.getEncoding() == EphemerisEncoding.PACKED_COLUMNS
+                                        || request.getEncoding() == EphemerisEncoding.GROUND_TRACK ? 24L : 64L;
+                        estimatedSizePerSatellite = 50 + (request.getPositionCount() * bytesPerPosition);
+                }
+                // Target batch size: 3MB (safe margin within 4MB limit)
+                return (int) FastMath.min(1000, FastMath.max(10, 3_000_000 / estimatedSizePerSatellite));
+        }
+
+        /**
+         * Inbound side of BatchPropagateTLEStream.
+         * <p>
+         * The first message fixes the propagation settings and the time grid. The TLEs
+         * of each message are propagated and their results streamed back before the
+         * next message is requested, so at most one message worth of TLEs and results
+         * is held in memory whatever the catalog size. Without flow control the
+         * messages arrive unrequested, and are then queued and taken in turn.
+         */
+        private final class BatchStreamObserver implements StreamObserver<BatchTLEPropagateRequest> {
+
+                private final StreamObserver<BatchTLEPropagateResponse> responseObserver;
+                private final Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
+                // Only filled when the transport offers no flow control
+                private final Queue<BatchTLEPropagateRequest> pending = new ArrayDeque<>();
+                private ServerCallStreamObserver<BatchTLEPropagateResponse> flowControl;
+                private BatchTLEPropagateRequest settings;
+                private EpochGrid grid;
+                private int batchSize;
+                private boolean processing;
+                private boolean halfClosed;
+                private boolean awaitingReady;
+                private boolean finished;
+                private int satelliteCount;
+                private ReadinessAwareSubscriber<BatchTLEPropagateResponse> current;
+
+                BatchStreamObserver(StreamObserver<BatchTLEPropagateResponse> responseObserver) {
+                        this.responseObserver = responseObserver;
+                }
+
+                @Override
+                public synchronized void onNext(BatchTLEPropagateRequest request) {
+                        if (finished) {
+                                return;
+                        }
+                        if (settings == null && !start(request)) {
+                                return;
+                        }
+                        if (processing) {
+                                // Without flow control messages arrive unrequested, they are taken in turn
+                                pending.add(request);
+                                return;
+                        }
+                        process(request);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                        log.warn("Bulk TLE propagation stream cancelled by client: {}", t.getMessage());
+                        cancel();
+                }
+
+                @Override
+                public synchronized void onCompleted() {
+                        halfClosed = true;
+                        if (!processing) {
+                                complete();
+                        }
+                }
+
+                void onReady() {
+                        ReadinessAwareSubscriber<BatchTLEPropagateResponse> subscriber;
+                        synchronized (this) {
+                                if (awaitingReady && !finished) {
+                                        awaitingReady = false;
+                                        flowControl.request(1);
+                                }
+                                subscriber = current;
+                        }
+                        // Resume the results of the current message outside the lock
+                        if (subscriber != null) {
+                                subscriber.onReady();
+                        }
+                }
+
+                void cancel() {
+                        ReadinessAwareSubscriber<BatchTLEPropagateResponse> subscriber;
+                        synchronized (this) {
+                                finished = true;
+                                pending.clear();
+                                subscriber = current;
+                        }
+                        if (subscriber != null) {
+                                subscriber.cancel();
+                        }
+                }
+
+                private void process(BatchTLEPropagateRequest request) {
+                        processing = true;
+                        satelliteCount += request.getTlesCount();
+
+                        current = new ReadinessAwareSubscriber<>(responseObserver, this::messageDone, this::fail);
+                        Multi.createFrom().iterable(request.getTlesList())
+                                        .onItem()
+                                        .transformToUni(tle -> Uni.createFrom()
+                                                        .item(() -> processSingleTle(tle, settings, grid))
+                                                        .runSubscriptionOn(callExecutor))
+                                        .merge(128)
+                                        .group().intoLists().of(batchSize)
+                                        .onItem()
+                                        .transform(results -> BatchTLEPropagateResponse.newBuilder()
+                                                        .addAllResults(results)
+                                                        .build())
+                                        .subscribe().withSubscriber(current);
+                }
+
+                private boolean start(BatchTLEPropagateRequest request) {
+                        settings = request;
+                        batchSize = calculateBatchSize(request);
+                        try {
+                                grid = createEpochGrid(request);
+                        } catch (Exception e) {
+                                log.error("Invalid time grid for streamed bulk TLE propagation", e);
+                                finished = true;
+                                responseObserver.onError(Status.INVALID_ARGUMENT
+                                                .withDescription("Invalid time grid: " + e.getMessage())
+                                                .asRuntimeException());
+                                return false;
+                        }
+                        log.info("Starting streamed bulk TLE propagation (Position count: {}, batch size: {})",
+                                        request.getPositionCount(), batchSize);
+                        return true;
+                }
+
+                private synchronized void fail(Throwable t) {
+                        if (!finished) {
+                                finished = true;
+                                responseObserver.onError(Status.INTERNAL.withDescription(t.getMessage())
+                                                .withCause(t).asRuntimeException());
+                        }
+                }
+
+                private synchronized void messageDone() {
+                        processing = false;
+                        current = null;
+                        if (finished) {
+                                return;
+                        }
+                        BatchTLEPropagateRequest next = pending.poll();
+                        if (next != null) {
+                                process(next);
+                        } else if (halfClosed) {
+                                complete();
+                        } else if (flowControl == null) {
+                                return;
+                        } else if (flowControl.isReady()) {
+                                flowControl.request(1);
+                        } else {
+                                // Resumed by onReady once the client has drained the outbound buffer
+                                awaitingReady = true;
+                        }
+                }
+
+                private void complete() {
+                        if (!finished) {
+                                finished = true;
+                                log.info("Streamed bulk TLE propagation completed for {} satellites", satelliteCount);
+                                responseObserver.onCompleted();
+                        }
+                }
         }
 
         // Helper method to process a single TLE with error handling
-        private TLEPropagationResult processSingleTle(TLELines tleLines, BatchTLEPropagateRequest request) {
+        private TLEPropagationResult processSingleTle(TLELines tleLines, BatchTLEPropagateRequest request,
+                        EpochGrid grid) {
                 int satelliteId = TleUtils.extractSatelliteId(tleLines.getTleLine1());
                 try {
-                        tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest grpcRequest = tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest
-                                        .newBuilder()
-                                        .setModel(request.getModel())
-                                        .setTleLine1(tleLines.getTleLine1())
-                                        .setTleLine2(tleLines.getTleLine2())
-                                        .setStartDate(request.getStartDate())
-                                        .setEndDate(request.getEndDate())
-                                        .setPositionCount(request.getPositionCount())
-                                        .setOutputFrame(request.getOutputFrame())
-                                        .setIntegrator(request.getIntegrator())
-                                        .build();
+                        PropagationModelType model = propagationMapper.map(request.getModel());
+                        tr.com.kadiraydemir.orekit.model.IntegratorType integrator = propagationMapper
+                                        .map(request.getIntegrator());
+
+                        if (request.getEncoding() == EphemerisEncoding.PACKED_COLUMNS) {
+                                PackedEphemerisResult packed = propagationService.propagateTLEPacked(
+                                                tleLines.getTleLine1(), tleLines.getTleLine2(), model, integrator, grid,
+                                                request.getInterpolationErrorBudgetM());
+                                return TLEPropagationResult.newBuilder()
+                                                .setSatelliteId(satelliteId)
+                                                .setPacked(propagationMapper.map(packed))
+                                                .setFrame(packed.frame())
+                                                .setMaxInterpolationErrorM(packed.maxInterpolationError())
+                                                .build();
+                        }
+
+                        if (request.getEncoding() == EphemerisEncoding.GROUND_TRACK) {
+                                GroundTrackResult groundTrack = propagationService.propagateTLEGroundTrack(
+                                                tleLines.getTleLine1(), tleLines.getTleLine2(), model, integrator,
+                                                grid, request.getInterpolationErrorBudgetM());
+                                return TLEPropagationResult.newBuilder()
+                                                .setSatelliteId(satelliteId)
+                                                .setGroundTrack(propagationMapper.map(groundTrack))
+                                                .setFrame(groundTrack.frame())
+                                                .setMaxInterpolationErrorM(groundTrack.maxInterpolationError())
+                                                .build();
+                        }
+
+                        if (request.getEncoding() == EphemerisEncoding.CHEBYSHEV) {
+                                ChebyshevEphemerisResult chebyshev = propagationService.propagateTLEChebyshev(
+                                                new tr.com.kadiraydemir.orekit.model.TLEPropagateRequest(model,
+                                                                tleLines.getTleLine1(), tleLines.getTleLine2(),
+                                                                request.getStartDate(), request.getEndDate(), 0,
+                                                                propagationMapper.map(request.getOutputFrame()),
+                                                                integrator, 0, request.getChebyshevToleranceM(), 0, List.of(), 0));
+                                return TLEPropagationResult.newBuilder()
+                                                .setSatelliteId(satelliteId)
+                                                .setChebyshev(propagationMapper.map(chebyshev))
+                                                .setFrame(chebyshev.frame())
+                                                .build();
+                        }
 
-                        TleResult result = propagationService.propagateTLE(propagationMapper.toDTO(grpcRequest))
-                                        .toUni().await().indefinitely();
+                        TleResult result = propagationService.propagateTLE(
+                                        tleLines.getTleLine1(), tleLines.getTleLine2(), model, integrator, grid,
+                                        request.getInterpolationErrorBudgetM());
 
                         if (result != null) {
                                 return TLEPropagationResult.newBuilder()
@@ -119,6 +489,7 @@ public class PropagationGrpcService extends OrbitalServiceGrpc.OrbitalServiceImp
                                                                                 .build())
                                                                 .toList())
                                                 .setFrame(result.frame())
+                                                .setMaxInterpolationErrorM(result.maxInterpolationError())
                                                 .build();
                         } else {
                                 return TLEPropagationResult.newBuilder()
@@ -126,6 +497,9 @@ public class PropagationGrpcService extends OrbitalServiceGrpc.OrbitalServiceImp
                                                 .setError("No result returned from propagation service")
                                                 .build();
                         }
+                } catch (TaskCancelledException e) {
+                        // The call is gone, there is nobody to report this satellite to
+                        throw e;
                 } catch (Exception e) {
                         log.error("Error processing TLE in batch: {}", tleLines.getTleLine1(), e);
                         return TLEPropagationResult.newBuilder()
@@ -1,5 +1,6 @@
 package tr.com.kadiraydemir.orekit.grpc.tlefitting;
 
+import io.grpc.Context;
 import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
@@ -16,6 +17,7 @@ import tr.com.kadiraydemir.orekit.model.TleFittingRequest;
 import tr.com.kadiraydemir.orekit.model.TleFittingResult;
 import tr.com.kadiraydemir.orekit.service.tlefitting.TleFittingService;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -38,13 +40,14 @@ public class TleFittingGrpcService extends TleFittingServiceGrpc.TleFittingServi
 
         @Override
         public void fitTLE(FitTLERequest request, StreamObserver<FitTLEResponse> responseObserver) {
+                Executor callExecutor = Context.current().fixedContextExecutor(executor);
                 LOG.info("Received fitTLE request for satellite: {}", request.getSatelliteName());
 
                 Uni.createFrom().item(() -> {
                                 TleFittingRequest domainRequest = tleFittingMapper.toDomain(request);
                                 return tleFittingService.fitTLE(domainRequest);
                         })
-                        .runSubscriptionOn(executor)
+                        .runSubscriptionOn(callExecutor)
                         .map(result -> {
                                 if (result.error() != null) {
                                         LOG.error("TLE fitting failed: {}", result.error());
@@ -1,8 +1,10 @@
 package tr.com.kadiraydemir.orekit.grpc.transformation;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
+import io.grpc.Context;
 import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcService;
 import io.smallrye.mutiny.Multi;
@@ -10,11 +12,12 @@ import io.smallrye.mutiny.Uni;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import org.hipparchus.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tr.com.kadiraydemir.orekit.grpc.*;
 import tr.com.kadiraydemir.orekit.mapper.TransformationMapper;
-import tr.com.kadiraydemir.orekit.model.TransformResult;
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 import tr.com.kadiraydemir.orekit.service.transformation.TransformationService;
 
 @GrpcService
@@ -35,11 +38,12 @@ public class TransformationGrpcService extends CoordinateTransformServiceGrpc.Co
 
     @Override
     public void transform(TransformRequest request, StreamObserver<TransformResponse> responseObserver) {
+        Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
         Uni.createFrom().item(() -> {
                     var result = transformationService.transform(transformationMapper.toDTO(request));
                     return transformationMapper.map(result);
                 })
-                .runSubscriptionOn(propagationExecutor)
+                .runSubscriptionOn(callExecutor)
                 .subscribe().with(
                         response -> {
                             responseObserver.onNext(response);
@@ -51,6 +55,7 @@ public class TransformationGrpcService extends CoordinateTransformServiceGrpc.Co
 
     @Override
     public void batchTransform(BatchTransformRequest request, StreamObserver<BatchTransformResponse> responseObserver) {
+        Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
         List<StateVector> allStates = request.getStateVectorsList();
         log.info("Starting bulk transformation for {} state vectors", allStates.size());
 
@@ -61,56 +66,74 @@ public class TransformationGrpcService extends CoordinateTransformServiceGrpc.Co
         
         log.info("Dynamic batch size calculated: {} (Coordinate transforms are lightweight)", batchSize);
 
-        Multi.createFrom().iterable(allStates)
+        // All vectors share the epoch and frame pair: the transform is resolved once and applied
+        // to the whole request, blocks of responses are then built as the client reads them
+        ReferenceFrameType sourceFrame = transformationMapper.map(request.getSourceFrame());
+        ReferenceFrameType targetFrame = transformationMapper.map(request.getTargetFrame());
+        int blockCount = (allStates.size() + batchSize - 1) / batchSize;
+        Multi<BatchTransformResponse> responses = Uni.createFrom()
+                .item(() -> transformAll(allStates, sourceFrame, targetFrame, request.getEpochIso()))
+                .runSubscriptionOn(callExecutor)
                 .onItem()
-                .transformToUni(stateVector -> Uni.createFrom().item(() -> processSingleStateVector(stateVector, request))
-                        .runSubscriptionOn(propagationExecutor))
-                .merge(128) // Concurrency control
-                .group().intoLists().of(batchSize) // Use dynamic batch size
-                .onItem()
-                .transform(results -> BatchTransformResponse.newBuilder().addAllResults(results).build())
-                .subscribe().with(
-                        responseObserver::onNext,
-                        responseObserver::onError,
-                        responseObserver::onCompleted);
+                .transformToMulti(states -> Multi.createFrom().range(0, blockCount)
+                        .map(block -> toBatchResponse(states, block * batchSize,
+                                FastMath.min(allStates.size(), (block + 1) * batchSize), request.getEpochIso())));
+        // Results are only pulled while the client keeps up
+        ReadinessAwareSubscriber.stream(responses, responseObserver);
     }
 
-    // Helper method to process a single state vector with error handling
-    private TransformResponse processSingleStateVector(StateVector stateVector, BatchTransformRequest request) {
+    // Transform every state vector in place, or record why the shared transform failed
+    private TransformedStates transformAll(List<StateVector> states, ReferenceFrameType sourceFrame,
+            ReferenceFrameType targetFrame, String epochIso) {
+        double[] positions = new double[3 * states.size()];
+        double[] velocities = new double[3 * states.size()];
+        for (int k = 0; k < states.size(); k++) {
+            StateVector state = states.get(k);
+            positions[3 * k] = state.getX();
+            positions[3 * k + 1] = state.getY();
+            positions[3 * k + 2] = state.getZ();
+            velocities[3 * k] = state.getVx();
+            velocities[3 * k + 1] = state.getVy();
+            velocities[3 * k + 2] = state.getVz();
+        }
         try {
-            TransformRequest grpcRequest = TransformRequest.newBuilder()
-                    .setSourceFrame(request.getSourceFrame())
-                    .setTargetFrame(request.getTargetFrame())
-                    .setEpochIso(request.getEpochIso())
-                    .setX(stateVector.getX())
-                    .setY(stateVector.getY())
-                    .setZ(stateVector.getZ())
-                    .setVx(stateVector.getVx())
-                    .setVy(stateVector.getVy())
-                    .setVz(stateVector.getVz())
-                    .build();
-
-            TransformResult result = transformationService.transform(transformationMapper.toDTO(grpcRequest));
+            transformationService.transformBulk(sourceFrame, targetFrame, epochIso, positions, velocities,
+                    states.size(), positions, velocities);
+            return new TransformedStates(sourceFrame, targetFrame, positions, velocities, null);
+        } catch (Exception e) {
+            log.error("Error transforming {} state vectors - {}", states.size(), e.getMessage());
+            return new TransformedStates(sourceFrame, targetFrame, null, null,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
 
-            if (result != null) {
-                return transformationMapper.map(result);
+    // Responses of vectors from (inclusive) to (exclusive), each carrying the error if the transform failed
+    private BatchTransformResponse toBatchResponse(TransformedStates states, int from, int to, String epochIso) {
+        BatchTransformResponse.Builder batch = BatchTransformResponse.newBuilder();
+        for (int k = from; k < to; k++) {
+            TransformResponse.Builder response = batch.addResultsBuilder()
+                    .setSourceFrame(transformationMapper.map(states.sourceFrame()))
+                    .setTargetFrame(transformationMapper.map(states.targetFrame()))
+                    .setEpochIso(epochIso);
+            if (states.error() != null) {
+                response.setError(states.error());
             } else {
-                return TransformResponse.newBuilder()
-                        .setSourceFrame(request.getSourceFrame())
-                        .setTargetFrame(request.getTargetFrame())
-                        .setEpochIso(request.getEpochIso())
-                        .setError("No result returned from transformation service")
-                        .build();
+                response.setX(states.positions()[3 * k])
+                        .setY(states.positions()[3 * k + 1])
+                        .setZ(states.positions()[3 * k + 2])
+                        .setVx(states.velocities()[3 * k])
+                        .setVy(states.velocities()[3 * k + 1])
+                        .setVz(states.velocities()[3 * k + 2]);
             }
-        } catch (Exception e) {
-            log.error("Error transforming state vector: ({}, {}, {}) - {}",
-                    stateVector.getX(), stateVector.getY(), stateVector.getZ(), e.getMessage());
-            return TransformResponse.newBuilder()
-                    .setSourceFrame(request.getSourceFrame())
-                    .setTargetFrame(request.getTargetFrame())
-                    .setEpochIso(request.getEpochIso())
-                    .setError(e.getMessage())
-                    .build();
         }
+        return batch.build();
+    }
+
+    /**
+     * State vectors of a batch request after the shared transform, packed as
+     * x, y, z of vector k at {@code 3 * k}, or the error of the transform.
+     */
+    private record TransformedStates(ReferenceFrameType sourceFrame, ReferenceFrameType targetFrame,
+            double[] positions, double[] velocities, String error) {
     }
 }
@@ -3,8 +3,10 @@ package tr.com.kadiraydemir.orekit.grpc.visibility;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
+import io.grpc.Context;
 import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
@@ -16,6 +18,7 @@ import org.hipparchus.util.FastMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tr.com.kadiraydemir.orekit.grpc.*;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
 import tr.com.kadiraydemir.orekit.mapper.VisibilityMapper;
 import tr.com.kadiraydemir.orekit.model.VisibilityResult;
 import tr.com.kadiraydemir.orekit.service.visibility.VisibilityService;
@@ -39,8 +42,9 @@ public class VisibilityGrpcService extends VisibilityServiceGrpc.VisibilityServi
 
     @Override
     public void getAccessIntervals(AccessIntervalsRequest request, StreamObserver<AccessIntervalsResponse> responseObserver) {
+        Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
         Uni.createFrom().item(() -> visibilityService.getAccessIntervals(visibilityMapper.toDTO(request)))
-                .runSubscriptionOn(propagationExecutor)
+                .runSubscriptionOn(callExecutor)
                 .map(visibilityMapper::map)
                 .subscribe().with(
                         response -> {
@@ -53,6 +57,7 @@ public class VisibilityGrpcService extends VisibilityServiceGrpc.VisibilityServi
 
     @Override
     public void batchGetAccessIntervals(BatchAccessIntervalsRequest request, StreamObserver<BatchAccessIntervalsResponse> responseObserver) {
+        Executor callExecutor = Context.current().fixedContextExecutor(propagationExecutor);
         List<TLELines> allTles = request.getTlesList();
         log.info("Starting bulk access intervals calculation for {} satellites", allTles.size());
 
@@ -67,18 +72,16 @@ public class VisibilityGrpcService extends VisibilityServiceGrpc.VisibilityServi
         log.info("Dynamic batch size calculated: {} (Date range: {} days, Min elevation: {}°)", 
                 batchSize, dateRangeDays, request.getMinElevationDegrees());
 
-        Multi.createFrom().iterable(allTles)
+        Multi<BatchAccessIntervalsResponse> responses = Multi.createFrom().iterable(allTles)
                 .onItem()
                 .transformToUni(tle -> Uni.createFrom().item(() -> processSingleTle(tle, request))
-                        .runSubscriptionOn(propagationExecutor))
+                        .runSubscriptionOn(callExecutor))
                 .merge(128) // Concurrency control
                 .group().intoLists().of(batchSize) // Use dynamic batch size
                 .onItem()
-                .transform(results -> BatchAccessIntervalsResponse.newBuilder().addAllResults(results).build())
-                .subscribe().with(
-                        responseObserver::onNext,
-                        responseObserver::onError,
-                        responseObserver::onCompleted);
+                .transform(results -> BatchAccessIntervalsResponse.newBuilder().addAllResults(results).build());
+        // Results are only pulled while the client keeps up
+        ReadinessAwareSubscriber.stream(responses, responseObserver);
     }
 
     // Helper method to calculate date range in days
@@ -116,6 +119,9 @@ public class VisibilityGrpcService extends VisibilityServiceGrpc.VisibilityServi
                         .setError("No result returned from visibility service")
                         .build();
             }
+        } catch (TaskCancelledException e) {
+            // The call is gone, there is nobody to report this satellite to
+            throw e;
         } catch (Exception e) {
             log.error("Error processing TLE in batch: {}", tleLines.getTleLine1(), e);
             return AccessIntervalsResponse.newBuilder()
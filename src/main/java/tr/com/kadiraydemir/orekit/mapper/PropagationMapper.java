@@ -5,11 +5,23 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 import org.mapstruct.ValueMapping;
+import tr.com.kadiraydemir.orekit.grpc.BatchSnapshotResponse;
+import tr.com.kadiraydemir.orekit.grpc.ChebyshevEphemeris;
+import tr.com.kadiraydemir.orekit.grpc.ChebyshevSegment;
+import tr.com.kadiraydemir.orekit.grpc.GroundTrack;
+import tr.com.kadiraydemir.orekit.grpc.PackedEphemeris;
 import tr.com.kadiraydemir.orekit.grpc.PositionPoint;
 import tr.com.kadiraydemir.orekit.grpc.PropagateResponse;
+import tr.com.kadiraydemir.orekit.grpc.SatelliteError;
+import tr.com.kadiraydemir.orekit.grpc.TLELines;
 import tr.com.kadiraydemir.orekit.grpc.TLEPropagateResponse;
+import tr.com.kadiraydemir.orekit.model.ChebyshevEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.GroundTrackResult;
 import tr.com.kadiraydemir.orekit.model.OrbitResult;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
 import tr.com.kadiraydemir.orekit.model.PropagateRequest;
+import tr.com.kadiraydemir.orekit.model.SatelliteTle;
+import tr.com.kadiraydemir.orekit.model.SnapshotResult;
 import tr.com.kadiraydemir.orekit.model.TLEPropagateRequest;
 import tr.com.kadiraydemir.orekit.model.TleResult;
 import tr.com.kadiraydemir.orekit.grpc.PropagationModel;
@@ -18,20 +30,120 @@ import tr.com.kadiraydemir.orekit.grpc.IntegratorType;
 import tr.com.kadiraydemir.orekit.grpc.ReferenceFrame;
 import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 
+import java.util.List;
+
 @Mapper(componentModel = "jakarta", unmappedTargetPolicy = ReportingPolicy.IGNORE, collectionMappingStrategy = CollectionMappingStrategy.ADDER_PREFERRED)
 public interface PropagationMapper {
 
     PropagateResponse map(OrbitResult source);
 
     @Mapping(target = "positionsList", source = "positions")
+    @Mapping(target = "maxInterpolationErrorM", source = "maxInterpolationError")
     TLEPropagateResponse map(TleResult source);
 
     PositionPoint map(TleResult.PositionPointResult source);
 
+    default TLEPropagateResponse mapPacked(PackedEphemerisResult source) {
+        return TLEPropagateResponse.newBuilder()
+                .setFrame(source.frame())
+                .setPacked(map(source))
+                .setMaxInterpolationErrorM(source.maxInterpolationError())
+                .build();
+    }
+
+    // Columns are appended element by element to keep the doubles unboxed
+    default PackedEphemeris map(PackedEphemerisResult source) {
+        PackedEphemeris.Builder builder = PackedEphemeris.newBuilder()
+                .setStartEpoch(source.startEpoch())
+                .setStepSeconds(source.stepSeconds());
+        for (int i = 0; i < source.x().length; i++) {
+            builder.addX(source.x()[i]);
+            builder.addY(source.y()[i]);
+            builder.addZ(source.z()[i]);
+        }
+        return builder.build();
+    }
+
+    default TLEPropagateResponse mapGroundTrack(GroundTrackResult source) {
+        return TLEPropagateResponse.newBuilder()
+                .setFrame(source.frame())
+                .setGroundTrack(map(source))
+                .setMaxInterpolationErrorM(source.maxInterpolationError())
+                .build();
+    }
+
+    default GroundTrack map(GroundTrackResult source) {
+        GroundTrack.Builder builder = GroundTrack.newBuilder()
+                .setStartEpoch(source.startEpoch())
+                .setStepSeconds(source.stepSeconds());
+        for (int i = 0; i < source.latitude().length; i++) {
+            builder.addLatitudeDeg(source.latitude()[i]);
+            builder.addLongitudeDeg(source.longitude()[i]);
+            builder.addAltitudeM(source.altitude()[i]);
+        }
+        return builder.build();
+    }
+
+    // Columns are appended element by element to keep the doubles unboxed
+    default BatchSnapshotResponse map(SnapshotResult source) {
+        BatchSnapshotResponse.Builder builder = BatchSnapshotResponse.newBuilder()
+                .setEpoch(source.epoch())
+                .setFrame(source.frame());
+        for (int i = 0; i < source.satelliteIds().length; i++) {
+            builder.addSatelliteId(source.satelliteIds()[i]);
+            builder.addX(source.x()[i]);
+            builder.addY(source.y()[i]);
+            builder.addZ(source.z()[i]);
+            builder.addVx(source.vx()[i]);
+            builder.addVy(source.vy()[i]);
+            builder.addVz(source.vz()[i]);
+        }
+        for (SnapshotResult.SatelliteError error : source.errors()) {
+            builder.addErrors(SatelliteError.newBuilder()
+                    .setSatelliteId(error.satelliteId())
+                    .setError(error.error() != null ? error.error() : ""));
+        }
+        return builder.build();
+    }
+
+    default TLEPropagateResponse mapChebyshev(ChebyshevEphemerisResult source) {
+        return TLEPropagateResponse.newBuilder()
+                .setFrame(source.frame())
+                .setChebyshev(map(source))
+                .build();
+    }
+
+    default ChebyshevEphemeris map(ChebyshevEphemerisResult source) {
+        ChebyshevEphemeris.Builder builder = ChebyshevEphemeris.newBuilder()
+                .setStartEpoch(source.startEpoch())
+                .setMaxFitErrorM(source.maxFitError());
+        for (ChebyshevEphemerisResult.Segment segment : source.segments()) {
+            builder.addSegments(map(segment));
+        }
+        return builder.build();
+    }
+
+    default ChebyshevSegment map(ChebyshevEphemerisResult.Segment source) {
+        ChebyshevSegment.Builder builder = ChebyshevSegment.newBuilder()
+                .setStartOffsetSeconds(source.startOffsetSeconds())
+                .setDurationSeconds(source.durationSeconds());
+        for (int i = 0; i < source.x().length; i++) {
+            builder.addX(source.x()[i]);
+            builder.addY(source.y()[i]);
+            builder.addZ(source.z()[i]);
+        }
+        return builder.build();
+    }
+
     PropagateRequest toDTO(tr.com.kadiraydemir.orekit.grpc.PropagateRequest source);
 
+    @Mapping(target = "outputFrames", source = "outputFramesList")
     TLEPropagateRequest toDTO(tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest source);
 
+    List<SatelliteTle> toSatelliteTles(List<TLELines> source);
+
+    SatelliteTle map(TLELines source);
+
     @ValueMapping(source = "UNRECOGNIZED", target = "AUTO")
     PropagationModelType map(PropagationModel source);
 
@@ -0,0 +1,36 @@
+package tr.com.kadiraydemir.orekit.model;
+
+import java.util.List;
+
+/**
+ * Ephemeris compressed into contiguous Chebyshev segments.
+ *
+ * @param startEpoch  ISO-8601 epoch the segment offsets refer to
+ * @param segments    segments in time order
+ * @param maxFitError largest position error seen when checking the fit, in meters
+ * @param frame       reference frame name
+ */
+public record ChebyshevEphemerisResult(
+        String startEpoch,
+        List<Segment> segments,
+        double maxFitError,
+        String frame) {
+
+    /**
+     * Chebyshev coefficients of one segment, over
+     * {@code tau = 2 * (t - start) / durationSeconds - 1}.
+     *
+     * @param startOffsetSeconds segment start, in seconds from the ephemeris start epoch
+     * @param durationSeconds    segment length
+     * @param x                  X coefficients in meters
+     * @param y                  Y coefficients in meters
+     * @param z                  Z coefficients in meters
+     */
+    public record Segment(
+            double startOffsetSeconds,
+            double durationSeconds,
+            double[] x,
+            double[] y,
+            double[] z) {
+    }
+}
@@ -0,0 +1,24 @@
+package tr.com.kadiraydemir.orekit.model;
+
+/**
+ * Columnar geodetic ground track on the WGS84 ellipsoid, where point {@code i}
+ * is at {@code startEpoch + i * stepSeconds}.
+ *
+ * @param startEpoch            ISO-8601 epoch of the first point
+ * @param stepSeconds           fixed time step between consecutive points
+ * @param latitude              geodetic latitudes in degrees
+ * @param longitude             longitudes in degrees, in [-180, 180]
+ * @param altitude              altitudes above the ellipsoid in meters
+ * @param frame                 name of the Earth-fixed frame of the ellipsoid
+ * @param maxInterpolationError interpolation error estimate in meters, 0 when
+ *                              every position was propagated
+ */
+public record GroundTrackResult(
+        String startEpoch,
+        double stepSeconds,
+        double[] latitude,
+        double[] longitude,
+        double[] altitude,
+        String frame,
+        double maxInterpolationError) {
+}
@@ -0,0 +1,24 @@
+package tr.com.kadiraydemir.orekit.model;
+
+/**
+ * Columnar ephemeris where position {@code i} is at
+ * {@code startEpoch + i * stepSeconds}.
+ *
+ * @param startEpoch            ISO-8601 epoch of the first position
+ * @param stepSeconds           fixed time step between consecutive positions
+ * @param x                     X coordinates in meters
+ * @param y                     Y coordinates in meters
+ * @param z                     Z coordinates in meters
+ * @param frame                 reference frame name
+ * @param maxInterpolationError interpolation error estimate in meters, 0 when
+ *                              every position was propagated
+ */
+public record PackedEphemerisResult(
+        String startEpoch,
+        double stepSeconds,
+        double[] x,
+        double[] y,
+        double[] z,
+        String frame,
+        double maxInterpolationError) {
+}
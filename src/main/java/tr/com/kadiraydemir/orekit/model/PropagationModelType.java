@@ -4,5 +4,6 @@ public enum PropagationModelType {
     AUTO,
     SGP4,
     SDP4,
-    NUMERICAL
+    NUMERICAL,
+    DSST
 }
@@ -0,0 +1,10 @@
+package tr.com.kadiraydemir.orekit.model;
+
+/**
+ * Two-line element set of one satellite of a batch.
+ *
+ * @param tleLine1 TLE line 1
+ * @param tleLine2 TLE line 2
+ */
+public record SatelliteTle(String tleLine1, String tleLine2) {
+}
@@ -0,0 +1,40 @@
+package tr.com.kadiraydemir.orekit.model;
+
+import java.util.List;
+
+/**
+ * State vectors of a set of satellites at a single epoch, as packed columns
+ * where state {@code i} belongs to {@code satelliteIds[i]}.
+ *
+ * @param epoch        ISO-8601 epoch of the states
+ * @param frame        reference frame name
+ * @param satelliteIds NORAD catalog numbers of the propagated satellites
+ * @param x            X coordinates in meters
+ * @param y            Y coordinates in meters
+ * @param z            Z coordinates in meters
+ * @param vx           X velocities in meters per second
+ * @param vy           Y velocities in meters per second
+ * @param vz           Z velocities in meters per second
+ * @param errors       satellites that could not be propagated, not part of the columns
+ */
+public record SnapshotResult(
+        String epoch,
+        String frame,
+        int[] satelliteIds,
+        double[] x,
+        double[] y,
+        double[] z,
+        double[] vx,
+        double[] vy,
+        double[] vz,
+        List<SatelliteError> errors) {
+
+    /**
+     * Propagation failure of one satellite.
+     *
+     * @param satelliteId NORAD catalog number, 0 when it cannot be parsed
+     * @param error       error message
+     */
+    public record SatelliteError(int satelliteId, String error) {
+    }
+}
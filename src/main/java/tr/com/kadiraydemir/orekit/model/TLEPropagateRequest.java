@@ -1,5 +1,7 @@
 package tr.com.kadiraydemir.orekit.model;
 
+import java.util.List;
+
 public record TLEPropagateRequest(
         PropagationModelType model,
         String tleLine1,
@@ -8,5 +10,10 @@ public record TLEPropagateRequest(
         String endDate,
         int positionCount,
         ReferenceFrameType outputFrame,
-        IntegratorType integrator) {
+        IntegratorType integrator,
+        int chunkSize,
+        double chebyshevToleranceM,
+        double interpolationErrorBudgetM,
+        List<ReferenceFrameType> outputFrames,
+        double chordalToleranceM) {
 }
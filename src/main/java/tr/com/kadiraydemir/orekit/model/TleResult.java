@@ -2,9 +2,16 @@ package tr.com.kadiraydemir.orekit.model;
 
 import java.util.List;
 
+/**
+ * @param positions             propagated positions
+ * @param frame                 reference frame name
+ * @param maxInterpolationError interpolation error estimate in meters, 0 when
+ *                              every position was propagated
+ */
 public record TleResult(
                 List<PositionPointResult> positions,
-                String frame) {
+                String frame,
+                double maxInterpolationError) {
         public record PositionPointResult(
                         double x,
                         double y,
@@ -5,34 +5,29 @@ import jakarta.inject.Inject;
 import org.hipparchus.ode.AbstractIntegrator;
 import org.hipparchus.util.FastMath;
 import org.orekit.attitudes.FrameAlignedProvider;
-import org.orekit.bodies.CelestialBodyFactory;
-import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
-import org.orekit.forces.gravity.Relativity;
-import org.orekit.forces.gravity.ThirdBodyAttraction;
-import org.orekit.forces.gravity.potential.GravityFieldFactory;
-import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
 import org.orekit.frames.Frame;
-import org.orekit.frames.FramesFactory;
 import org.orekit.orbits.KeplerianOrbit;
 import org.orekit.orbits.Orbit;
 import org.orekit.orbits.OrbitType;
 import org.orekit.propagation.SpacecraftState;
 import org.orekit.propagation.analytical.tle.TLE;
-import org.orekit.propagation.analytical.tle.TLEPropagator;
 import org.orekit.propagation.numerical.NumericalPropagator;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScale;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.Constants;
-import org.orekit.utils.IERSConventions;
 import org.orekit.utils.PVCoordinates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tr.com.kadiraydemir.orekit.exception.OrekitException;
 import tr.com.kadiraydemir.orekit.model.IntegratorType;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
 import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 import tr.com.kadiraydemir.orekit.service.frame.FrameService;
+import tr.com.kadiraydemir.orekit.service.propagation.ForceModelRegistry;
 import tr.com.kadiraydemir.orekit.service.propagation.IntegratorService;
+import tr.com.kadiraydemir.orekit.service.propagation.PropagatorFactoryService;
+import tr.com.kadiraydemir.orekit.service.propagation.PropagatorLease;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -53,6 +48,12 @@ public class StatelessOrbitAnalysisService {
     @Inject
     IntegratorService integratorService;
 
+    @Inject
+    PropagatorFactoryService propagatorFactoryService;
+
+    @Inject
+    ForceModelRegistry forceModelRegistry;
+
     public ManeuverDetectionResult detect(
             TLE initialTle,
             List<TLE> observedTles,
@@ -94,8 +95,10 @@ public class StatelessOrbitAnalysisService {
             TLE tle, ForceModelConfig config, Frame temeFrame) {
 
         // Use analytical propagator to get initial state at TLE epoch
-        TLEPropagator analyticalPropagator = TLEPropagator.selectExtrapolator(tle);
-        PVCoordinates initialPV = analyticalPropagator.getPVCoordinates(tle.getDate(), temeFrame);
+        PVCoordinates initialPV;
+        try (PropagatorLease lease = leaseAnalyticalPropagator(tle, temeFrame)) {
+            initialPV = lease.propagator().getPVCoordinates(tle.getDate(), temeFrame);
+        }
 
         // Create orbit from PV coordinates
         Orbit initialOrbit = new KeplerianOrbit(initialPV, temeFrame, tle.getDate(), Constants.WGS84_EARTH_MU);
@@ -109,22 +112,11 @@ public class StatelessOrbitAnalysisService {
         numProp.setOrbitType(OrbitType.KEPLERIAN);
         numProp.setAttitudeProvider(new FrameAlignedProvider(temeFrame));
 
-        // Add gravity force model (Holmes-Featherstone)
+        // Add preloaded force models: gravity (Holmes-Featherstone), Sun and Moon attraction, relativity
         int degree = config != null && config.gravityDegree() > 0 ? config.gravityDegree() : 10;
         int order = config != null && config.gravityOrder() > 0 ? config.gravityOrder() : 10;
-
-        NormalizedSphericalHarmonicsProvider gravityProvider = GravityFieldFactory.getNormalizedProvider(degree, order);
-        Frame itrfFrame = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
-        HolmesFeatherstoneAttractionModel gravityModel = new HolmesFeatherstoneAttractionModel(itrfFrame,
-                gravityProvider);
-        numProp.addForceModel(gravityModel);
-
-        // Add third body attractions (Sun and Moon)
-        numProp.addForceModel(new ThirdBodyAttraction(CelestialBodyFactory.getSun()));
-        numProp.addForceModel(new ThirdBodyAttraction(CelestialBodyFactory.getMoon()));
-
-        // Add relativity force model
-        numProp.addForceModel(new Relativity(Constants.WGS84_EARTH_MU));
+        forceModelRegistry.getForceModels(new ForceModelRegistry.Key(degree, order, true, true))
+                .forEach(numProp::addForceModel);
 
         numProp.setInitialState(new SpacecraftState(initialOrbit, SPACECRAFT_MASS));
 
@@ -170,8 +162,10 @@ public class StatelessOrbitAnalysisService {
             PVCoordinates propagatedPV = propagator.getPVCoordinates(observedDate, outputFrame);
 
             // Get PV from observed TLE
-            TLEPropagator observedPropagator = TLEPropagator.selectExtrapolator(observedTle);
-            PVCoordinates observedPV = observedPropagator.getPVCoordinates(observedDate, outputFrame);
+            PVCoordinates observedPV;
+            try (PropagatorLease lease = leaseAnalyticalPropagator(observedTle, frameService.getTemeFrame())) {
+                observedPV = lease.propagator().getPVCoordinates(observedDate, outputFrame);
+            }
 
             // Calculate position residual
             double dx = propagatedPV.getPosition().getX() - observedPV.getPosition().getX();
@@ -203,6 +197,11 @@ public class StatelessOrbitAnalysisService {
         }
     }
 
+    private PropagatorLease leaseAnalyticalPropagator(TLE tle, Frame temeFrame) {
+        return propagatorFactoryService.leasePropagator(tle.getLine1(), tle.getLine2(), PropagationModelType.AUTO,
+                null, temeFrame);
+    }
+
     public record ForceModelConfig(int gravityDegree, int gravityOrder, boolean solarRadiationPressure,
             boolean atmosphericDrag) {
     }
@@ -0,0 +1,40 @@
+package tr.com.kadiraydemir.orekit.service.cancellation;
+
+/**
+ * Cancellation signal of the call a computation runs for.
+ * <p>
+ * Implemented by the transport layer, which knows when a client cancels a
+ * call or its deadline expires, so that the service layer does not depend on
+ * it.
+ */
+public interface CallCancellation {
+
+    /**
+     * @return signal of the call running on the current thread
+     */
+    Signal current();
+
+    /**
+     * Bind a runnable to the call running on the current thread.
+     *
+     * @param runnable work to hand to another thread
+     * @return runnable running within the current call
+     */
+    Runnable propagate(Runnable runnable);
+
+    /**
+     * Cancellation state of a single call.
+     */
+    interface Signal {
+
+        /**
+         * @return whether the call was cancelled or its deadline expired
+         */
+        boolean isCancelled();
+
+        /**
+         * @return cause of the cancellation, may be null
+         */
+        Throwable cause();
+    }
+}
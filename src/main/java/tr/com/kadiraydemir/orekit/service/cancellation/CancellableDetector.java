@@ -0,0 +1,113 @@
+package tr.com.kadiraydemir.orekit.service.cancellation;
+
+import org.hipparchus.ode.events.Action;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.events.EventDetectionSettings;
+import org.orekit.propagation.events.EventDetector;
+import org.orekit.propagation.events.handlers.EventHandler;
+import org.orekit.propagation.events.intervals.AdaptableInterval;
+import org.orekit.time.AbsoluteDate;
+
+/**
+ * Event detector delegating to another one and checking a cancellation scope
+ * before each evaluation of the switching function.
+ * <p>
+ * The wrapped handler always sees the wrapped detector, so wrapping does not
+ * change how events are handled.
+ */
+final class CancellableDetector implements EventDetector {
+
+    private final EventDetector detector;
+    private final CancellationScope scope;
+    private final AbsoluteDate start;
+    private final double span;
+    private final EventHandler handler;
+
+    CancellableDetector(EventDetector detector, CancellationScope scope, AbsoluteDate start, AbsoluteDate end) {
+        this.detector = detector;
+        this.scope = scope;
+        this.start = start;
+        this.span = end.durationFrom(start);
+        this.handler = new DelegatingHandler(detector);
+    }
+
+    @Override
+    public double g(SpacecraftState s) {
+        scope.check(span > 0 ? s.getDate().durationFrom(start) / span : Double.NaN);
+        return detector.g(s);
+    }
+
+    @Override
+    public void init(SpacecraftState s0, AbsoluteDate t) {
+        detector.init(s0, t);
+    }
+
+    @Override
+    public void reset(SpacecraftState state, AbsoluteDate target) {
+        detector.reset(state, target);
+    }
+
+    @Override
+    public boolean dependsOnTimeOnly() {
+        return detector.dependsOnTimeOnly();
+    }
+
+    @Override
+    public double getThreshold() {
+        return detector.getThreshold();
+    }
+
+    @Override
+    public AdaptableInterval getMaxCheckInterval() {
+        return detector.getMaxCheckInterval();
+    }
+
+    @Override
+    public int getMaxIterationCount() {
+        return detector.getMaxIterationCount();
+    }
+
+    @Override
+    public EventDetectionSettings getDetectionSettings() {
+        return detector.getDetectionSettings();
+    }
+
+    @Override
+    public EventHandler getHandler() {
+        return handler;
+    }
+
+    @Override
+    public void finish(SpacecraftState state) {
+        detector.finish(state);
+    }
+
+    private static final class DelegatingHandler implements EventHandler {
+
+        private final EventDetector detector;
+
+        DelegatingHandler(EventDetector detector) {
+            this.detector = detector;
+        }
+
+        @Override
+        public void init(SpacecraftState initialState, AbsoluteDate target, EventDetector ignored) {
+            detector.getHandler().init(initialState, target, detector);
+        }
+
+        @Override
+        public Action eventOccurred(SpacecraftState s, EventDetector ignored, boolean increasing) {
+            return detector.getHandler().eventOccurred(s, detector, increasing);
+        }
+
+        @Override
+        public SpacecraftState resetState(EventDetector ignored, SpacecraftState oldState) {
+            return detector.getHandler().resetState(detector, oldState);
+        }
+
+        @Override
+        public void finish(SpacecraftState finalState, EventDetector ignored) {
+            detector.getHandler().finish(finalState, detector);
+        }
+    }
+}
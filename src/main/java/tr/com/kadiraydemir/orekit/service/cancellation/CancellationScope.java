@@ -0,0 +1,77 @@
+package tr.com.kadiraydemir.orekit.service.cancellation;
+
+import org.orekit.propagation.events.EventDetector;
+import org.orekit.time.AbsoluteDate;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Cancellation checks of a single task, used from the thread that opened it.
+ * <p>
+ * The compute time of the task is the CPU time of that thread, or the elapsed
+ * time where the JVM does not measure it (virtual threads).
+ */
+public final class CancellationScope {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final TaskCancellationMonitor monitor;
+    private final String task;
+    private final CallCancellation.Signal signal;
+    private final boolean cpuTime;
+    private final long start;
+
+    CancellationScope(TaskCancellationMonitor monitor, String task, CallCancellation.Signal signal) {
+        this.monitor = monitor;
+        this.task = task;
+        this.signal = signal;
+        long threadCpuTime = THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+        this.cpuTime = threadCpuTime >= 0;
+        this.start = cpuTime ? threadCpuTime : System.nanoTime();
+    }
+
+    /**
+     * @return whether the call was cancelled or its deadline expired
+     */
+    public boolean isCancelled() {
+        return signal.isCancelled();
+    }
+
+    /**
+     * Stop the task if the call was cancelled, without progress information.
+     *
+     * @throws TaskCancelledException if the call was cancelled
+     */
+    public void check() {
+        check(Double.NaN);
+    }
+
+    /**
+     * Stop the task if the call was cancelled.
+     *
+     * @param progress completed fraction of the task, in [0, 1]
+     * @throws TaskCancelledException if the call was cancelled
+     */
+    public void check(double progress) {
+        if (signal.isCancelled()) {
+            long now = cpuTime ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+            monitor.recordCancelled(task, now - start, progress);
+            throw new TaskCancelledException(task + " cancelled", signal.cause());
+        }
+    }
+
+    /**
+     * Wrap an event detector so that the event search over [start, end]
+     * checks this scope at every evaluation.
+     *
+     * @param detector detector to wrap
+     * @param start    start of the search
+     * @param end      end of the search
+     * @return detector stopping the propagation once the call is cancelled
+     */
+    public EventDetector monitor(EventDetector detector, AbsoluteDate start, AbsoluteDate end) {
+        return new CancellableDetector(detector, this, start, end);
+    }
+}
@@ -0,0 +1,65 @@
+package tr.com.kadiraydemir.orekit.service.cancellation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Entry point for cooperative cancellation of long running computations.
+ * <p>
+ * A {@link CancellationScope} follows the {@link CallCancellation} signal of
+ * the call that started the work, raised when the client cancels the call or
+ * its deadline expires. Compute loops check the scope and stop by throwing
+ * {@link tr.com.kadiraydemir.orekit.exception.TaskCancelledException}.
+ * <p>
+ * Cancelled tasks are counted in {@code orekit.tasks.cancelled}, and the
+ * compute time they did not spend is estimated from their progress into
+ * {@code orekit.tasks.cancelled.cpu.saved}, both tagged by task.
+ */
+@ApplicationScoped
+public class TaskCancellationMonitor {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    CallCancellation callCancellation;
+
+    /**
+     * Open a scope for work running on the current thread.
+     *
+     * @param task task name used as metric tag
+     * @return scope bound to the current call
+     */
+    public CancellationScope open(String task) {
+        return new CancellationScope(this, task, callCancellation.current());
+    }
+
+    /**
+     * Bind a runnable to the current call, so that the scopes it opens on
+     * another thread follow the same cancellation.
+     *
+     * @param runnable work to hand to another thread
+     * @return runnable running within the current call
+     */
+    public Runnable propagate(Runnable runnable) {
+        return callCancellation.propagate(runnable);
+    }
+
+    void recordCancelled(String task, long spentNanos, double progress) {
+        Counter.builder("orekit.tasks.cancelled")
+                .tag("task", task)
+                .register(registry)
+                .increment();
+        // Without known progress only the cancellation itself is counted
+        if (progress > 0 && progress < 1) {
+            double savedSeconds = spentNanos / 1.0e9 * (1 - progress) / progress;
+            Counter.builder("orekit.tasks.cancelled.cpu.saved")
+                    .baseUnit("seconds")
+                    .tag("task", task)
+                    .register(registry)
+                    .increment(savedSeconds);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 import org.orekit.bodies.CelestialBody;
 import org.orekit.bodies.CelestialBodyFactory;
@@ -25,82 +26,102 @@ import org.orekit.utils.OccultationEngine;
 import tr.com.kadiraydemir.orekit.model.EclipseRequest;
 import tr.com.kadiraydemir.orekit.model.EclipseIntervalResult;
 import tr.com.kadiraydemir.orekit.model.EclipseResult;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.service.cancellation.CancellationScope;
+import tr.com.kadiraydemir.orekit.service.cancellation.TaskCancellationMonitor;
+import tr.com.kadiraydemir.orekit.service.frame.FrameService;
+import tr.com.kadiraydemir.orekit.service.propagation.PropagatorFactoryService;
+import tr.com.kadiraydemir.orekit.service.propagation.PropagatorLease;
 
 @ApplicationScoped
 public class EclipseServiceImpl implements EclipseService {
 
+    @Inject
+    FrameService frameService;
+
+    @Inject
+    PropagatorFactoryService propagatorFactoryService;
+
+    @Inject
+    TaskCancellationMonitor cancellationMonitor;
+
     @Override
     public EclipseResult calculateEclipses(EclipseRequest request) {
-        // 1. Setup TLE
-        TLE tle = new TLE(request.tleLine1(), request.tleLine2());
-        TLEPropagator propagator = TLEPropagator.selectExtrapolator(tle);
-
-        // 2. Setup Reference Dates
-        AbsoluteDate startDate = new AbsoluteDate(request.startDateIso(), TimeScalesFactory.getUTC());
-        AbsoluteDate endDate = new AbsoluteDate(request.endDateIso(), TimeScalesFactory.getUTC());
-
-        // 3. Setup Bodies
-        CelestialBody sun = CelestialBodyFactory.getSun();
-        OneAxisEllipsoid earth = new OneAxisEllipsoid(
-                Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
-                Constants.WGS84_EARTH_FLATTENING,
-                FramesFactory.getITRF(IERSConventions.IERS_2010, true));
-
-        // 4. Setup Eclipse Detector
-        // Detects when the satellite enters the shadow (Umbra by default if not split)
-        // EclipseDetector checks: occuled (Sun) blocked by occulting (Earth)
-        OccultationEngine engine = new OccultationEngine(sun, Constants.SUN_RADIUS, earth);
-
-        EclipseDetector detector = new EclipseDetector(engine)
-                .withMaxCheck(60.0)
-                .withThreshold(1.0e-3)
-                .withHandler(new ContinueOnEvent());
-
-        // 6. Propagate
-        // Propagate to start first to get initial state
-        SpacecraftState initialState = propagator.propagate(startDate);
-
-        // 5. Monitor Events
-        EventsLogger logger = new EventsLogger();
-        propagator.addEventDetector(logger.monitorDetector(detector));
-
-        // Check if initially in eclipse
-        // g > 0: sun is visible (not eclipsed)
-        // g < 0: sun is occulted (eclipsed)
-        double initialG = detector.g(initialState);
-        AbsoluteDate currentStart = null;
-        if (initialG < 0.0) {
-            currentStart = startDate;
-        }
+        // 1. Setup TLE (propagator leased from the TLE cache)
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(request.tleLine1(),
+                request.tleLine2(), PropagationModelType.AUTO, null, frameService.getTemeFrame())) {
+            TLEPropagator propagator = (TLEPropagator) lease.propagator();
+            TLE tle = propagator.getTLE();
+
+            // 2. Setup Reference Dates
+            AbsoluteDate startDate = new AbsoluteDate(request.startDateIso(), TimeScalesFactory.getUTC());
+            AbsoluteDate endDate = new AbsoluteDate(request.endDateIso(), TimeScalesFactory.getUTC());
+
+            // 3. Setup Bodies
+            CelestialBody sun = CelestialBodyFactory.getSun();
+            OneAxisEllipsoid earth = new OneAxisEllipsoid(
+                    Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                    Constants.WGS84_EARTH_FLATTENING,
+                    FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+
+            // 4. Setup Eclipse Detector
+            // Detects when the satellite enters the shadow (Umbra by default if not split)
+            // EclipseDetector checks: occuled (Sun) blocked by occulting (Earth)
+            OccultationEngine engine = new OccultationEngine(sun, Constants.SUN_RADIUS, earth);
+
+            EclipseDetector detector = new EclipseDetector(engine)
+                    .withMaxCheck(60.0)
+                    .withThreshold(1.0e-3)
+                    .withHandler(new ContinueOnEvent());
+
+            // 6. Propagate
+            // Propagate to start first to get initial state
+            SpacecraftState initialState = propagator.propagate(startDate);
+
+            // 5. Monitor Events
+            EventsLogger logger = new EventsLogger();
+            // The search stops at the next detector evaluation once the call is cancelled
+            CancellationScope scope = cancellationMonitor.open("eclipse");
+            propagator.addEventDetector(scope.monitor(logger.monitorDetector(detector), startDate, endDate));
+
+            // Check if initially in eclipse
+            // g > 0: sun is visible (not eclipsed)
+            // g < 0: sun is occulted (eclipsed)
+            double initialG = detector.g(initialState);
+            AbsoluteDate currentStart = null;
+            if (initialG < 0.0) {
+                currentStart = startDate;
+            }
 
-        // Propagate to end
-        propagator.propagate(endDate);
-
-        // 7. Process Events
-        List<LoggedEvent> events = logger.getLoggedEvents();
-        List<EclipseIntervalResult> intervals = new ArrayList<>();
-
-        for (LoggedEvent event : events) {
-            if (!event.isIncreasing()) {
-                // Positive -> Negative: Entering Eclipse
-                currentStart = event.getState().getDate();
-            } else {
-                // Negative -> Positive: Exiting Eclipse
-                if (currentStart != null) {
-                    intervals.add(buildInterval(currentStart, event.getState().getDate()));
-                    currentStart = null;
+            // Propagate to end
+            propagator.propagate(endDate);
+
+            // 7. Process Events
+            List<LoggedEvent> events = logger.getLoggedEvents();
+            List<EclipseIntervalResult> intervals = new ArrayList<>();
+
+            for (LoggedEvent event : events) {
+                if (!event.isIncreasing()) {
+                    // Positive -> Negative: Entering Eclipse
+                    currentStart = event.getState().getDate();
+                } else {
+                    // Negative -> Positive: Exiting Eclipse
+                    if (currentStart != null) {
+                        intervals.add(buildInterval(currentStart, event.getState().getDate()));
+                        currentStart = null;
+                    }
                 }
             }
-        }
 
-        // If still in eclipse at end
-        if (currentStart != null) {
-            intervals.add(buildInterval(currentStart, endDate));
-        }
+            // If still in eclipse at end
+            if (currentStart != null) {
+                intervals.add(buildInterval(currentStart, endDate));
+            }
 
-        return new EclipseResult(
-                tle.getSatelliteNumber(),
-                intervals);
+            return new EclipseResult(
+                    tle.getSatelliteNumber(),
+                    intervals);
+        }
     }
 
     private EclipseIntervalResult buildInterval(AbsoluteDate start, AbsoluteDate end) {
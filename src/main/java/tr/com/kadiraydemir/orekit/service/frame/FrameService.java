@@ -1,5 +1,6 @@
 package tr.com.kadiraydemir.orekit.service.frame;
 
+import org.orekit.bodies.OneAxisEllipsoid;
 import org.orekit.frames.Frame;
 import org.orekit.frames.TopocentricFrame;
 import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
@@ -24,6 +25,13 @@ public interface FrameService {
      */
     Frame getTemeFrame();
 
+    /**
+     * Get the WGS84 Earth ellipsoid attached to ITRF, shared by all callers
+     *
+     * @return WGS84 ellipsoid
+     */
+    OneAxisEllipsoid getEarth();
+
     /**
      * Create a TopocentricFrame for a ground station
      * 
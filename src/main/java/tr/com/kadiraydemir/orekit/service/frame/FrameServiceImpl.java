@@ -17,6 +17,9 @@ import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 @ApplicationScoped
 public class FrameServiceImpl implements FrameService {
 
+    // Built on first use, once the Orekit data is loaded
+    private volatile OneAxisEllipsoid earth;
+
     @Override
     public Frame resolveFrame(ReferenceFrameType referenceFrame) {
         if (referenceFrame == null) {
@@ -35,20 +38,27 @@ public class FrameServiceImpl implements FrameService {
         return FramesFactory.getTEME();
     }
 
+    @Override
+    public OneAxisEllipsoid getEarth() {
+        OneAxisEllipsoid shared = earth;
+        if (shared == null) {
+            shared = new OneAxisEllipsoid(
+                    Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                    Constants.WGS84_EARTH_FLATTENING,
+                    FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+            earth = shared;
+        }
+        return shared;
+    }
+
     @Override
     public TopocentricFrame createTopocentricFrame(double latitude, double longitude, double altitude,
             String name) {
-        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
-        OneAxisEllipsoid earth = new OneAxisEllipsoid(
-                Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
-                Constants.WGS84_EARTH_FLATTENING,
-                itrf);
-
         GeodeticPoint point = new GeodeticPoint(
                 FastMath.toRadians(latitude),
                 FastMath.toRadians(longitude),
                 altitude);
 
-        return new TopocentricFrame(earth, point, name);
+        return new TopocentricFrame(getEarth(), point, name);
     }
 }
@@ -0,0 +1,179 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.time.AbsoluteDate;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
+import tr.com.kadiraydemir.orekit.model.ChebyshevEphemerisResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+
+/**
+ * Piecewise Chebyshev approximation of a trajectory, as used by CPF and SPK
+ * ephemerides.
+ * <p>
+ * Each segment is interpolated at the Chebyshev-Gauss nodes of a fixed degree
+ * and checked half way between the nodes, where the interpolation error peaks.
+ * Segments missing the tolerance are split in two until they meet it, so the
+ * segment length adapts to the dynamics (e.g. short around perigee).
+ */
+final class ChebyshevFitter {
+
+    /** Polynomial degree of every segment. */
+    static final int DEGREE = 12;
+
+    /** Smallest tolerance accepted, in meters, below the accuracy of any propagation model. */
+    static final double MIN_TOLERANCE = 1.0e-3;
+
+    /** Largest number of segments of a fit, about 3 MB of coefficients. */
+    static final int MAX_SEGMENTS = 10_000;
+
+    // Segments are not split below this length, whatever their error
+    private static final double MIN_SEGMENT_SECONDS = 1.0;
+
+    private static final double[] NODES = new double[DEGREE + 1];
+    private static final double[] CHECK_POINTS = new double[DEGREE];
+    private static final double[][] NODE_POLYNOMIALS = new double[DEGREE + 1][DEGREE + 1];
+
+    static {
+        int n = DEGREE + 1;
+        for (int k = 0; k < n; k++) {
+            NODES[k] = FastMath.cos(FastMath.PI * (k + 0.5) / n);
+        }
+        for (int k = 0; k < DEGREE; k++) {
+            CHECK_POINTS[k] = FastMath.cos(FastMath.PI * (k + 1) / n);
+        }
+        for (int k = 0; k < n; k++) {
+            NODE_POLYNOMIALS[k][0] = 1.0;
+            NODE_POLYNOMIALS[k][1] = NODES[k];
+            for (int j = 2; j < n; j++) {
+                NODE_POLYNOMIALS[k][j] = 2 * NODES[k] * NODE_POLYNOMIALS[k][j - 1] - NODE_POLYNOMIALS[k][j - 2];
+            }
+        }
+    }
+
+    private final Function<AbsoluteDate, Vector3D> positions;
+    private final double tolerance;
+
+    /**
+     * @param positions position of the trajectory at a date, in the output frame
+     * @param tolerance maximum position error in meters
+     */
+    ChebyshevFitter(Function<AbsoluteDate, Vector3D> positions, double tolerance) {
+        this.positions = positions;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Fit the trajectory over {@code [start, start + span]}.
+     *
+     * @param start    start of the fit
+     * @param span     length of the fit in seconds, strictly positive
+     * @param progress called after each segment with the covered fraction of the span
+     * @return the segments in time order, with the largest error found
+     * @throws InvalidArgumentException if the fit needs more than {@link #MAX_SEGMENTS} segments
+     */
+    Fit fit(AbsoluteDate start, double span, DoubleConsumer progress) {
+        List<ChebyshevEphemerisResult.Segment> segments = new ArrayList<>();
+        double maxError = 0;
+
+        // Pending segments as (offset, duration), the earliest one first
+        Deque<double[]> pending = new ArrayDeque<>();
+        pending.push(new double[] { 0, span });
+        while (!pending.isEmpty()) {
+            double[] interval = pending.pop();
+            double offset = interval[0];
+            double duration = interval[1];
+            AbsoluteDate segmentStart = start.shiftedBy(offset);
+
+            double[][] coefficients = interpolate(segmentStart, duration);
+            double error = checkError(segmentStart, duration, coefficients);
+            if (error > tolerance && duration / 2 >= MIN_SEGMENT_SECONDS) {
+                pending.push(new double[] { offset + duration / 2, duration / 2 });
+                pending.push(new double[] { offset, duration / 2 });
+                // Every pending interval ends up as at least one segment
+                if (segments.size() + pending.size() > MAX_SEGMENTS) {
+                    throw new InvalidArgumentException("Chebyshev fit needs more than " + MAX_SEGMENTS
+                            + " segments, increase the tolerance or shorten the span");
+                }
+                continue;
+            }
+
+            segments.add(new ChebyshevEphemerisResult.Segment(offset, duration,
+                    coefficients[0], coefficients[1], coefficients[2]));
+            maxError = FastMath.max(maxError, error);
+            progress.accept((offset + duration) / span);
+        }
+        return new Fit(segments, maxError);
+    }
+
+    /**
+     * Evaluate a Chebyshev series with the Clenshaw recurrence.
+     *
+     * @param coefficients coefficients of {@code T_0 .. T_n}
+     * @param tau          normalized time in {@code [-1, 1]}
+     * @return value of the series
+     */
+    static double evaluate(double[] coefficients, double tau) {
+        double b1 = 0;
+        double b2 = 0;
+        for (int j = coefficients.length - 1; j > 0; j--) {
+            double b0 = coefficients[j] + 2 * tau * b1 - b2;
+            b2 = b1;
+            b1 = b0;
+        }
+        return coefficients[0] + tau * b1 - b2;
+    }
+
+    // Discrete Chebyshev transform of the positions at the nodes
+    private double[][] interpolate(AbsoluteDate segmentStart, double duration) {
+        int n = DEGREE + 1;
+        double[][] coefficients = new double[3][n];
+        for (int k = 0; k < n; k++) {
+            Vector3D position = positions.apply(dateAt(segmentStart, duration, NODES[k]));
+            for (int j = 0; j < n; j++) {
+                double weight = NODE_POLYNOMIALS[k][j];
+                coefficients[0][j] += position.getX() * weight;
+                coefficients[1][j] += position.getY() * weight;
+                coefficients[2][j] += position.getZ() * weight;
+            }
+        }
+        for (double[] axis : coefficients) {
+            for (int j = 0; j < n; j++) {
+                axis[j] *= (j == 0 ? 1.0 : 2.0) / n;
+            }
+        }
+        return coefficients;
+    }
+
+    private double checkError(AbsoluteDate segmentStart, double duration, double[][] coefficients) {
+        double error = 0;
+        for (double tau : CHECK_POINTS) {
+            Vector3D expected = positions.apply(dateAt(segmentStart, duration, tau));
+            Vector3D fitted = new Vector3D(
+                    evaluate(coefficients[0], tau),
+                    evaluate(coefficients[1], tau),
+                    evaluate(coefficients[2], tau));
+            error = FastMath.max(error, Vector3D.distance(expected, fitted));
+        }
+        return error;
+    }
+
+    private static AbsoluteDate dateAt(AbsoluteDate segmentStart, double duration, double tau) {
+        return segmentStart.shiftedBy((tau + 1) * duration / 2);
+    }
+
+    /**
+     * Result of a fit.
+     *
+     * @param segments segments in time order
+     * @param maxError largest error found at the check points, in meters
+     */
+    record Fit(List<ChebyshevEphemerisResult.Segment> segments, double maxError) {
+    }
+}
@@ -0,0 +1,155 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.time.AbsoluteDate;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
+import tr.com.kadiraydemir.orekit.service.cancellation.CancellationScope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Picks the output epochs of a trajectory so that straight lines between
+ * consecutive points stay within a chordal tolerance.
+ * <p>
+ * The trajectory is walked forward with a step controller: every candidate
+ * step is checked against the trajectory at its quarter points, and rejected
+ * and shortened while the chord misses the tolerance. As the chordal error
+ * grows with the square of the step, the next step is scaled by the square
+ * root of the remaining margin. Smooth arcs therefore get long steps and
+ * perigee passes short ones.
+ * <p>
+ * The walk advances a batch of points at a time, so that callers can send
+ * each batch before the next one is sampled.
+ */
+final class ChordalSampler {
+
+    /** Smallest tolerance accepted, in meters. */
+    static final double MIN_TOLERANCE = 1.0e-3;
+
+    /** Largest number of points of a single sampling. */
+    static final int MAX_SAMPLES = 1_000_000;
+
+    // Steps are not shortened below this length, whatever their error
+    private static final double MIN_STEP_SECONDS = 0.1;
+
+    // Fraction of the tolerance the step controller aims for
+    private static final double SAFETY = 0.8;
+
+    // Largest step growth between two points
+    private static final double MAX_GROWTH = 4.0;
+
+    private static final double[] CHECK_POINTS = { 0.25, 0.5, 0.75 };
+
+    private final Function<AbsoluteDate, Vector3D> positions;
+    private final double tolerance;
+    private final double maxStep;
+    private final CancellationScope scope;
+    private final AbsoluteDate start;
+    private final double span;
+    private int count;
+    private double offset;
+    private double step;
+    private Vector3D position;
+
+    /**
+     * Sampler of {@code [start, start + span]}, both ends included.
+     *
+     * @param positions   position of the trajectory at a date, in the output frame
+     * @param tolerance   maximum distance in meters between the trajectory and the chords
+     * @param maxStep     longest step in seconds, short enough for the checks not to alias with the orbit
+     * @param scope       cancellation scope of the call
+     * @param start       first epoch
+     * @param span        length of the sampled window in seconds, not negative
+     * @param initialStep first step to try in seconds
+     */
+    ChordalSampler(Function<AbsoluteDate, Vector3D> positions, double tolerance, double maxStep,
+            CancellationScope scope, AbsoluteDate start, double span, double initialStep) {
+        this.positions = positions;
+        this.tolerance = tolerance;
+        this.maxStep = maxStep;
+        this.scope = scope;
+        this.start = start;
+        this.span = span;
+        this.step = FastMath.min(initialStep, maxStep);
+    }
+
+    /**
+     * @return whether points remain to be sampled
+     */
+    boolean hasNext() {
+        return count == 0 || offset < span;
+    }
+
+    /**
+     * Sample the next points.
+     *
+     * @param maxCount largest number of points to return, strictly positive
+     * @return the next points in time order, with the largest chord error among them
+     * @throws InvalidArgumentException if the sampling needs more than {@link #MAX_SAMPLES} points
+     */
+    Batch next(int maxCount) {
+        List<Sample> samples = new ArrayList<>(FastMath.min(maxCount, 1024));
+        double maxError = 0;
+        if (count == 0) {
+            position = positions.apply(start);
+            samples.add(new Sample(start, position));
+            count++;
+        }
+
+        while (offset < span && samples.size() < maxCount) {
+            scope.check(offset / span);
+            step = FastMath.min(FastMath.max(MIN_STEP_SECONDS, step), span - offset);
+            AbsoluteDate date = start.shiftedBy(offset);
+            AbsoluteDate next = start.shiftedBy(offset + step);
+            Vector3D nextPosition = positions.apply(next);
+            double error = chordError(date, position, step, nextPosition);
+            if (error > tolerance && step > MIN_STEP_SECONDS) {
+                step *= FastMath.max(0.25, SAFETY * FastMath.sqrt(tolerance / error));
+                continue;
+            }
+
+            if (++count > MAX_SAMPLES) {
+                throw new InvalidArgumentException("Adaptive sampling needs more than " + MAX_SAMPLES
+                        + " points, increase the chordal tolerance or shorten the span");
+            }
+            samples.add(new Sample(next, nextPosition));
+            maxError = FastMath.max(maxError, error);
+            offset += step;
+            position = nextPosition;
+            double growth = error > 0 ? SAFETY * FastMath.sqrt(tolerance / error) : MAX_GROWTH;
+            step = FastMath.min(maxStep, step * FastMath.min(MAX_GROWTH, growth));
+        }
+        return new Batch(samples, maxError);
+    }
+
+    private double chordError(AbsoluteDate date, Vector3D position, double step, Vector3D nextPosition) {
+        double error = 0;
+        for (double s : CHECK_POINTS) {
+            Vector3D expected = positions.apply(date.shiftedBy(s * step));
+            Vector3D chord = new Vector3D(1 - s, position, s, nextPosition);
+            error = FastMath.max(error, Vector3D.distance(expected, chord));
+        }
+        return error;
+    }
+
+    /**
+     * Sampled point.
+     *
+     * @param date     epoch of the point
+     * @param position position in the output frame
+     */
+    record Sample(AbsoluteDate date, Vector3D position) {
+    }
+
+    /**
+     * Consecutive sampled points.
+     *
+     * @param samples  points in time order
+     * @param maxError largest chord error found for these points, in meters
+     */
+    record Batch(List<Sample> samples, double maxError) {
+    }
+}
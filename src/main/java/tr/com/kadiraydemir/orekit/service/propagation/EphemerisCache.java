@@ -0,0 +1,433 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.time.AbsoluteDate;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Byte-bounded LRU cache of dense trajectories, answering repeated and
+ * overlapping propagation windows by interpolation.
+ * <p>
+ * A trajectory holds position and velocity nodes on a fixed time step chosen
+ * so that cubic Hermite interpolation between nodes stays within the cache
+ * tolerance. Every interval is checked at its midpoint when it is computed and
+ * the largest error is kept with the trajectory. A window that is not covered
+ * only computes the missing nodes before or after the cached span; a window
+ * far from it replaces the trajectory.
+ * <p>
+ * Trajectories are immutable, an extension publishes a new one, so readers
+ * never see a partial update.
+ * <p>
+ * Windows needing more nodes than the byte budget holds are not cached at
+ * all, and neither are trajectories whose error exceeds the request budget:
+ * their error is remembered so that later requests with no larger budget skip
+ * the cache instead of building them again.
+ */
+@ApplicationScoped
+public class EphemerisCache {
+
+    // Approximate footprint of a trajectory besides its nodes
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    // Node index rounding slack, so that epochs falling on a node do not pull in a neighbour
+    private static final double INDEX_EPSILON = 1.0e-9;
+
+    // Largest part whose half-step samples still fit in a single array
+    private static final long MAX_ARRAY_NODES = (Integer.MAX_VALUE - 8) / (2L * Trajectory.NODE_SIZE);
+
+    // Keys whose trajectory missed the request budget, remembered up to this many
+    private static final int MAX_REJECTED_KEYS = 1024;
+
+    @ConfigProperty(name = "orekit.ephemeris-cache.max-bytes", defaultValue = "67108864")
+    long maxBytes;
+
+    @ConfigProperty(name = "orekit.ephemeris-cache.tolerance-m", defaultValue = "0.1")
+    double tolerance;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Map<Key, Trajectory> entries;
+    private Map<Key, Double> rejected;
+    private long bytes;
+    private Counter hits;
+    private Counter extensions;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(256, 0.75f, true);
+        rejected = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                return size() > MAX_REJECTED_KEYS;
+            }
+        };
+        hits = registry.counter("orekit.ephemeris.cache.requests", "result", "hit");
+        extensions = registry.counter("orekit.ephemeris.cache.requests", "result", "extension");
+        misses = registry.counter("orekit.ephemeris.cache.requests", "result", "miss");
+        evictions = registry.counter("orekit.ephemeris.cache.evictions");
+        Gauge.builder("orekit.ephemeris.cache.bytes", this, EphemerisCache::getBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("orekit.ephemeris.cache.hit.ratio", this, EphemerisCache::getHitRatio).register(registry);
+    }
+
+    /**
+     * @return whether trajectories are cached at all
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * @return interpolation tolerance the node step is chosen for, in meters
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Get a trajectory covering {@code [start, end]}, computing only the nodes
+     * the cached trajectory lacks.
+     *
+     * @param key    trajectory identity
+     * @param step   node step for a new trajectory, in seconds
+     * @param start  start of the requested window
+     * @param end    end of the requested window
+     * @param budget largest interpolation error the request accepts, in meters
+     * @param source computes missing nodes
+     * @return trajectory covering the window within the budget, or null if the cache cannot provide one
+     */
+    public Trajectory getTrajectory(Key key, double step, AbsoluteDate start, AbsoluteDate end, double budget,
+            NodeSource source) {
+        Trajectory cached;
+        synchronized (entries) {
+            Double missedError = rejected.get(key);
+            cached = entries.get(key);
+            if ((missedError != null && missedError > budget) || (cached != null && cached.maxError() > budget)) {
+                misses.increment();
+                return null;
+            }
+        }
+
+        // Node counts are checked before anything is computed
+        long maxNodes = FastMath.min(maxBytes / (8L * Trajectory.NODE_SIZE), MAX_ARRAY_NODES);
+        Trajectory trajectory;
+        if (cached != null && cached.covers(start, end)) {
+            hits.increment();
+            return cached;
+        } else if (cached != null && cached.isNear(start, end)) {
+            extensions.increment();
+            if (cached.extendedNodeCount(start, end) > maxNodes) {
+                return null;
+            }
+            trajectory = cached.extend(start, end, source);
+        } else {
+            misses.increment();
+            if (Trajectory.nodeCount(step, start, end) > maxNodes) {
+                return null;
+            }
+            trajectory = Trajectory.compute(start, step, start, end, source);
+        }
+
+        // Computed outside the lock, when a concurrent request stored the same key first the larger span wins
+        synchronized (entries) {
+            if (trajectory.maxError() > budget) {
+                reject(key, trajectory.maxError());
+                return null;
+            }
+            rejected.remove(key);
+            Trajectory current = entries.get(key);
+            if (current != null && current != cached && current.nodeCount() >= trajectory.nodeCount()) {
+                return trajectory;
+            }
+            if (trajectory.bytes() > maxBytes) {
+                return trajectory;
+            }
+            if (current != null) {
+                bytes -= current.bytes();
+            }
+            entries.put(key, trajectory);
+            bytes += trajectory.bytes();
+            evictOverBudget(key);
+        }
+        return trajectory;
+    }
+
+    public long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double getHitCount() {
+        return hits.count();
+    }
+
+    public double getExtensionCount() {
+        return extensions.count();
+    }
+
+    public double getMissCount() {
+        return misses.count();
+    }
+
+    /**
+     * @return fraction of requests answered without computing any node
+     */
+    public double getHitRatio() {
+        double total = hits.count() + extensions.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0;
+    }
+
+    /**
+     * Drop every trajectory.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            rejected.clear();
+            bytes = 0;
+        }
+    }
+
+    // Must hold the lock
+    private void reject(Key key, double maxError) {
+        Trajectory current = entries.remove(key);
+        if (current != null) {
+            bytes -= current.bytes();
+        }
+        rejected.put(key, maxError);
+    }
+
+    // Must hold the lock
+    private void evictOverBudget(Key keep) {
+        Iterator<Map.Entry<Key, Trajectory>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Key, Trajectory> eldest = iterator.next();
+            if (!eldest.getKey().equals(keep)) {
+                bytes -= eldest.getValue().bytes();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Trajectory identity. The integrator only matters to numerical propagation.
+     *
+     * @param tleLine1   TLE line 1, without trailing whitespace
+     * @param tleLine2   TLE line 2, without trailing whitespace
+     * @param model      propagation model
+     * @param integrator integrator type, {@code null} unless the model is numerical
+     * @param frame      output frame name
+     */
+    public record Key(String tleLine1, String tleLine2, PropagationModelType model, IntegratorType integrator,
+            String frame) {
+
+        public static Key of(String tleLine1, String tleLine2, PropagationModelType model,
+                IntegratorType integrator, String frame) {
+            PropagationModelType resolved = model != null ? model : PropagationModelType.AUTO;
+            return new Key(tleLine1.stripTrailing(), tleLine2.stripTrailing(), resolved,
+                    resolved == PropagationModelType.NUMERICAL ? integrator : null, frame);
+        }
+    }
+
+    /**
+     * Computes position and velocity nodes.
+     */
+    @FunctionalInterface
+    public interface NodeSource {
+
+        /**
+         * @param first date of the first node
+         * @param step  time between nodes, in seconds
+         * @param count number of nodes
+         * @return x, y, z, vx, vy, vz of every node, in the output frame
+         */
+        double[] compute(AbsoluteDate first, double step, int count);
+    }
+
+    /**
+     * Position and velocity nodes at {@code origin + k * step} for
+     * {@code k} in {@code [firstIndex, firstIndex + nodeCount)}.
+     */
+    public static final class Trajectory {
+
+        private static final int NODE_SIZE = 6;
+
+        private final AbsoluteDate origin;
+        private final double step;
+        private final int firstIndex;
+        private final double[] nodes;
+        private final double maxError;
+
+        private Trajectory(AbsoluteDate origin, double step, int firstIndex, double[] nodes, double maxError) {
+            this.origin = origin;
+            this.step = step;
+            this.firstIndex = firstIndex;
+            this.nodes = nodes;
+            this.maxError = maxError;
+        }
+
+        /**
+         * @return number of nodes of a trajectory computed for {@code [start, end]}
+         */
+        static long nodeCount(double step, AbsoluteDate start, AbsoluteDate end) {
+            return FastMath.max(1, ceilIndex(start, step, end)) + 1;
+        }
+
+        // The node count must have been checked against the array limits
+        static Trajectory compute(AbsoluteDate origin, double step, AbsoluteDate start, AbsoluteDate end,
+                NodeSource source) {
+            int first = (int) floorIndex(origin, step, start);
+            int last = (int) FastMath.max(first + 1, ceilIndex(origin, step, end));
+            Part part = Part.compute(origin, step, first, last, source);
+            return new Trajectory(origin, step, first, part.nodes(), part.maxError());
+        }
+
+        /**
+         * @return largest interpolation error found at the interval midpoints, in meters
+         */
+        public double maxError() {
+            return maxError;
+        }
+
+        /**
+         * Interpolated position, valid within the covered span.
+         *
+         * @param date epoch
+         * @return position in the output frame
+         */
+        public Vector3D positionAt(AbsoluteDate date) {
+            double x = date.durationFrom(origin) / step;
+            int k = (int) FastMath.floor(x);
+            int interval = FastMath.max(firstIndex, FastMath.min(k, lastIndex() - 1)) - firstIndex;
+            double s = x - (interval + firstIndex);
+            return Part.interpolate(nodes, interval, step, s);
+        }
+
+        int nodeCount() {
+            return nodes.length / NODE_SIZE;
+        }
+
+        long bytes() {
+            return ENTRY_OVERHEAD_BYTES + 8L * nodes.length;
+        }
+
+        boolean covers(AbsoluteDate start, AbsoluteDate end) {
+            return floorIndex(origin, step, start) >= firstIndex && ceilIndex(origin, step, end) <= lastIndex();
+        }
+
+        // Bridging a gap is worth it while the gap is no larger than the window itself
+        boolean isNear(AbsoluteDate start, AbsoluteDate end) {
+            long first = floorIndex(origin, step, start);
+            long last = ceilIndex(origin, step, end);
+            long gap = FastMath.max(first - lastIndex(), firstIndex - last);
+            return gap <= last - first;
+        }
+
+        long extendedNodeCount(AbsoluteDate start, AbsoluteDate end) {
+            long first = FastMath.min(firstIndex, floorIndex(origin, step, start));
+            long last = FastMath.max(lastIndex(), ceilIndex(origin, step, end));
+            return last - first + 1;
+        }
+
+        // The extended node count must have been checked against the array limits
+        Trajectory extend(AbsoluteDate start, AbsoluteDate end, NodeSource source) {
+            int first = (int) FastMath.min(firstIndex, floorIndex(origin, step, start));
+            int last = (int) FastMath.max(lastIndex(), ceilIndex(origin, step, end));
+            double[] extended = new double[(last - first + 1) * NODE_SIZE];
+            double error = maxError;
+
+            // Each part shares a node with the cached span, so the bridging interval is checked too
+            if (first < firstIndex) {
+                Part before = Part.compute(origin, step, first, firstIndex, source);
+                System.arraycopy(before.nodes(), 0, extended, 0, before.nodes().length - NODE_SIZE);
+                error = FastMath.max(error, before.maxError());
+            }
+            System.arraycopy(nodes, 0, extended, (firstIndex - first) * NODE_SIZE, nodes.length);
+            if (last > lastIndex()) {
+                Part after = Part.compute(origin, step, lastIndex(), last, source);
+                System.arraycopy(after.nodes(), NODE_SIZE, extended, (lastIndex() + 1 - first) * NODE_SIZE,
+                        after.nodes().length - NODE_SIZE);
+                error = FastMath.max(error, after.maxError());
+            }
+            return new Trajectory(origin, step, first, extended, error);
+        }
+
+        private int lastIndex() {
+            return firstIndex + nodeCount() - 1;
+        }
+
+        private static long floorIndex(AbsoluteDate origin, double step, AbsoluteDate date) {
+            return (long) FastMath.floor(date.durationFrom(origin) / step + INDEX_EPSILON);
+        }
+
+        private static long ceilIndex(AbsoluteDate origin, double step, AbsoluteDate date) {
+            return (long) FastMath.ceil(date.durationFrom(origin) / step - INDEX_EPSILON);
+        }
+    }
+
+    /**
+     * Nodes {@code first..last} (inclusive) with the largest midpoint error of
+     * their intervals.
+     */
+    private record Part(double[] nodes, double maxError) {
+
+        // Nodes and midpoints are computed in a single pass at half the node step
+        static Part compute(AbsoluteDate origin, double step, int first, int last, NodeSource source) {
+            int count = last - first;
+            double[] samples = source.compute(origin.shiftedBy(first * step), step / 2, 2 * count + 1);
+            double[] nodes = new double[(count + 1) * Trajectory.NODE_SIZE];
+            for (int i = 0; i <= count; i++) {
+                System.arraycopy(samples, 2 * i * Trajectory.NODE_SIZE, nodes, i * Trajectory.NODE_SIZE,
+                        Trajectory.NODE_SIZE);
+            }
+            double maxError = 0;
+            for (int i = 0; i < count; i++) {
+                int midpoint = (2 * i + 1) * Trajectory.NODE_SIZE;
+                Vector3D expected = new Vector3D(samples[midpoint], samples[midpoint + 1], samples[midpoint + 2]);
+                maxError = FastMath.max(maxError, Vector3D.distance(expected, interpolate(nodes, i, step, 0.5)));
+            }
+            return new Part(nodes, maxError);
+        }
+
+        // Cubic Hermite interpolation between nodes i and i + 1, s in [0, 1]
+        static Vector3D interpolate(double[] nodes, int i, double step, double s) {
+            int a = i * Trajectory.NODE_SIZE;
+            int b = a + Trajectory.NODE_SIZE;
+            double s2 = s * s;
+            double s3 = s2 * s;
+            double h00 = 2 * s3 - 3 * s2 + 1;
+            double h10 = (s3 - 2 * s2 + s) * step;
+            double h01 = -2 * s3 + 3 * s2;
+            double h11 = (s3 - s2) * step;
+            return new Vector3D(
+                    h00 * nodes[a] + h10 * nodes[a + 3] + h01 * nodes[b] + h11 * nodes[b + 3],
+                    h00 * nodes[a + 1] + h10 * nodes[a + 4] + h01 * nodes[b + 1] + h11 * nodes[b + 4],
+                    h00 * nodes[a + 2] + h10 * nodes[a + 5] + h01 * nodes[b + 2] + h11 * nodes[b + 5]);
+        }
+    }
+}
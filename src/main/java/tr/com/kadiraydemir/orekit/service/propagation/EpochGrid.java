@@ -0,0 +1,150 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.frames.Frame;
+import org.orekit.frames.Transform;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScale;
+import org.orekit.utils.PVCoordinates;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Common output time grid of a batch propagation.
+ * <p>
+ * The epoch, its ISO timestamp and the TEME to output frame transform of an
+ * epoch are computed on first use and shared by all satellites of the batch.
+ * Callers done with an epoch may release it, so that a grid walked epoch by epoch
+ * only holds the current one besides a reference per epoch. Instances are
+ * safe to share between threads.
+ */
+public final class EpochGrid {
+
+    // Power of two, epochs computed concurrently by many satellites rarely share a lock
+    private static final int LOCK_STRIPES = 64;
+
+    private final AbsoluteDate startDate;
+    private final int size;
+    private final double timeStep;
+    private final Frame temeFrame;
+    private final Frame outputFrame;
+    private final TimeScale utc;
+    private final AtomicReferenceArray<Epoch> epochs;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private EpochGrid(AbsoluteDate startDate, int size, double timeStep, Frame temeFrame, Frame outputFrame,
+            TimeScale utc) {
+        this.startDate = startDate;
+        this.size = size;
+        this.timeStep = timeStep;
+        this.temeFrame = temeFrame;
+        this.outputFrame = outputFrame;
+        this.utc = utc;
+        this.epochs = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Build a grid of evenly spaced epochs.
+     *
+     * @param startDate     first epoch
+     * @param timeStep      step between consecutive epochs in seconds
+     * @param positionCount number of epochs
+     * @param temeFrame     TEME frame (native TLE frame)
+     * @param outputFrame   requested output frame
+     * @param utc           UTC time scale used for the timestamps
+     * @return the grid
+     */
+    static EpochGrid create(AbsoluteDate startDate, double timeStep, int positionCount, Frame temeFrame,
+            Frame outputFrame, TimeScale utc) {
+        return new EpochGrid(startDate, positionCount, timeStep, temeFrame, outputFrame, utc);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public AbsoluteDate getDate(int index) {
+        return epoch(index).date();
+    }
+
+    public String getTimestamp(int index) {
+        return epoch(index).timestamp();
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    public Frame getOutputFrame() {
+        return outputFrame;
+    }
+
+    public String getFrameName() {
+        return outputFrame.getName();
+    }
+
+    /**
+     * Drop the values computed for an epoch. They are computed again if the
+     * epoch is used later.
+     *
+     * @param index epoch index
+     */
+    void release(int index) {
+        epochs.set(index, null);
+    }
+
+    /**
+     * Convert a TEME position at the given epoch to the output frame.
+     *
+     * @param index        epoch index
+     * @param temePosition position in TEME
+     * @return position in the output frame
+     */
+    public Vector3D toOutputFrame(int index, Vector3D temePosition) {
+        Transform transform = epoch(index).transform();
+        return transform == null ? temePosition : transform.transformPosition(temePosition);
+    }
+
+    /**
+     * Convert a TEME position and velocity at the given epoch to the output frame.
+     *
+     * @param index  epoch index
+     * @param temePv position and velocity in TEME
+     * @return position and velocity in the output frame
+     */
+    public PVCoordinates toOutputFrame(int index, PVCoordinates temePv) {
+        Transform transform = epoch(index).transform();
+        return transform == null ? temePv : transform.transformPVCoordinates(temePv);
+    }
+
+    // Computed once per epoch even when every satellite of a batch reaches it at the same time
+    private Epoch epoch(int index) {
+        Epoch epoch = epochs.get(index);
+        if (epoch == null) {
+            synchronized (locks[index & (LOCK_STRIPES - 1)]) {
+                epoch = epochs.get(index);
+                if (epoch == null) {
+                    AbsoluteDate date = startDate.shiftedBy(index * timeStep);
+                    // No transform is needed when the output frame is already TEME
+                    Transform transform = temeFrame == outputFrame ? null : temeFrame.getTransformTo(outputFrame, date);
+                    epoch = new Epoch(date, date.toString(utc), transform);
+                    epochs.set(index, epoch);
+                }
+            }
+        }
+        return epoch;
+    }
+
+    /**
+     * Values shared by every satellite at one epoch.
+     *
+     * @param date      epoch
+     * @param timestamp ISO timestamp of the epoch, in UTC
+     * @param transform TEME to output frame transform, null when the output frame is TEME
+     */
+    private record Epoch(AbsoluteDate date, String timestamp, Transform transform) {
+    }
+}
@@ -0,0 +1,222 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.ObserverMethod;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.CelestialBodyFactory;
+import org.orekit.forces.ForceModel;
+import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
+import org.orekit.forces.gravity.Relativity;
+import org.orekit.forces.gravity.ThirdBodyAttraction;
+import org.orekit.forces.gravity.potential.GravityFieldFactory;
+import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
+import org.orekit.forces.gravity.potential.UnnormalizedSphericalHarmonicsProvider;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTForceModel;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTTesseral;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTThirdBody;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTZonal;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registry of ready-to-use force model stacks for numerical propagation.
+ * <p>
+ * Gravity fields are truncated once per (degree, order) and each stack is
+ * built once per {@link Key}. The force models hold no per-propagation state,
+ * so the same stack is shared by concurrent numerical propagators. The default
+ * stacks are loaded at startup, after the Orekit data providers are set up.
+ * <p>
+ * Keys may come from clients, so degree and order are checked against the
+ * loaded gravity field, capped by {@code orekit.force-models.max-degree}, and the stacks and truncated fields are kept in LRU
+ * maps of at most {@code orekit.force-models.max-entries} entries each.
+ * <p>
+ * DSST force models keep their short-period coefficients between calls, so a
+ * new DSST stack is built for every propagator, on top of the shared gravity
+ * fields.
+ */
+@ApplicationScoped
+@Startup(ObserverMethod.DEFAULT_PRIORITY + 10)
+public class ForceModelRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ForceModelRegistry.class);
+
+    /** Stack used by the NUMERICAL propagation model. */
+    public static final Key PROPAGATION_DEFAULT = new Key(10, 10, false, false);
+
+    /** Stack used by maneuver detection when no force model config is given. */
+    public static final Key ANALYSIS_DEFAULT = new Key(10, 10, true, true);
+
+    // Truncation of the DSST tesseral short-period terms: at 10x10 the full expansion
+    // costs about three times as much for no visible gain in position accuracy
+    private static final int DSST_TESSERAL_SP_MAX_DEGREE = 8;
+    private static final int DSST_TESSERAL_SP_MAX_ORDER = 4;
+    private static final int DSST_TESSERAL_SP_MAX_ECC_POW = 4;
+    private static final int DSST_TESSERAL_SP_MAX_FREQUENCY = 10;
+
+    @ConfigProperty(name = "orekit.force-models.max-entries", defaultValue = "16")
+    int maxEntries;
+
+    private final Map<Key, List<ForceModel>> stacks = lru();
+    private final Map<Long, NormalizedSphericalHarmonicsProvider> gravityFields = lru();
+    private final Map<Long, UnnormalizedSphericalHarmonicsProvider> unnormalizedGravityFields = lru();
+    @ConfigProperty(name = "orekit.force-models.max-degree", defaultValue = "360")
+    int maxDegree;
+
+    // Largest degree and order available in the gravity field data, searched on first use
+    private volatile Integer availableDegree;
+
+    @PostConstruct
+    void preload() {
+        for (Key key : List.of(PROPAGATION_DEFAULT, ANALYSIS_DEFAULT)) {
+            try {
+                getForceModels(key);
+                log.info("Preloaded force models for {}", key);
+            } catch (Exception e) {
+                // Missing data must not prevent startup, the stack is built again on first use
+                log.warn("Could not preload force models for {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the force model stack for the given configuration.
+     *
+     * @param key force model configuration
+     * @return immutable list of force models
+     * @throws InvalidArgumentException if the gravity field has no such degree and order
+     */
+    public List<ForceModel> getForceModels(Key key) {
+        validate(key);
+        return cached(stacks, key, this::buildStack);
+    }
+
+    /**
+     * Build a DSST force model stack for the given configuration.
+     * <p>
+     * The relativistic correction has no DSST counterpart and is ignored.
+     *
+     * @param key force model configuration
+     * @return new list of DSST force models, for a single propagator
+     * @throws InvalidArgumentException if the gravity field has no such degree and order
+     */
+    public List<DSSTForceModel> createDsstForceModels(Key key) {
+        validate(key);
+        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        UnnormalizedSphericalHarmonicsProvider gravityField = getUnnormalizedGravityField(key.degree(), key.order());
+        List<DSSTForceModel> forceModels = new ArrayList<>();
+        forceModels.add(new DSSTZonal(itrf, gravityField));
+        int spDegree = FastMath.min(DSST_TESSERAL_SP_MAX_DEGREE, key.degree());
+        int spOrder = FastMath.min(DSST_TESSERAL_SP_MAX_ORDER, key.order());
+        int spEccPow = FastMath.max(0, FastMath.min(DSST_TESSERAL_SP_MAX_ECC_POW, spDegree - 2));
+        forceModels.add(new DSSTTesseral(itrf, Constants.WGS84_EARTH_ANGULAR_VELOCITY, gravityField,
+                spDegree, spOrder, spEccPow, DSST_TESSERAL_SP_MAX_FREQUENCY, spDegree, spOrder, spEccPow));
+        if (key.thirdBody()) {
+            forceModels.add(new DSSTThirdBody(CelestialBodyFactory.getSun(), gravityField.getMu()));
+            forceModels.add(new DSSTThirdBody(CelestialBodyFactory.getMoon(), gravityField.getMu()));
+        }
+        return forceModels;
+    }
+
+    private List<ForceModel> buildStack(Key key) {
+        Frame itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        List<ForceModel> forceModels = new ArrayList<>();
+        forceModels.add(new HolmesFeatherstoneAttractionModel(itrf, getGravityField(key.degree(), key.order())));
+        if (key.thirdBody()) {
+            forceModels.add(new ThirdBodyAttraction(CelestialBodyFactory.getSun()));
+            forceModels.add(new ThirdBodyAttraction(CelestialBodyFactory.getMoon()));
+        }
+        if (key.relativity()) {
+            forceModels.add(new Relativity(Constants.WGS84_EARTH_MU));
+        }
+        return List.copyOf(forceModels);
+    }
+
+    private NormalizedSphericalHarmonicsProvider getGravityField(int degree, int order) {
+        return cached(gravityFields, ((long) degree << 32) | order,
+                k -> GravityFieldFactory.getNormalizedProvider(degree, order));
+    }
+
+    private UnnormalizedSphericalHarmonicsProvider getUnnormalizedGravityField(int degree, int order) {
+        return cached(unnormalizedGravityFields, ((long) degree << 32) | order,
+                k -> GravityFieldFactory.getUnnormalizedProvider(degree, order));
+    }
+
+    private void validate(Key key) {
+        int available = availableDegree();
+        if (key.order() < 0 || key.order() > key.degree() || key.degree() > available) {
+            throw new InvalidArgumentException("Gravity field degree " + key.degree() + " and order " + key.order()
+                    + " must satisfy 0 <= order <= degree <= " + available);
+        }
+    }
+
+    // Orekit only reports the degree it was asked to parse, so the largest readable one is bisected,
+    // up to the configured maximum
+    private int availableDegree() {
+        Integer available = availableDegree;
+        if (available == null) {
+            int readable = 0;
+            int unreadable = maxDegree + 1;
+            while (unreadable - readable > 1) {
+                int degree = (readable + unreadable) >>> 1;
+                try {
+                    GravityFieldFactory.readGravityField(degree, degree);
+                    readable = degree;
+                } catch (org.orekit.errors.OrekitException e) {
+                    unreadable = degree;
+                }
+            }
+            available = readable;
+            availableDegree = available;
+        }
+        return available;
+    }
+
+    // Built outside the lock, a concurrent miss on the same key keeps the first value
+    private static <K, V> V cached(Map<K, V> cache, K key, Function<K, V> builder) {
+        synchronized (cache) {
+            V cachedValue = cache.get(key);
+            if (cachedValue != null) {
+                return cachedValue;
+            }
+        }
+        V created = builder.apply(key);
+        synchronized (cache) {
+            V existing = cache.putIfAbsent(key, created);
+            return existing != null ? existing : created;
+        }
+    }
+
+    private <K, V> Map<K, V> lru() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Force model configuration.
+     *
+     * @param degree     gravity field degree
+     * @param order      gravity field order
+     * @param thirdBody  whether Sun and Moon attraction are included
+     * @param relativity whether the relativistic correction is included
+     */
+    public record Key(int degree, int order, boolean thirdBody, boolean relativity) {
+    }
+}
@@ -0,0 +1,69 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.frames.Frame;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.sampling.OrekitStepHandler;
+import org.orekit.propagation.sampling.OrekitStepInterpolator;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.function.IntFunction;
+
+/**
+ * Step handler filling a range of output epochs from the dense output of a
+ * single forward integration.
+ * <p>
+ * Every epoch covered by an integrator step is interpolated from that step, so
+ * the integrator never has to stop at the output epochs themselves.
+ */
+final class GridStepHandler implements OrekitStepHandler {
+
+    /**
+     * Receiver of the interpolated positions.
+     */
+    @FunctionalInterface
+    interface PositionSink {
+        void accept(int index, Vector3D position);
+    }
+
+    private final IntFunction<AbsoluteDate> dateAt;
+    private final int to;
+    private final Frame frame;
+    private final PositionSink sink;
+    private int next;
+
+    /**
+     * @param dateAt epoch of a grid index
+     * @param from   first grid index (inclusive)
+     * @param to     last grid index (exclusive)
+     * @param frame  frame of the positions
+     * @param sink   receiver of the positions
+     */
+    GridStepHandler(IntFunction<AbsoluteDate> dateAt, int from, int to, Frame frame, PositionSink sink) {
+        this.dateAt = dateAt;
+        this.to = to;
+        this.frame = frame;
+        this.sink = sink;
+        this.next = from;
+    }
+
+    @Override
+    public void handleStep(OrekitStepInterpolator interpolator) {
+        AbsoluteDate stepEnd = interpolator.getCurrentState().getDate();
+        while (next < to && dateAt.apply(next).compareTo(stepEnd) <= 0) {
+            AbsoluteDate date = dateAt.apply(next);
+            sink.accept(next, interpolator.getInterpolatedState(date).getPosition(frame));
+            next++;
+        }
+    }
+
+    @Override
+    public void finish(SpacecraftState finalState) {
+        // Epochs left by rounding at the very end are shifted from the final state
+        while (next < to) {
+            AbsoluteDate date = dateAt.apply(next);
+            sink.accept(next, finalState.shiftedBy(date.durationFrom(finalState.getDate())).getPosition(frame));
+            next++;
+        }
+    }
+}
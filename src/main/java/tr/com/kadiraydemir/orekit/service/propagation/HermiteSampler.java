@@ -0,0 +1,131 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEConstants;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.PVCoordinates;
+import tr.com.kadiraydemir.orekit.service.cancellation.CancellationScope;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Fills a range of evenly spaced output epochs by cubic Hermite interpolation
+ * of position and velocity between coarse propagator samples.
+ * <p>
+ * The coarse step comes from the orbit: the error of a cubic Hermite
+ * interpolation over a step {@code h} is bounded by {@code h^4 / 384} times the
+ * fourth derivative of the position, which for a Keplerian orbit peaks at
+ * perigee. Every coarse interval is then checked against the propagator at its
+ * midpoint, where the interpolation error peaks, and split in two while it
+ * misses the budget. The largest midpoint error is reported as the error
+ * estimate of the range.
+ */
+final class HermiteSampler {
+
+    private final Function<AbsoluteDate, PVCoordinates> pvAt;
+    private final IntFunction<AbsoluteDate> dateAt;
+    private final double errorBudget;
+    private final GridStepHandler.PositionSink sink;
+    private final CancellationScope scope;
+    private double maxError;
+
+    /**
+     * @param pvAt        exact position and velocity at a date, in the output frame
+     * @param dateAt      epoch of a grid index, evenly spaced
+     * @param errorBudget maximum position error in meters
+     * @param sink        receiver of the positions
+     * @param scope       cancellation scope of the call
+     */
+    HermiteSampler(Function<AbsoluteDate, PVCoordinates> pvAt, IntFunction<AbsoluteDate> dateAt,
+            double errorBudget, GridStepHandler.PositionSink sink, CancellationScope scope) {
+        this.pvAt = pvAt;
+        this.dateAt = dateAt;
+        this.errorBudget = errorBudget;
+        this.sink = sink;
+        this.scope = scope;
+    }
+
+    /**
+     * Coarse step keeping the interpolation error of an orbit within the budget.
+     *
+     * @param tle         orbit
+     * @param errorBudget maximum position error in meters
+     * @return step in seconds
+     */
+    static double coarseStep(TLE tle, double errorBudget) {
+        double n = tle.getMeanMotion();
+        double e = FastMath.min(tle.getE(), 0.99);
+        double a = FastMath.cbrt(TLEConstants.MU / (n * n));
+        double perigee = a * (1 - e);
+        // Angular rate at perigee; for a circular orbit |d4r/dt4| = r * n^4
+        double rateSquared = TLEConstants.MU * (1 + e) / (perigee * perigee * perigee);
+        double fourthDerivative = perigee * rateSquared * rateSquared;
+        return FastMath.pow(384 * errorBudget / fourthDerivative, 0.25);
+    }
+
+    /**
+     * Fill the grid indices {@code [from, to)}, sampling the propagator every
+     * {@code indicesPerStep} indices.
+     *
+     * @param from           first grid index (inclusive)
+     * @param to             last grid index (exclusive)
+     * @param indicesPerStep grid steps per coarse step
+     * @return largest interpolation error found at the interval midpoints, in meters
+     */
+    double sample(int from, int to, int indicesPerStep) {
+        int last = to - 1;
+        int start = from;
+        PVCoordinates startPv = evaluate(from);
+        while (start < last) {
+            scope.check((double) (start - from) / (to - from));
+            int end = FastMath.min(last, start + indicesPerStep);
+            PVCoordinates endPv = evaluate(end);
+            fill(start, startPv, end, endPv);
+            start = end;
+            startPv = endPv;
+        }
+        sink.accept(last, startPv.getPosition());
+        return maxError;
+    }
+
+    // Fill [start, end) from the samples at both ends, splitting the interval while it misses the budget
+    private void fill(int start, PVCoordinates startPv, int end, PVCoordinates endPv) {
+        AbsoluteDate startDate = dateAt.apply(start);
+        double duration = dateAt.apply(end).durationFrom(startDate);
+        if (end - start > 1) {
+            Vector3D expected = pvAt.apply(startDate.shiftedBy(duration / 2)).getPosition();
+            double error = Vector3D.distance(expected, interpolate(startPv, endPv, duration, 0.5));
+            if (error > errorBudget) {
+                int mid = (start + end) / 2;
+                PVCoordinates midPv = evaluate(mid);
+                fill(start, startPv, mid, midPv);
+                fill(mid, midPv, end, endPv);
+                return;
+            }
+            maxError = FastMath.max(maxError, error);
+        }
+        sink.accept(start, startPv.getPosition());
+        for (int i = start + 1; i < end; i++) {
+            double s = dateAt.apply(i).durationFrom(startDate) / duration;
+            sink.accept(i, interpolate(startPv, endPv, duration, s));
+        }
+    }
+
+    private PVCoordinates evaluate(int index) {
+        return pvAt.apply(dateAt.apply(index));
+    }
+
+    private static Vector3D interpolate(PVCoordinates start, PVCoordinates end, double duration, double s) {
+        double s2 = s * s;
+        double s3 = s2 * s;
+        double h00 = 2 * s3 - 3 * s2 + 1;
+        double h10 = (s3 - 2 * s2 + s) * duration;
+        double h01 = -2 * s3 + 3 * s2;
+        double h11 = (s3 - s2) * duration;
+        return new Vector3D(h00, start.getPosition(), h10, start.getVelocity(),
+                h01, end.getPosition(), h11, end.getVelocity());
+    }
+}
@@ -17,4 +17,12 @@ public interface IntegratorService {
      * @return configured AbstractIntegrator
      */
     AbstractIntegrator createIntegrator(IntegratorType integratorType, Orbit initialOrbit);
+
+    /**
+     * Create an integrator for the mean elements of a DSST propagator
+     *
+     * @param initialOrbit the initial orbit for step size and tolerance calculation
+     * @return configured AbstractIntegrator
+     */
+    AbstractIntegrator createDsstIntegrator(Orbit initialOrbit);
 }
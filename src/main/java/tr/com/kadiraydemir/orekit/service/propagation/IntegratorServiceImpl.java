@@ -28,6 +28,8 @@ public class IntegratorServiceImpl implements IntegratorService {
     private static final double MASS_TOLERANCE = 1.0e-6; // Mass tolerance in kg
     private static final double FIXED_STEP_SIZE = 60.0; // Fixed step size in seconds
     private static final int ADAMS_ORDER = 4; // Order for Adams integrators
+    private static final double DSST_MIN_STEP_PERIODS = 1.0; // Mean elements vary slowly, steps of whole orbits
+    private static final double DSST_MAX_STEP_PERIODS = 100.0;
 
     @Override
     public AbstractIntegrator createIntegrator(IntegratorType integratorType, Orbit initialOrbit) {
@@ -55,4 +57,14 @@ public class IntegratorServiceImpl implements IntegratorService {
                     MIN_STEP, MAX_STEP, tolerance[0], tolerance[1]);
         };
     }
+
+    @Override
+    public AbstractIntegrator createDsstIntegrator(Orbit initialOrbit) {
+        // DSST integrates mean equinoctial elements
+        double[][] tolerance = ToleranceProvider.getDefaultToleranceProvider(POSITION_TOLERANCE)
+                .getTolerances(initialOrbit, OrbitType.EQUINOCTIAL, PositionAngleType.MEAN);
+        double period = initialOrbit.getKeplerianPeriod();
+        return new DormandPrince853Integrator(
+                DSST_MIN_STEP_PERIODS * period, DSST_MAX_STEP_PERIODS * period, tolerance[0], tolerance[1]);
+    }
 }
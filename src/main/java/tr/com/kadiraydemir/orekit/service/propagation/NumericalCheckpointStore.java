@@ -0,0 +1,236 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hipparchus.util.FastMath;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.sampling.OrekitStepHandler;
+import org.orekit.propagation.sampling.OrekitStepInterpolator;
+import org.orekit.time.AbsoluteDate;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
+import tr.com.kadiraydemir.orekit.service.cancellation.CancellationScope;
+import tr.com.kadiraydemir.orekit.service.cancellation.TaskCancellationMonitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Integrated states of numerical propagations, kept at fixed intervals after
+ * the TLE epoch so that later requests do not integrate from the epoch again.
+ * <p>
+ * A propagator attached to the store records a checkpoint at every
+ * {@code epoch + k * interval} its integration crosses. Before a request
+ * window, the propagator is reset to the latest checkpoint not after the
+ * window start, so a window 20 days after the epoch integrates at most one
+ * interval before it once the checkpoints exist. Checkpoints are kept per
+ * (TLE, integrator, force models), up to a fixed number of intervals after
+ * the epoch, the least recently used satellites being dropped first.
+ * <p>
+ * Resuming is opt-in ({@code orekit.numerical-checkpoints.interval-seconds}).
+ * The integration restarts from an interpolated state, so a resumed window
+ * differs from a cold run by the integrator tolerance level (centimeters over
+ * days for the default integrators), and whether a window is resumed depends
+ * on the requests served before it.
+ */
+@ApplicationScoped
+public class NumericalCheckpointStore {
+
+    // 0 disables the checkpoints
+    @ConfigProperty(name = "orekit.numerical-checkpoints.interval-seconds", defaultValue = "0")
+    double interval;
+
+    @ConfigProperty(name = "orekit.numerical-checkpoints.max-satellites", defaultValue = "1000")
+    int maxSatellites;
+
+    // Checkpoints k * interval after the epoch are kept for k up to this count
+    @ConfigProperty(name = "orekit.numerical-checkpoints.max-per-satellite", defaultValue = "366")
+    int maxPerSatellite;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    TaskCancellationMonitor cancellationMonitor;
+
+    private Map<Key, Checkpoints> checkpoints;
+    private final AtomicInteger stateCount = new AtomicInteger();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        checkpoints = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Checkpoints> eldest) {
+                if (size() > maxSatellites) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+        hits = registry.counter("orekit.numerical.checkpoints.requests", "result", "hit");
+        misses = registry.counter("orekit.numerical.checkpoints.requests", "result", "miss");
+        Gauge.builder("orekit.numerical.checkpoints.states", this, NumericalCheckpointStore::stateCount)
+                .register(registry);
+    }
+
+    /**
+     * Attach a propagator freshly initialized at the TLE epoch to the store and
+     * move it to the start of a request window.
+     * <p>
+     * The propagator restarts from the latest checkpoint not after
+     * {@code start}. When checkpoints lie between that state and
+     * {@code start}, it is integrated up to {@code start} right away so they
+     * get recorded; otherwise the integration to {@code start} is left to the
+     * caller's own propagation.
+     *
+     * @param propagator numerical propagator, not shared
+     * @param key        checkpoint identity of the propagator
+     * @param start      start of the window the propagator is used for
+     */
+    public void resume(Propagator propagator, Key key, AbsoluteDate start) {
+        if (interval <= 0) {
+            return;
+        }
+        AbsoluteDate epoch = propagator.getInitialState().getDate();
+        Checkpoints satellite = satellite(key);
+        propagator.getMultiplexer().add(new Recorder(epoch, satellite));
+
+        if (start.durationFrom(epoch) < interval) {
+            return;
+        }
+        Map.Entry<AbsoluteDate, SpacecraftState> latest = satellite.states.floorEntry(start);
+        if (latest != null) {
+            hits.increment();
+            propagator.resetInitialState(latest.getValue());
+        } else {
+            misses.increment();
+        }
+
+        // Integration up to the start is run without step handlers by Orekit, so it is done here
+        AbsoluteDate from = propagator.getInitialState().getDate();
+        if (nextBoundary(epoch, from) <= start.durationFrom(epoch)) {
+            integrate(propagator, from, start);
+        }
+    }
+
+    public double getHitCount() {
+        return hits.count();
+    }
+
+    public double getMissCount() {
+        return misses.count();
+    }
+
+    public int stateCount() {
+        return stateCount.get();
+    }
+
+    /**
+     * Drop every checkpoint.
+     */
+    public void clear() {
+        synchronized (checkpoints) {
+            checkpoints.values().forEach(Checkpoints::evict);
+            checkpoints.clear();
+        }
+    }
+
+    // The leg runs before the caller's own cancellation checks are attached
+    private void integrate(Propagator propagator, AbsoluteDate from, AbsoluteDate to) {
+        CancellationScope scope = cancellationMonitor.open("propagation");
+        double span = to.durationFrom(from);
+        OrekitStepHandler cancellationCheck = interpolator -> scope.check(
+                interpolator.getCurrentState().getDate().durationFrom(from) / span);
+        propagator.getMultiplexer().add(cancellationCheck);
+        try {
+            propagator.resetInitialState(propagator.propagate(to));
+        } finally {
+            propagator.getMultiplexer().remove(cancellationCheck);
+        }
+    }
+
+    private Checkpoints satellite(Key key) {
+        synchronized (checkpoints) {
+            return checkpoints.computeIfAbsent(key, k -> new Checkpoints());
+        }
+    }
+
+    // Offset from the epoch of the first checkpoint strictly after the given date
+    private double nextBoundary(AbsoluteDate epoch, AbsoluteDate date) {
+        return (FastMath.floor(date.durationFrom(epoch) / interval) + 1) * interval;
+    }
+
+    /**
+     * Checkpoint identity.
+     *
+     * @param tleLine1    TLE line 1, without trailing whitespace
+     * @param tleLine2    TLE line 2, without trailing whitespace
+     * @param integrator  integrator type
+     * @param forceModels force model configuration
+     */
+    public record Key(String tleLine1, String tleLine2, IntegratorType integrator,
+            ForceModelRegistry.Key forceModels) {
+    }
+
+    /**
+     * Checkpoints of one satellite. Propagations still running may record
+     * into it after it was evicted, those states are discarded.
+     */
+    private final class Checkpoints {
+
+        private final NavigableMap<AbsoluteDate, SpacecraftState> states = new ConcurrentSkipListMap<>();
+        private boolean evicted;
+
+        synchronized void record(AbsoluteDate date, SpacecraftState state) {
+            if (!evicted && states.putIfAbsent(date, state) == null) {
+                stateCount.incrementAndGet();
+            }
+        }
+
+        synchronized void evict() {
+            evicted = true;
+            stateCount.addAndGet(-states.size());
+            states.clear();
+        }
+    }
+
+    /**
+     * Step handler storing the interpolated state at every checkpoint date a
+     * step crosses.
+     */
+    private final class Recorder implements OrekitStepHandler {
+
+        private final AbsoluteDate epoch;
+        private final Checkpoints checkpoints;
+
+        Recorder(AbsoluteDate epoch, Checkpoints checkpoints) {
+            this.epoch = epoch;
+            this.checkpoints = checkpoints;
+        }
+
+        @Override
+        public void handleStep(OrekitStepInterpolator interpolator) {
+            double a = interpolator.getPreviousState().getDate().durationFrom(epoch);
+            double b = interpolator.getCurrentState().getDate().durationFrom(epoch);
+            long first = (long) FastMath.max(1, FastMath.ceil(FastMath.min(a, b) / interval));
+            long last = FastMath.min(maxPerSatellite, (long) FastMath.floor(FastMath.max(a, b) / interval));
+            for (long k = first; k <= last; k++) {
+                AbsoluteDate date = epoch.shiftedBy(k * interval);
+                if (!checkpoints.states.containsKey(date)) {
+                    checkpoints.record(date, interpolator.getInterpolatedState(date));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.orekit.frames.Frame;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Output frames of a single propagation pass.
+ * <p>
+ * A single frame is propagated into directly. Several frames are propagated
+ * once in TEME, and every position is then converted to each frame with a
+ * single TEME to frame transform per epoch. Only positions are converted, so
+ * static transforms are used and no rates are computed.
+ */
+final class OutputFrames {
+
+    private final List<Frame> frames;
+    private final Frame temeFrame;
+
+    /**
+     * @param frames    requested frames, without duplicates and not empty
+     * @param temeFrame TEME frame (native TLE frame)
+     */
+    OutputFrames(List<Frame> frames, Frame temeFrame) {
+        this.frames = List.copyOf(frames);
+        this.temeFrame = temeFrame;
+    }
+
+    int size() {
+        return frames.size();
+    }
+
+    Frame get(int index) {
+        return frames.get(index);
+    }
+
+    /**
+     * @return frame the positions are propagated in
+     */
+    Frame propagationFrame() {
+        return frames.size() == 1 ? frames.get(0) : temeFrame;
+    }
+
+    /**
+     * Sink converting positions of the propagation frame to every output frame.
+     *
+     * @param dateAt epoch of a grid index
+     * @param sinks  receiver of the positions of each output frame, in frame order
+     * @return sink of propagation frame positions
+     */
+    GridStepHandler.PositionSink split(IntFunction<AbsoluteDate> dateAt, GridStepHandler.PositionSink[] sinks) {
+        if (frames.size() == 1) {
+            return sinks[0];
+        }
+        return (index, temePosition) -> {
+            AbsoluteDate date = dateAt.apply(index);
+            for (int k = 0; k < frames.size(); k++) {
+                Frame frame = frames.get(k);
+                sinks[k].accept(index, frame == temeFrame
+                        ? temePosition
+                        : temeFrame.getStaticTransformTo(frame, date).transformPosition(temePosition));
+            }
+        };
+    }
+}
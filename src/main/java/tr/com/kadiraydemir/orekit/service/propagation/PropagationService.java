@@ -1,14 +1,195 @@
 package tr.com.kadiraydemir.orekit.service.propagation;
 
+import tr.com.kadiraydemir.orekit.model.ChebyshevEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.GroundTrackResult;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
 import tr.com.kadiraydemir.orekit.model.OrbitResult;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
 import tr.com.kadiraydemir.orekit.model.PropagateRequest;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
+import tr.com.kadiraydemir.orekit.model.SatelliteTle;
+import tr.com.kadiraydemir.orekit.model.SnapshotResult;
 import tr.com.kadiraydemir.orekit.model.TLEPropagateRequest;
 import tr.com.kadiraydemir.orekit.model.TleResult;
 
 import io.smallrye.mutiny.Multi;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.List;
 
 public interface PropagationService {
     OrbitResult propagate(PropagateRequest request);
 
     Multi<TleResult> propagateTLE(TLEPropagateRequest request);
+
+    /**
+     * Propagate a TLE and return the positions as packed coordinate columns
+     * instead of one record per point.
+     *
+     * @param request the TLE propagation request
+     * @return one packed ephemeris per chunk, in time order
+     */
+    Multi<PackedEphemerisResult> propagateTLEPacked(TLEPropagateRequest request);
+
+    /**
+     * Propagate a TLE and return its geodetic ground track on the WGS84
+     * ellipsoid as packed latitude, longitude and altitude columns. The output
+     * frames of the request are not used.
+     *
+     * @param request the TLE propagation request
+     * @return one packed ground track per chunk, in time order
+     */
+    Multi<GroundTrackResult> propagateTLEGroundTrack(TLEPropagateRequest request);
+
+    /**
+     * Propagate a TLE over the requested span and compress the trajectory into
+     * Chebyshev segments within the requested tolerance. The position count
+     * and chunk size of the request are not used.
+     *
+     * @param request the TLE propagation request
+     * @return the fitted segments covering the whole span
+     */
+    ChebyshevEphemerisResult propagateTLEChebyshev(TLEPropagateRequest request);
+
+    /**
+     * Build the output time grid shared by all satellites of a batch, including
+     * the TEME to output frame transform of every epoch.
+     *
+     * @param startDate     ISO-8601 start date
+     * @param endDate       ISO-8601 end date
+     * @param positionCount number of evenly spaced epochs
+     * @param outputFrame   output reference frame
+     * @return the shared epoch grid
+     */
+    EpochGrid createEpochGrid(String startDate, String endDate, int positionCount, ReferenceFrameType outputFrame);
+
+    /**
+     * Propagate a TLE over a precomputed epoch grid.
+     *
+     * @param tleLine1   TLE line 1
+     * @param tleLine2   TLE line 2
+     * @param model      propagation model
+     * @param integrator integrator type for numerical propagation
+     * @param grid       shared epoch grid
+     * @return positions at every epoch of the grid
+     */
+    default TleResult propagateTLE(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid) {
+        return propagateTLE(tleLine1, tleLine2, model, integrator, grid, 0);
+    }
+
+    /**
+     * Propagate a TLE over a precomputed epoch grid, interpolating between
+     * coarser propagator samples as long as the estimated error stays within
+     * the budget.
+     *
+     * @param tleLine1                 TLE line 1
+     * @param tleLine2                 TLE line 2
+     * @param model                    propagation model
+     * @param integrator               integrator type for numerical propagation
+     * @param grid                     shared epoch grid
+     * @param interpolationErrorBudget maximum interpolation error in meters, 0 to propagate every epoch
+     * @return positions at every epoch of the grid
+     */
+    TleResult propagateTLE(String tleLine1, String tleLine2, PropagationModelType model, IntegratorType integrator,
+            EpochGrid grid, double interpolationErrorBudget);
+
+    /**
+     * Propagate a TLE over a precomputed epoch grid into packed coordinate columns.
+     *
+     * @param tleLine1   TLE line 1
+     * @param tleLine2   TLE line 2
+     * @param model      propagation model
+     * @param integrator integrator type for numerical propagation
+     * @param grid       shared epoch grid
+     * @return packed positions at every epoch of the grid
+     */
+    default PackedEphemerisResult propagateTLEPacked(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid) {
+        return propagateTLEPacked(tleLine1, tleLine2, model, integrator, grid, 0);
+    }
+
+    /**
+     * Propagate a TLE over a precomputed epoch grid into packed coordinate
+     * columns, interpolating between coarser propagator samples as long as the
+     * estimated error stays within the budget.
+     *
+     * @param tleLine1                 TLE line 1
+     * @param tleLine2                 TLE line 2
+     * @param model                    propagation model
+     * @param integrator               integrator type for numerical propagation
+     * @param grid                     shared epoch grid
+     * @param interpolationErrorBudget maximum interpolation error in meters, 0 to propagate every epoch
+     * @return packed positions at every epoch of the grid
+     */
+    PackedEphemerisResult propagateTLEPacked(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, double interpolationErrorBudget);
+
+    /**
+     * Propagate a TLE over a precomputed epoch grid into a packed geodetic
+     * ground track. An ITRF grid makes the conversion to geodetic coordinates
+     * reuse its frame transforms directly.
+     *
+     * @param tleLine1                 TLE line 1
+     * @param tleLine2                 TLE line 2
+     * @param model                    propagation model
+     * @param integrator               integrator type for numerical propagation
+     * @param grid                     shared epoch grid
+     * @param interpolationErrorBudget maximum interpolation error in meters, 0 to propagate every epoch
+     * @return latitude, longitude and altitude at every epoch of the grid
+     */
+    GroundTrackResult propagateTLEGroundTrack(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, double interpolationErrorBudget);
+
+    /**
+     * Propagate a set of TLEs to the single epoch of a grid and return their
+     * state vectors as packed columns. The TEME to output frame transform of
+     * the grid is shared by every satellite. Satellites that fail are reported
+     * in the errors of the result instead of failing the whole set.
+     *
+     * @param tles       TLEs to propagate
+     * @param model      propagation model
+     * @param integrator integrator type for numerical propagation
+     * @param grid       shared grid holding exactly one epoch
+     * @return state vectors of the satellites, in input order
+     */
+    SnapshotResult propagateSnapshot(List<SatelliteTle> tles, PropagationModelType model, IntegratorType integrator,
+            EpochGrid grid);
+
+    /**
+     * Propagate a set of TLEs over a grid in lockstep and stream their state
+     * vectors epoch by epoch. Every satellite keeps its propagator for the
+     * whole grid and only the states of the current epoch are held, so memory
+     * does not grow with the number of epochs. Satellites that fail are
+     * reported in the errors of the epoch they failed at and dropped from the
+     * later epochs.
+     *
+     * @param tles       TLEs to propagate
+     * @param model      propagation model
+     * @param integrator integrator type for numerical propagation
+     * @param grid       shared epoch grid
+     * @param blockSize  maximum number of satellites per result
+     * @return results of every epoch in time order, each epoch split into blocks of satellites in input order
+     */
+    Multi<SnapshotResult> propagateTimeMajor(List<SatelliteTle> tles, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, int blockSize);
+
+    /**
+     * Evaluate a TLE with SGP4/SDP4 at offsets from a reference date and write
+     * the TEME state vectors into caller buffers. Internal bulk API for hot
+     * loops: nothing is allocated per point, and the buffers can be reused
+     * from one call to the next.
+     *
+     * @param tleLine1   TLE line 1
+     * @param tleLine2   TLE line 2
+     * @param model      AUTO, SGP4 or SDP4
+     * @param reference  date the offsets are counted from
+     * @param offsets    offsets from the reference in seconds
+     * @param count      number of offsets to evaluate
+     * @param positions  receives x, y, z of point k at {@code 3 * k}, in meters
+     * @param velocities receives vx, vy, vz of point k at {@code 3 * k}, in meters per second
+     */
+    void propagateTLEBulk(String tleLine1, String tleLine2, PropagationModelType model, AbsoluteDate reference,
+            double[] offsets, int count, double[] positions, double[] velocities);
 }
@@ -2,31 +2,61 @@ package tr.com.kadiraydemir.orekit.service.propagation;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.bodies.OneAxisEllipsoid;
 import org.orekit.frames.Frame;
 import org.orekit.frames.FramesFactory;
 import org.orekit.orbits.KeplerianOrbit;
 import org.orekit.orbits.Orbit;
 import org.orekit.orbits.PositionAngleType;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.EphemerisGenerator;
 import org.orekit.propagation.Propagator;
 import org.orekit.propagation.analytical.KeplerianPropagator;
 import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.integration.AbstractIntegratedPropagator;
+import org.orekit.propagation.sampling.OrekitStepHandler;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScale;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.Constants;
 import org.orekit.utils.PVCoordinates;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
 import tr.com.kadiraydemir.orekit.exception.OrekitException;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
+import tr.com.kadiraydemir.orekit.model.ChebyshevEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.GroundTrackResult;
 import tr.com.kadiraydemir.orekit.model.IntegratorType;
 import tr.com.kadiraydemir.orekit.model.OrbitResult;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
 import tr.com.kadiraydemir.orekit.model.PropagateRequest;
 import tr.com.kadiraydemir.orekit.model.PropagationModelType;
 import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
+import tr.com.kadiraydemir.orekit.model.SatelliteTle;
+import tr.com.kadiraydemir.orekit.model.SnapshotResult;
 import tr.com.kadiraydemir.orekit.model.TLEPropagateRequest;
 import tr.com.kadiraydemir.orekit.model.TleResult;
+import tr.com.kadiraydemir.orekit.service.cancellation.CancellationScope;
+import tr.com.kadiraydemir.orekit.service.cancellation.TaskCancellationMonitor;
 import tr.com.kadiraydemir.orekit.service.frame.FrameService;
+import tr.com.kadiraydemir.orekit.utils.TleUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import io.smallrye.mutiny.Multi;
 
 /**
@@ -35,12 +65,38 @@ import io.smallrye.mutiny.Multi;
 @ApplicationScoped
 public class PropagationServiceImpl implements PropagationService {
 
+    // Smallest range worth handing to another thread
+    private static final int PARALLEL_MIN_RANGE_SIZE = 10_000;
+
+    // Number of analytical evaluations between two cancellation checks
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+    // Chebyshev fit tolerance when the request leaves it unset, in meters
+    private static final double DEFAULT_CHEBYSHEV_TOLERANCE = 1.0;
+
     @Inject
     FrameService frameService;
 
     @Inject
     PropagatorFactoryService propagatorFactoryService;
 
+    @Inject
+    TaskCancellationMonitor cancellationMonitor;
+
+    @Inject
+    TlePropagatorCache tlePropagatorCache;
+
+    @Inject
+    EphemerisCache ephemerisCache;
+
+    @Inject
+    @Named("parallelExecutor")
+    ExecutorService parallelExecutor;
+
+    // 0 uses one range per available processor
+    @ConfigProperty(name = "orekit.propagation.max-parallel-ranges", defaultValue = "0")
+    int maxParallelRanges;
+
     @Override
     public OrbitResult propagate(PropagateRequest request) {
         try {
@@ -81,51 +137,959 @@ public class PropagationServiceImpl implements PropagationService {
 
     @Override
     public Multi<TleResult> propagateTLE(TLEPropagateRequest request) {
+        if (request.chordalToleranceM() > 0) {
+            // Each chunk is sampled once the previous one was taken
+            return Multi.createFrom().resource(() -> prepareAdaptive(request),
+                    sampling -> Multi.createFrom().iterable(sampling))
+                    .withFinalizer(AdaptiveSampling::release);
+        }
+        TimeScale utc = TimeScalesFactory.getUTC();
+
+        // Chunks are computed lazily on demand, so only one chunk is held in memory at a time
+        return Multi.createFrom().resource(
+                () -> openPlan(request, () -> resolveOutputFrames(request, frameService.getTemeFrame())),
+                plan -> Multi.createFrom().range(0, plan.chunkCount())
+                        .map(chunkIndex -> {
+                            int from = plan.chunkStart(chunkIndex);
+                            int to = plan.chunkEnd(chunkIndex);
+                            String[] timestamps = new String[to - from];
+                            for (int i = from; i < to; i++) {
+                                timestamps[i - from] = plan.dateAt(i).toString(utc);
+                            }
+                            OutputFrames frames = plan.frames();
+                            TleResult.PositionPointResult[][] positions =
+                                    new TleResult.PositionPointResult[frames.size()][to - from];
+                            GridStepHandler.PositionSink[] sinks = new GridStepHandler.PositionSink[frames.size()];
+                            for (int k = 0; k < frames.size(); k++) {
+                                TleResult.PositionPointResult[] framePositions = positions[k];
+                                sinks[k] = (i, position) -> framePositions[i - from] =
+                                        new TleResult.PositionPointResult(
+                                                position.getX(),
+                                                position.getY(),
+                                                position.getZ(),
+                                                timestamps[i - from]);
+                            }
+                            double maxError = computePlanPositions(plan, from, to, frames.split(plan::dateAt, sinks));
+
+                            // One response per output frame for each chunk
+                            List<TleResult> results = new ArrayList<>(frames.size());
+                            for (int k = 0; k < frames.size(); k++) {
+                                results.add(new TleResult(Arrays.asList(positions[k]), frames.get(k).getName(),
+                                        maxError));
+                            }
+                            return results;
+                        })
+                        .onItem().transformToIterable(results -> results))
+                .withFinalizer(TlePropagationPlan::release);
+    }
+
+    @Override
+    public Multi<PackedEphemerisResult> propagateTLEPacked(TLEPropagateRequest request) {
+        if (request.chordalToleranceM() > 0) {
+            return chordalToleranceUnsupported("Packed columns");
+        }
+        TimeScale utc = TimeScalesFactory.getUTC();
+
+        return Multi.createFrom().resource(
+                () -> openPlan(request, () -> resolveOutputFrames(request, frameService.getTemeFrame())),
+                plan -> Multi.createFrom().range(0, plan.chunkCount())
+                        .map(chunkIndex -> {
+                            int from = plan.chunkStart(chunkIndex);
+                            int size = plan.chunkEnd(chunkIndex) - from;
+                            OutputFrames frames = plan.frames();
+                            double[][] x = new double[frames.size()][size];
+                            double[][] y = new double[frames.size()][size];
+                            double[][] z = new double[frames.size()][size];
+                            GridStepHandler.PositionSink[] sinks = new GridStepHandler.PositionSink[frames.size()];
+                            for (int k = 0; k < frames.size(); k++) {
+                                double[] frameX = x[k];
+                                double[] frameY = y[k];
+                                double[] frameZ = z[k];
+                                sinks[k] = (i, position) -> {
+                                    frameX[i - from] = position.getX();
+                                    frameY[i - from] = position.getY();
+                                    frameZ[i - from] = position.getZ();
+                                };
+                            }
+                            double maxError = computePlanPositions(plan, from, from + size,
+                                    frames.split(plan::dateAt, sinks));
+
+                            // Only the first epoch of each chunk is formatted, the rest is implied by the step
+                            String startEpoch = plan.dateAt(from).toString(utc);
+                            List<PackedEphemerisResult> results = new ArrayList<>(frames.size());
+                            for (int k = 0; k < frames.size(); k++) {
+                                results.add(new PackedEphemerisResult(startEpoch, plan.timeStep(), x[k], y[k], z[k],
+                                        frames.get(k).getName(), maxError));
+                            }
+                            return results;
+                        })
+                        .onItem().transformToIterable(results -> results))
+                .withFinalizer(TlePropagationPlan::release);
+    }
+
+    /**
+     * Prepare the sampling of a TLE at epochs picked by a {@link ChordalSampler}
+     * instead of an even grid. Integrated propagators are run over the whole
+     * span here, the epochs themselves are picked chunk by chunk.
+     *
+     * @return the sampling, holding the propagator lease until released
+     */
+    private AdaptiveSampling prepareAdaptive(TLEPropagateRequest request) {
+        if (request.chordalToleranceM() < ChordalSampler.MIN_TOLERANCE) {
+            throw new InvalidArgumentException("Chordal tolerance must be at least "
+                    + ChordalSampler.MIN_TOLERANCE + " m: " + request.chordalToleranceM());
+        }
+        TimeScale utc = TimeScalesFactory.getUTC();
+        AbsoluteDate startDate;
+        AbsoluteDate endDate;
         try {
-            TLE tle = new TLE(request.tleLine1(), request.tleLine2());
-            PropagationModelType requestedModel = request.model();
-            ReferenceFrameType requestedFrame = request.outputFrame();
+            startDate = new AbsoluteDate(request.startDate(), utc);
+            endDate = new AbsoluteDate(request.endDate(), utc);
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+        double span = endDate.durationFrom(startDate);
+        if (span < 0) {
+            throw new OrekitException("Adaptive sampling requires the end date not to be before the start date");
+        }
 
-            // Get the output frame (default is TEME)
-            Frame outputFrame = frameService.resolveFrame(requestedFrame);
+        Frame temeFrame = frameService.getTemeFrame();
+        OutputFrames frames = resolveOutputFrames(request, temeFrame);
+        if (frames.size() > 1) {
+            throw new OrekitException("Adaptive sampling supports a single output frame");
+        }
+        Frame outputFrame = frames.get(0);
+        int chunkSize = request.chunkSize() > 0 ? request.chunkSize() : ChordalSampler.MAX_SAMPLES;
 
-            // Native TLE frame is always TEME
-            Frame temeFrame = frameService.getTemeFrame();
+        PropagatorLease lease = propagatorFactoryService.leasePropagator(request.tleLine1(), request.tleLine2(),
+                request.model(), request.integrator(), temeFrame, startDate);
+        try {
+            Propagator propagator = lease.propagator();
+            CancellationScope scope = cancellationMonitor.open("propagation");
 
-            // Get integrator type for numerical model
-            IntegratorType integratorType = request.integrator();
+            Function<AbsoluteDate, Vector3D> positions;
+            if (propagator instanceof AbstractIntegratedPropagator && span > 0) {
+                BoundedPropagator ephemeris = generateEphemeris(propagator, startDate, endDate, scope);
+                positions = date -> ephemeris.getPosition(date, outputFrame);
+            } else {
+                positions = date -> positionAt(propagator, date, outputFrame);
+            }
 
-            // Create propagator based on model selection
-            Propagator propagator = propagatorFactoryService.createPropagator(
-                    tle, requestedModel, integratorType, temeFrame);
+            // Quarter checks cannot alias with the orbit below an eighth of a period
+            double period = 2 * FastMath.PI
+                    / tlePropagatorCache.getTle(request.tleLine1(), request.tleLine2()).getMeanMotion();
+            ChordalSampler sampler = new ChordalSampler(positions, request.chordalToleranceM(), period / 8, scope,
+                    startDate, span, period / 64);
+            return new AdaptiveSampling(lease, sampler, outputFrame.getName(), chunkSize);
 
-            AbsoluteDate startDate = new AbsoluteDate(request.startDate(), TimeScalesFactory.getUTC());
-            AbsoluteDate endDate = new AbsoluteDate(request.endDate(), TimeScalesFactory.getUTC());
-            int positionCount = request.positionCount();
+        } catch (TaskCancelledException e) {
+            lease.close();
+            throw e;
+        } catch (Exception e) {
+            lease.close();
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
 
-            double duration = endDate.durationFrom(startDate);
-            double timeStep = (positionCount > 1) ? duration / (positionCount - 1) : 0;
+    @Override
+    public Multi<GroundTrackResult> propagateTLEGroundTrack(TLEPropagateRequest request) {
+        if (request.chordalToleranceM() > 0) {
+            return chordalToleranceUnsupported("Ground track");
+        }
+        // Positions are propagated straight into the frame of the ellipsoid
+        OneAxisEllipsoid earth = frameService.getEarth();
+        TimeScale utc = TimeScalesFactory.getUTC();
+
+        return Multi.createFrom().resource(
+                () -> openPlan(request, () -> new OutputFrames(List.of(earth.getBodyFrame()),
+                        frameService.getTemeFrame())),
+                plan -> Multi.createFrom().range(0, plan.chunkCount())
+                        .map(chunkIndex -> {
+                            int from = plan.chunkStart(chunkIndex);
+                            int size = plan.chunkEnd(chunkIndex) - from;
+                            double[] latitude = new double[size];
+                            double[] longitude = new double[size];
+                            double[] altitude = new double[size];
+                            double maxError = computePlanPositions(plan, from, from + size, geodeticSink(earth,
+                                    earth.getBodyFrame(), plan::dateAt, from, latitude, longitude, altitude));
+                            return new GroundTrackResult(plan.dateAt(from).toString(utc), plan.timeStep(),
+                                    latitude, longitude, altitude, earth.getBodyFrame().getName(), maxError);
+                        }))
+                .withFinalizer(TlePropagationPlan::release);
+    }
+
+    @Override
+    public ChebyshevEphemerisResult propagateTLEChebyshev(TLEPropagateRequest request) {
+        TimeScale utc = TimeScalesFactory.getUTC();
+        AbsoluteDate startDate;
+        AbsoluteDate endDate;
+        try {
+            startDate = new AbsoluteDate(request.startDate(), utc);
+            endDate = new AbsoluteDate(request.endDate(), utc);
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+        double span = endDate.durationFrom(startDate);
+        if (span <= 0) {
+            throw new OrekitException("Chebyshev encoding requires the end date to be after the start date");
+        }
+        double tolerance = request.chebyshevToleranceM() > 0
+                ? request.chebyshevToleranceM()
+                : DEFAULT_CHEBYSHEV_TOLERANCE;
+        if (tolerance < ChebyshevFitter.MIN_TOLERANCE) {
+            throw new InvalidArgumentException("Chebyshev tolerance must be at least "
+                    + ChebyshevFitter.MIN_TOLERANCE + " m: " + tolerance);
+        }
+
+        Frame temeFrame = frameService.getTemeFrame();
+        OutputFrames frames = resolveOutputFrames(request, temeFrame);
+        if (frames.size() > 1) {
+            throw new OrekitException("Chebyshev encoding supports a single output frame");
+        }
+        Frame outputFrame = frames.get(0);
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(request.tleLine1(), request.tleLine2(),
+                request.model(), request.integrator(), temeFrame, startDate)) {
+            Propagator propagator = lease.propagator();
+            CancellationScope scope = cancellationMonitor.open("propagation");
+
+            // Integrated propagators run once over the span, the fit then samples their dense output
+            Function<AbsoluteDate, Vector3D> positions;
+            if (propagator instanceof AbstractIntegratedPropagator) {
+                BoundedPropagator ephemeris = generateEphemeris(propagator, startDate, endDate, scope);
+                positions = date -> ephemeris.getPosition(date, outputFrame);
+            } else {
+                positions = date -> positionAt(propagator, date, outputFrame);
+            }
+
+            ChebyshevFitter.Fit fit = new ChebyshevFitter(positions, tolerance).fit(startDate, span, scope::check);
+            return new ChebyshevEphemerisResult(startDate.toString(utc), fit.segments(), fit.maxError(),
+                    outputFrame.getName());
+
+        } catch (TaskCancelledException | InvalidArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
 
-            String frameName = outputFrame.getName();
+    @Override
+    public EpochGrid createEpochGrid(String startDate, String endDate, int positionCount,
+            ReferenceFrameType outputFrame) {
+        if (positionCount < 0) {
+            throw new OrekitException("Position count must not be negative: " + positionCount);
+        }
+        try {
             TimeScale utc = TimeScalesFactory.getUTC();
+            AbsoluteDate start = new AbsoluteDate(startDate, utc);
+            AbsoluteDate end = new AbsoluteDate(endDate, utc);
+            double timeStep = (positionCount > 1) ? end.durationFrom(start) / (positionCount - 1) : 0;
+
+            return EpochGrid.create(start, timeStep, positionCount, frameService.getTemeFrame(),
+                    frameService.resolveFrame(outputFrame), utc);
+
+        } catch (Exception e) {
+            throw new OrekitException("Epoch grid creation failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public TleResult propagateTLE(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, double interpolationErrorBudget) {
+        Frame temeFrame = frameService.getTemeFrame();
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(
+                tleLine1, tleLine2, model, integrator, temeFrame, grid.size() > 0 ? grid.getDate(0) : null)) {
+            Propagator propagator = lease.propagator();
+
+            List<TleResult.PositionPointResult> positions = new ArrayList<>(grid.size());
+            double maxError = computePositions(propagator, 0, grid.size(), grid::getDate, temeFrame,
+                    interpolationErrorBudget, (i, temePosition) -> {
+                        Vector3D position = grid.toOutputFrame(i, temePosition);
+                        positions.add(new TleResult.PositionPointResult(
+                                position.getX(),
+                                position.getY(),
+                                position.getZ(),
+                                grid.getTimestamp(i)));
+                    });
+            return new TleResult(positions, grid.getFrameName(), maxError);
+
+        } catch (TaskCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
 
-            return Multi.createFrom().item(request)
-                    .map(req -> {
-                        List<TleResult.PositionPointResult> positions = new ArrayList<>(positionCount);
-                        for (int i = 0; i < positionCount; i++) {
-                            AbsoluteDate currentDate = startDate.shiftedBy(i * timeStep);
-                            PVCoordinates pv = propagator.getPVCoordinates(currentDate, outputFrame);
-                            positions.add(new TleResult.PositionPointResult(
-                                    pv.getPosition().getX(),
-                                    pv.getPosition().getY(),
-                                    pv.getPosition().getZ(),
-                                    currentDate.toString(utc)));
-                        }
-                        return new TleResult(positions, frameName);
+    @Override
+    public PackedEphemerisResult propagateTLEPacked(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, double interpolationErrorBudget) {
+        Frame temeFrame = frameService.getTemeFrame();
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(
+                tleLine1, tleLine2, model, integrator, temeFrame, grid.size() > 0 ? grid.getDate(0) : null)) {
+            Propagator propagator = lease.propagator();
+
+            double[] x = new double[grid.size()];
+            double[] y = new double[grid.size()];
+            double[] z = new double[grid.size()];
+            double maxError = computePositions(propagator, 0, grid.size(), grid::getDate, temeFrame,
+                    interpolationErrorBudget, (i, temePosition) -> {
+                        Vector3D position = grid.toOutputFrame(i, temePosition);
+                        x[i] = position.getX();
+                        y[i] = position.getY();
+                        z[i] = position.getZ();
                     });
+            String startEpoch = grid.size() > 0 ? grid.getTimestamp(0) : "";
+            return new PackedEphemerisResult(startEpoch, grid.getTimeStep(), x, y, z, grid.getFrameName(),
+                    maxError);
 
+        } catch (TaskCancelledException e) {
+            throw e;
         } catch (Exception e) {
-            return Multi.createFrom().failure(new OrekitException("TLE Propagation failed: " + e.getMessage(), e));
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public GroundTrackResult propagateTLEGroundTrack(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, double interpolationErrorBudget) {
+        OneAxisEllipsoid earth = frameService.getEarth();
+        Frame temeFrame = frameService.getTemeFrame();
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(
+                tleLine1, tleLine2, model, integrator, temeFrame, grid.size() > 0 ? grid.getDate(0) : null)) {
+            Propagator propagator = lease.propagator();
+
+            double[] latitude = new double[grid.size()];
+            double[] longitude = new double[grid.size()];
+            double[] altitude = new double[grid.size()];
+            GridStepHandler.PositionSink geodetic = geodeticSink(earth, grid.getOutputFrame(), grid::getDate, 0,
+                    latitude, longitude, altitude);
+            double maxError = computePositions(propagator, 0, grid.size(), grid::getDate, temeFrame,
+                    interpolationErrorBudget,
+                    (i, temePosition) -> geodetic.accept(i, grid.toOutputFrame(i, temePosition)));
+            String startEpoch = grid.size() > 0 ? grid.getTimestamp(0) : "";
+            return new GroundTrackResult(startEpoch, grid.getTimeStep(), latitude, longitude, altitude,
+                    earth.getBodyFrame().getName(), maxError);
+
+        } catch (TaskCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public SnapshotResult propagateSnapshot(List<SatelliteTle> tles, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid) {
+        if (grid.size() != 1) {
+            throw new OrekitException("Snapshot requires a single epoch, got " + grid.size());
+        }
+        // A snapshot is a single lockstep epoch: leasing errors come first, then evaluation errors
+        Lockstep lockstep = leaseLockstep(tles, model, integrator, grid);
+        try {
+            return lockstepBlock(lockstep, grid, 0, 0, tles.size());
+        } finally {
+            lockstep.release();
+        }
+    }
+
+    @Override
+    public Multi<SnapshotResult> propagateTimeMajor(List<SatelliteTle> tles, PropagationModelType model,
+            IntegratorType integrator, EpochGrid grid, int blockSize) {
+        if (blockSize < 1) {
+            return Multi.createFrom().failure(new OrekitException("Block size must be positive: " + blockSize));
+        }
+        // Epochs are computed lazily on demand and released once sent, so only one epoch is held at a time
+        return Multi.createFrom().resource(() -> leaseLockstep(tles, model, integrator, grid),
+                lockstep -> Multi.createFrom().range(0, grid.size())
+                        .map(index -> {
+                            List<SnapshotResult> results = lockstepSnapshots(lockstep, grid, index, blockSize);
+                            grid.release(index);
+                            return results;
+                        })
+                        .onItem().transformToIterable(results -> results))
+                .withFinalizer(Lockstep::release);
+    }
+
+    @Override
+    public void propagateTLEBulk(String tleLine1, String tleLine2, PropagationModelType model,
+            AbsoluteDate reference, double[] offsets, int count, double[] positions, double[] velocities) {
+        if (model == PropagationModelType.NUMERICAL || model == PropagationModelType.DSST) {
+            throw new OrekitException("Bulk evaluation requires an SGP4/SDP4 model, got " + model);
+        }
+        if (count < 0 || count > offsets.length || 3L * count > positions.length
+                || 3L * count > velocities.length) {
+            throw new OrekitException("Buffers too small for " + count + " points");
+        }
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(tleLine1, tleLine2, model, null,
+                frameService.getTemeFrame())) {
+            ((TleKernel) lease.propagator()).evaluate(reference, offsets, count, positions, velocities);
+        } catch (OrekitException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Satellites that cannot be leased are reported with the first epoch
+    private Lockstep leaseLockstep(List<SatelliteTle> tles, PropagationModelType model, IntegratorType integrator,
+            EpochGrid grid) {
+        Frame temeFrame = frameService.getTemeFrame();
+        AbsoluteDate start = grid.size() > 0 ? grid.getDate(0) : null;
+        CancellationScope scope = cancellationMonitor.open("propagation");
+        int size = tles.size();
+        int[] satelliteIds = new int[size];
+        PropagatorLease[] leases = new PropagatorLease[size];
+        List<SnapshotResult.SatelliteError> leaseErrors = new ArrayList<>();
+        try {
+            for (int k = 0; k < size; k++) {
+                if (k % CANCELLATION_CHECK_INTERVAL == 0) {
+                    scope.check(0);
+                }
+                SatelliteTle tle = tles.get(k);
+                satelliteIds[k] = TleUtils.extractSatelliteId(tle.tleLine1());
+                try {
+                    leases[k] = propagatorFactoryService.leasePropagator(tle.tleLine1(), tle.tleLine2(),
+                            model, integrator, temeFrame, start);
+                } catch (TaskCancelledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    leaseErrors.add(new SnapshotResult.SatelliteError(satelliteIds[k], e.getMessage()));
+                }
+            }
+
+            // Near-earth kernels are evaluated together, in input order so a block of satellites is a range of slots
+            int[] slots = new int[size + 1];
+            for (int k = 0; k < size; k++) {
+                boolean batched = leases[k] != null && Sgp4Batch.accepts(leases[k].propagator());
+                slots[k + 1] = slots[k] + (batched ? 1 : 0);
+            }
+            Sgp4Batch sgp4 = new Sgp4Batch(start != null ? start : AbsoluteDate.J2000_EPOCH, slots[size]);
+            for (int k = 0; k < size; k++) {
+                if (slots[k + 1] > slots[k]) {
+                    sgp4.load(slots[k], leases[k].propagator());
+                }
+            }
+            return new Lockstep(satelliteIds, leases, leaseErrors, temeFrame, sgp4, slots,
+                    new double[3 * sgp4.size()], new double[3 * sgp4.size()]);
+        } catch (RuntimeException e) {
+            Lockstep.releaseLeases(leases);
+            throw e;
+        }
+    }
+
+    /**
+     * Compute the state vectors of every satellite at one epoch of the grid.
+     * <p>
+     * Blocks of satellites are stepped in parallel on the parallel executor,
+     * the calling thread taking the first block. Each propagator belongs to a
+     * single block, and all blocks are joined before the next epoch, so no
+     * propagator is used by two threads at once.
+     *
+     * @return one result per block, in input order
+     */
+    private List<SnapshotResult> lockstepSnapshots(Lockstep lockstep, EpochGrid grid, int index, int blockSize) {
+        int size = lockstep.leases().length;
+        int blocks = (size + blockSize - 1) / blockSize;
+        SnapshotResult[] results = new SnapshotResult[blocks];
+        List<Runnable> forked = new ArrayList<>(FastMath.max(0, blocks - 1));
+        for (int block = 1; block < blocks; block++) {
+            int b = block;
+            forked.add(() -> results[b] = lockstepBlock(lockstep, grid, index, b * blockSize,
+                    FastMath.min(size, (b + 1) * blockSize)));
+        }
+        forkJoin(forked, () -> {
+            if (blocks > 0) {
+                results[0] = lockstepBlock(lockstep, grid, index, 0, FastMath.min(size, blockSize));
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    // Satellites failing at this epoch are reported once and their propagator released
+    private SnapshotResult lockstepBlock(Lockstep lockstep, EpochGrid grid, int index, int from, int to) {
+        AbsoluteDate date = grid.getDate(index);
+        CancellationScope scope = cancellationMonitor.open("propagation");
+        int[] satelliteIds = new int[to - from];
+        double[][] columns = new double[6][to - from];
+        List<SnapshotResult.SatelliteError> errors = new ArrayList<>();
+        if (index == 0 && from == 0) {
+            errors.addAll(lockstep.leaseErrors());
+        }
+        lockstep.sgp4().evaluate(date, lockstep.slots()[from], lockstep.slots()[to], lockstep.positions(),
+                lockstep.velocities());
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            if ((k - from) % CANCELLATION_CHECK_INTERVAL == 0) {
+                scope.check((double) index / grid.size());
+            }
+            PropagatorLease lease = lockstep.leases()[k];
+            if (lease == null) {
+                continue;
+            }
+            try {
+                PVCoordinates pv = grid.toOutputFrame(index, lockstepPvAt(lockstep, k, date));
+                satelliteIds[count] = lockstep.satelliteIds()[k];
+                columns[0][count] = pv.getPosition().getX();
+                columns[1][count] = pv.getPosition().getY();
+                columns[2][count] = pv.getPosition().getZ();
+                columns[3][count] = pv.getVelocity().getX();
+                columns[4][count] = pv.getVelocity().getY();
+                columns[5][count] = pv.getVelocity().getZ();
+                count++;
+            } catch (TaskCancelledException e) {
+                throw e;
+            } catch (Exception e) {
+                errors.add(new SnapshotResult.SatelliteError(lockstep.satelliteIds()[k], e.getMessage()));
+                lease.close();
+                lockstep.leases()[k] = null;
+                if (lockstep.slots()[k + 1] > lockstep.slots()[k]) {
+                    lockstep.sgp4().disable(lockstep.slots()[k]);
+                }
+            }
+        }
+        return new SnapshotResult(grid.getTimestamp(index), grid.getFrameName(),
+                Arrays.copyOf(satelliteIds, count),
+                Arrays.copyOf(columns[0], count),
+                Arrays.copyOf(columns[1], count),
+                Arrays.copyOf(columns[2], count),
+                Arrays.copyOf(columns[3], count),
+                Arrays.copyOf(columns[4], count),
+                Arrays.copyOf(columns[5], count),
+                errors);
+    }
+
+    // Batched satellites read the state written by the last evaluation of the SGP4 batch
+    private PVCoordinates lockstepPvAt(Lockstep lockstep, int k, AbsoluteDate date) {
+        int slot = lockstep.slots()[k];
+        if (lockstep.slots()[k + 1] == slot) {
+            return temePvAt(lockstep.leases()[k].propagator(), date, lockstep.temeFrame());
+        }
+        RuntimeException failure = lockstep.sgp4().failure(slot);
+        if (failure != null) {
+            throw failure;
+        }
+        double[] positions = lockstep.positions();
+        double[] velocities = lockstep.velocities();
+        return new PVCoordinates(
+                new Vector3D(positions[3 * slot], positions[3 * slot + 1], positions[3 * slot + 2]),
+                new Vector3D(velocities[3 * slot], velocities[3 * slot + 1], velocities[3 * slot + 2]));
+    }
+
+    // Geodetic coordinates of index i written at i - from, in degrees and meters
+    private static GridStepHandler.PositionSink geodeticSink(OneAxisEllipsoid earth, Frame frame,
+            IntFunction<AbsoluteDate> dateAt, int from, double[] latitude, double[] longitude, double[] altitude) {
+        return (i, position) -> {
+            GeodeticPoint point = earth.transform(position, frame, dateAt.apply(i));
+            latitude[i - from] = FastMath.toDegrees(point.getLatitude());
+            longitude[i - from] = FastMath.toDegrees(point.getLongitude());
+            altitude[i - from] = point.getAltitude();
+        };
+    }
+
+    /**
+     * Compute the positions of a chunk of a single TLE propagation.
+     * <p>
+     * Large SGP4/SDP4 chunks are split into contiguous ranges evaluated in
+     * parallel on separately leased propagators, the calling thread taking the
+     * first range. The sink is called once per index, from several threads for
+     * disjoint ranges.
+     *
+     * @return largest interpolation error estimate of the ranges, in meters
+     */
+    private double computePlanPositions(TlePropagationPlan plan, int from, int to,
+            GridStepHandler.PositionSink sink) {
+        if (plan.trajectory() != null) {
+            for (int i = from; i < to; i++) {
+                sink.accept(i, plan.trajectory().positionAt(plan.dateAt(i)));
+            }
+            return plan.trajectory().maxError();
+        }
+        int count = to - from;
+        int maxRanges = maxParallelRanges > 0 ? maxParallelRanges : Runtime.getRuntime().availableProcessors();
+        int ranges = FastMath.min(maxRanges, count / PARALLEL_MIN_RANGE_SIZE);
+        if (!(plan.propagator() instanceof TLEPropagator) || ranges < 2) {
+            return computePositions(plan.propagator(), from, to, plan::dateAt, plan.propagationFrame(),
+                    plan.interpolationErrorBudget(), sink);
+        }
+
+        int rangeSize = (count + ranges - 1) / ranges;
+        // Error estimate of each range, the calling thread's range first
+        double[] rangeErrors = new double[ranges];
+        List<Runnable> forked = new ArrayList<>(ranges - 1);
+        for (int rangeStart = from + rangeSize; rangeStart < to; rangeStart += rangeSize) {
+            int range = (rangeStart - from) / rangeSize;
+            int start = rangeStart;
+            int end = FastMath.min(to, rangeStart + rangeSize);
+            forked.add(() -> {
+                try (PropagatorLease lease = plan.leases().get()) {
+                    rangeErrors[range] = computePositions(lease.propagator(), start, end, plan::dateAt,
+                            plan.propagationFrame(), plan.interpolationErrorBudget(), sink);
+                }
+            });
+        }
+        forkJoin(forked, () -> rangeErrors[0] = computePositions(plan.propagator(), from, from + rangeSize,
+                plan::dateAt, plan.propagationFrame(), plan.interpolationErrorBudget(), sink));
+        return Arrays.stream(rangeErrors).max().orElse(0);
+    }
+
+    /**
+     * Run tasks on the parallel executor and one on the calling thread, and
+     * wait for all of them. The calling thread may itself be a task of the
+     * propagation executor, hence the separate pool. The first failure is
+     * rethrown as its task threw it, once every task stopped, so nothing the
+     * tasks use is released under them.
+     */
+    private void forkJoin(List<Runnable> forked, Runnable own) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(forked.size());
+        for (Runnable task : forked) {
+            futures.add(CompletableFuture.runAsync(cancellationMonitor.propagate(task), parallelExecutor));
+        }
+        RuntimeException failure = null;
+        try {
+            own.run();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Compute the positions of a range of output epochs, in increasing index order.
+     * <p>
+     * Analytical propagators are evaluated at each epoch. Integrated propagators
+     * run a single integration over the range and interpolate the epochs from its
+     * dense output, instead of restarting the integrator at every epoch. Both
+     * stop once the call that requested the range is cancelled.
+     * <p>
+     * With a positive error budget, TLE propagators are only evaluated on a
+     * coarser grid derived from the budget and the epochs in between are
+     * interpolated, see {@link HermiteSampler}.
+     *
+     * @return interpolation error estimate in meters, 0 when every epoch was propagated
+     */
+    private double computePositions(Propagator propagator, int from, int to, IntFunction<AbsoluteDate> dateAt,
+            Frame frame, double interpolationErrorBudget, GridStepHandler.PositionSink sink) {
+        CancellationScope scope = cancellationMonitor.open("propagation");
+        if (propagator instanceof AbstractIntegratedPropagator && to - from > 1
+                && dateAt.apply(to - 1).isAfter(dateAt.apply(from))) {
+            AbsoluteDate start = dateAt.apply(from);
+            AbsoluteDate end = dateAt.apply(to - 1);
+            double span = end.durationFrom(start);
+            GridStepHandler handler = new GridStepHandler(dateAt, from, to, frame, sink);
+            OrekitStepHandler cancellationCheck = interpolator -> scope.check(
+                    interpolator.getCurrentState().getDate().durationFrom(start) / span);
+            propagator.getMultiplexer().add(cancellationCheck);
+            propagator.getMultiplexer().add(handler);
+            try {
+                propagator.propagate(start, end);
+            } finally {
+                propagator.getMultiplexer().remove(handler);
+                propagator.getMultiplexer().remove(cancellationCheck);
+            }
+            return 0;
+        }
+        if (interpolationErrorBudget > 0 && propagator instanceof TLEPropagator tlePropagator && to - from > 2) {
+            double gridStep = dateAt.apply(from + 1).durationFrom(dateAt.apply(from));
+            double coarseStep = HermiteSampler.coarseStep(tlePropagator.getTLE(), interpolationErrorBudget);
+            int indicesPerStep = (int) FastMath.min(to - from, FastMath.floor(coarseStep / gridStep));
+            // Below two grid steps per sample interpolation saves nothing
+            if (gridStep > 0 && indicesPerStep >= 2) {
+                return new HermiteSampler(date -> pvAt(tlePropagator, date, frame), dateAt,
+                        interpolationErrorBudget, sink, scope).sample(from, to, indicesPerStep);
+            }
+        }
+        for (int i = from; i < to; i++) {
+            if ((i - from) % CANCELLATION_CHECK_INTERVAL == 0) {
+                scope.check((double) (i - from) / (to - from));
+            }
+            sink.accept(i, positionAt(propagator, dateAt.apply(i), frame));
+        }
+        return 0;
+    }
+
+    private BoundedPropagator generateEphemeris(Propagator propagator, AbsoluteDate start, AbsoluteDate end,
+            CancellationScope scope) {
+        double span = end.durationFrom(start);
+        EphemerisGenerator generator = propagator.getEphemerisGenerator();
+        OrekitStepHandler cancellationCheck = interpolator -> scope.check(
+                interpolator.getCurrentState().getDate().durationFrom(start) / span);
+        propagator.getMultiplexer().add(cancellationCheck);
+        try {
+            propagator.propagate(start, end);
+        } finally {
+            propagator.getMultiplexer().remove(cancellationCheck);
+        }
+        return generator.getGeneratedEphemeris();
+    }
+
+    // TLE propagators expose their native TEME state directly, without building a SpacecraftState
+    private Vector3D positionAt(Propagator propagator, AbsoluteDate date, Frame frame) {
+        if (propagator instanceof TLEPropagator tlePropagator && frame == tlePropagator.getFrame()) {
+            return tlePropagator.getPVCoordinates(date).getPosition();
+        }
+        return propagator.getPosition(date, frame);
+    }
+
+    private PVCoordinates temePvAt(Propagator propagator, AbsoluteDate date, Frame temeFrame) {
+        if (propagator instanceof TLEPropagator tlePropagator) {
+            return pvAt(tlePropagator, date, temeFrame);
+        }
+        return propagator.getPVCoordinates(date, temeFrame);
+    }
+
+    private PVCoordinates pvAt(TLEPropagator propagator, AbsoluteDate date, Frame frame) {
+        if (frame == propagator.getFrame()) {
+            return propagator.getPVCoordinates(date);
+        }
+        return propagator.getPVCoordinates(date, frame);
+    }
+
+    // Packed encodings imply an even grid, adaptive sampling only applies to timestamped positions
+    private static <T> Multi<T> chordalToleranceUnsupported(String encoding) {
+        return Multi.createFrom().failure(new InvalidArgumentException(
+                encoding + " encoding does not support a chordal tolerance"));
+    }
+
+    // Called by the resource supplier of the streams, so nothing is leased before they are subscribed
+    private TlePropagationPlan openPlan(TLEPropagateRequest request, Supplier<OutputFrames> frames) {
+        try {
+            return preparePlan(request, frames.get());
+        } catch (Exception e) {
+            throw new OrekitException("TLE Propagation failed: " + e.getMessage(), e);
+        }
+    }
+
+    private TlePropagationPlan preparePlan(TLEPropagateRequest request, OutputFrames frames) {
+        PropagationModelType requestedModel = request.model();
+
+        // Native TLE frame is always TEME
+        Frame temeFrame = frameService.getTemeFrame();
+
+        Frame propagationFrame = frames.propagationFrame();
+
+        // Get integrator type for numerical model
+        IntegratorType integratorType = request.integrator();
+
+        AbsoluteDate startDate = new AbsoluteDate(request.startDate(), TimeScalesFactory.getUTC());
+        AbsoluteDate endDate = new AbsoluteDate(request.endDate(), TimeScalesFactory.getUTC());
+        int positionCount = request.positionCount();
+        if (positionCount < 0) {
+            throw new OrekitException("Position count must not be negative: " + positionCount);
+        }
+
+        double duration = endDate.durationFrom(startDate);
+        double timeStep = (positionCount > 1) ? duration / (positionCount - 1) : 0;
+
+        // Requests accepting the cache tolerance are interpolated from the cached trajectory
+        EphemerisCache.Trajectory trajectory = null;
+        if (ephemerisCache.isEnabled() && request.interpolationErrorBudgetM() >= ephemerisCache.getTolerance()
+                && positionCount > 1 && duration > 0) {
+            trajectory = cachedTrajectory(request, propagationFrame, startDate, endDate);
+        }
+
+        // Lease the propagator last, once the request is known to be valid
+        PropagatorLease lease = trajectory != null
+                ? null
+                : propagatorFactoryService.leasePropagator(
+                        request.tleLine1(), request.tleLine2(), requestedModel, integratorType, temeFrame, startDate);
+
+        // Without an explicit chunk size everything goes into a single response
+        int chunkSize = request.chunkSize() > 0 ? request.chunkSize() : FastMath.max(1, positionCount);
+
+        // Additional propagators for parallel evaluation of large chunks
+        Supplier<PropagatorLease> leases = () -> propagatorFactoryService.leasePropagator(
+                request.tleLine1(), request.tleLine2(), requestedModel, integratorType, temeFrame);
+
+        return new TlePropagationPlan(lease, leases, trajectory, frames, startDate, timeStep, positionCount,
+                chunkSize, request.interpolationErrorBudgetM());
+    }
+
+    // The output_frames list takes precedence over the single output_frame
+    private OutputFrames resolveOutputFrames(TLEPropagateRequest request, Frame temeFrame) {
+        List<ReferenceFrameType> requested = request.outputFrames() != null && !request.outputFrames().isEmpty()
+                ? request.outputFrames()
+                : Collections.singletonList(request.outputFrame());
+        List<Frame> frames = requested.stream()
+                .map(frameService::resolveFrame)
+                .distinct()
+                .toList();
+        return new OutputFrames(frames, temeFrame);
+    }
+
+    private EphemerisCache.Trajectory cachedTrajectory(TLEPropagateRequest request, Frame outputFrame,
+            AbsoluteDate startDate, AbsoluteDate endDate) {
+        TLE tle = tlePropagatorCache.getTle(request.tleLine1(), request.tleLine2());
+        double step = HermiteSampler.coarseStep(tle, ephemerisCache.getTolerance());
+        EphemerisCache.Key key = EphemerisCache.Key.of(request.tleLine1(), request.tleLine2(), request.model(),
+                request.integrator(), outputFrame.getName());
+        return ephemerisCache.getTrajectory(key, step, startDate, endDate, request.interpolationErrorBudgetM(),
+                (first, nodeStep, count) -> computeNodes(request, outputFrame, first, nodeStep, count));
+    }
+
+    // Position and velocity at first + i * step, packed as x, y, z, vx, vy, vz
+    private double[] computeNodes(TLEPropagateRequest request, Frame outputFrame, AbsoluteDate first, double step,
+            int count) {
+        CancellationScope scope = cancellationMonitor.open("propagation");
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(request.tleLine1(),
+                request.tleLine2(), request.model(), request.integrator(), frameService.getTemeFrame(), first)) {
+            Propagator propagator = lease.propagator();
+            Function<AbsoluteDate, PVCoordinates> pvAt;
+            if (propagator instanceof AbstractIntegratedPropagator) {
+                BoundedPropagator ephemeris = generateEphemeris(propagator, first,
+                        first.shiftedBy((count - 1) * step), scope);
+                pvAt = date -> ephemeris.getPVCoordinates(date, outputFrame);
+            } else if (propagator instanceof TLEPropagator tlePropagator) {
+                pvAt = date -> pvAt(tlePropagator, date, outputFrame);
+            } else {
+                pvAt = date -> propagator.getPVCoordinates(date, outputFrame);
+            }
+
+            double[] nodes = new double[6 * count];
+            for (int i = 0; i < count; i++) {
+                if (i % CANCELLATION_CHECK_INTERVAL == 0) {
+                    scope.check((double) i / count);
+                }
+                PVCoordinates pv = pvAt.apply(first.shiftedBy(i * step));
+                nodes[6 * i] = pv.getPosition().getX();
+                nodes[6 * i + 1] = pv.getPosition().getY();
+                nodes[6 * i + 2] = pv.getPosition().getZ();
+                nodes[6 * i + 3] = pv.getVelocity().getX();
+                nodes[6 * i + 4] = pv.getVelocity().getY();
+                nodes[6 * i + 5] = pv.getVelocity().getZ();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Propagators of a batch stepped epoch by epoch. A lease is null when its
+     * satellite could not be leased or failed at an earlier epoch.
+     * <p>
+     * Satellite k is evaluated in slot {@code slots[k]} of the SGP4 batch when
+     * {@code slots[k + 1] > slots[k]}, its TEME state being written to the
+     * position and velocity buffers at {@code 3 * slots[k]}.
+     */
+    private record Lockstep(
+            int[] satelliteIds,
+            PropagatorLease[] leases,
+            List<SnapshotResult.SatelliteError> leaseErrors,
+            Frame temeFrame,
+            Sgp4Batch sgp4,
+            int[] slots,
+            double[] positions,
+            double[] velocities) {
+
+        void release() {
+            releaseLeases(leases);
+        }
+
+        static void releaseLeases(PropagatorLease[] leases) {
+            for (PropagatorLease lease : leases) {
+                if (lease != null) {
+                    lease.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adaptive sampling of a single TLE propagation, iterating over its chunks.
+     * Every chunk is sampled when it is taken, and reports the largest chord
+     * error of its own points.
+     */
+    private record AdaptiveSampling(
+            PropagatorLease lease,
+            ChordalSampler sampler,
+            String frameName,
+            int chunkSize) implements Iterable<TleResult> {
+
+        @Override
+        public Iterator<TleResult> iterator() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return sampler.hasNext();
+                }
+
+                @Override
+                public TleResult next() {
+                    return toResult(sampler.next(chunkSize));
+                }
+            };
+        }
+
+        void release() {
+            lease.close();
+        }
+
+        private TleResult toResult(ChordalSampler.Batch batch) {
+            TimeScale utc = TimeScalesFactory.getUTC();
+            List<TleResult.PositionPointResult> positions = new ArrayList<>(batch.samples().size());
+            for (ChordalSampler.Sample sample : batch.samples()) {
+                positions.add(new TleResult.PositionPointResult(
+                        sample.position().getX(),
+                        sample.position().getY(),
+                        sample.position().getZ(),
+                        sample.date().toString(utc)));
+            }
+            return new TleResult(positions, frameName, batch.maxError());
+        }
+    }
+
+    /**
+     * Propagator and output grid shared by the chunks of a single TLE propagation.
+     * Requests answered from the ephemeris cache carry the cached trajectory
+     * instead of a propagator lease.
+     */
+    private record TlePropagationPlan(
+            PropagatorLease lease,
+            Supplier<PropagatorLease> leases,
+            EphemerisCache.Trajectory trajectory,
+            OutputFrames frames,
+            AbsoluteDate startDate,
+            double timeStep,
+            int positionCount,
+            int chunkSize,
+            double interpolationErrorBudget) {
+
+        Propagator propagator() {
+            return lease.propagator();
+        }
+
+        Frame propagationFrame() {
+            return frames.propagationFrame();
+        }
+
+        void release() {
+            if (lease != null) {
+                lease.close();
+            }
+        }
+
+        int chunkCount() {
+            return (int) FastMath.max(1, ((long) positionCount + chunkSize - 1) / chunkSize);
+        }
+
+        int chunkStart(int chunkIndex) {
+            return chunkIndex * chunkSize;
+        }
+
+        int chunkEnd(int chunkIndex) {
+            return FastMath.min(positionCount, chunkStart(chunkIndex) + chunkSize);
+        }
+
+        AbsoluteDate dateAt(int index) {
+            return startDate.shiftedBy(index * timeStep);
         }
     }
 
@@ -3,6 +3,7 @@ package tr.com.kadiraydemir.orekit.service.propagation;
 import org.orekit.frames.Frame;
 import org.orekit.propagation.Propagator;
 import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
 import tr.com.kadiraydemir.orekit.model.IntegratorType;
 import tr.com.kadiraydemir.orekit.model.PropagationModelType;
 
@@ -22,6 +23,43 @@ public interface PropagatorFactoryService {
      */
     Propagator createPropagator(TLE tle, PropagationModelType model, IntegratorType integratorType, Frame temeFrame);
 
+    /**
+     * Lease a propagator for the given TLE lines.
+     * <p>
+     * SGP4/SDP4 propagators come from the {@link TlePropagatorCache} and go back
+     * to it when the lease is closed. Numerical and DSST propagators are always
+     * built fresh from the cached TLE.
+     *
+     * @param tleLine1       TLE line 1
+     * @param tleLine2       TLE line 2
+     * @param model          propagation model to use
+     * @param integratorType integrator type for numerical propagation
+     * @param temeFrame      TEME reference frame
+     * @return lease of the configured Propagator
+     */
+    default PropagatorLease leasePropagator(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integratorType, Frame temeFrame) {
+        return leasePropagator(tleLine1, tleLine2, model, integratorType, temeFrame, null);
+    }
+
+    /**
+     * Lease a propagator for the given TLE lines, to be propagated from the
+     * given start date.
+     * <p>
+     * Numerical propagators resume from the latest {@link NumericalCheckpointStore}
+     * checkpoint not after {@code start} instead of the TLE epoch.
+     *
+     * @param tleLine1       TLE line 1
+     * @param tleLine2       TLE line 2
+     * @param model          propagation model to use
+     * @param integratorType integrator type for numerical propagation
+     * @param temeFrame      TEME reference frame
+     * @param start          start of the propagation window, {@code null} to start from the TLE epoch
+     * @return lease of the configured Propagator
+     */
+    PropagatorLease leasePropagator(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integratorType, Frame temeFrame, AbsoluteDate start);
+
     /**
      * Create a numerical propagator initialized from TLE state
      * 
@@ -31,4 +69,13 @@ public interface PropagatorFactoryService {
      * @return configured NumericalPropagator
      */
     Propagator createNumericalPropagator(TLE tle, IntegratorType integratorType, Frame temeFrame);
+
+    /**
+     * Create a DSST semi-analytical propagator initialized from TLE state
+     * 
+     * @param tle       TLE data
+     * @param temeFrame TEME reference frame
+     * @return configured DSSTPropagator producing osculating states
+     */
+    Propagator createDsstPropagator(TLE tle, Frame temeFrame);
 }
@@ -4,23 +4,18 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.hipparchus.ode.AbstractIntegrator;
 import org.orekit.attitudes.FrameAlignedProvider;
-import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
-import org.orekit.forces.gravity.potential.GravityFieldFactory;
-import org.orekit.forces.gravity.potential.NormalizedSphericalHarmonicsProvider;
 import org.orekit.frames.Frame;
-import org.orekit.frames.FramesFactory;
 import org.orekit.orbits.KeplerianOrbit;
 import org.orekit.orbits.Orbit;
 import org.orekit.orbits.OrbitType;
+import org.orekit.propagation.PropagationType;
 import org.orekit.propagation.Propagator;
 import org.orekit.propagation.SpacecraftState;
-import org.orekit.propagation.analytical.tle.DeepSDP4;
-import org.orekit.propagation.analytical.tle.SGP4;
 import org.orekit.propagation.analytical.tle.TLE;
-import org.orekit.propagation.analytical.tle.TLEPropagator;
 import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.propagation.semianalytical.dsst.DSSTPropagator;
+import org.orekit.time.AbsoluteDate;
 import org.orekit.utils.Constants;
-import org.orekit.utils.IERSConventions;
 import org.orekit.utils.PVCoordinates;
 import tr.com.kadiraydemir.orekit.model.IntegratorType;
 import tr.com.kadiraydemir.orekit.model.PropagationModelType;
@@ -31,13 +26,20 @@ import tr.com.kadiraydemir.orekit.model.PropagationModelType;
 @ApplicationScoped
 public class PropagatorFactoryServiceImpl implements PropagatorFactoryService {
 
-    private static final int GRAVITY_DEGREE = 10;
-    private static final int GRAVITY_ORDER = 10;
     private static final double SPACECRAFT_MASS = 1.0;
 
     @Inject
     IntegratorService integratorService;
 
+    @Inject
+    TlePropagatorCache tlePropagatorCache;
+
+    @Inject
+    ForceModelRegistry forceModelRegistry;
+
+    @Inject
+    NumericalCheckpointStore checkpointStore;
+
     @Override
     public Propagator createPropagator(TLE tle, PropagationModelType model, IntegratorType integratorType,
             Frame temeFrame) {
@@ -46,21 +48,36 @@ public class PropagatorFactoryServiceImpl implements PropagatorFactoryService {
         }
 
         return switch (model) {
-            case SGP4 -> new SGP4(tle, new FrameAlignedProvider(temeFrame), SPACECRAFT_MASS);
-            case SDP4 -> new DeepSDP4(tle, new FrameAlignedProvider(temeFrame), SPACECRAFT_MASS);
+            // SGP4/SDP4 propagators also support allocation-free bulk evaluation
+            case SGP4 -> TleKernels.sgp4(tle, new FrameAlignedProvider(temeFrame), SPACECRAFT_MASS);
+            case SDP4 -> TleKernels.sdp4(tle, new FrameAlignedProvider(temeFrame), SPACECRAFT_MASS);
             case NUMERICAL -> createNumericalPropagator(tle, integratorType, temeFrame);
-            default -> TLEPropagator.selectExtrapolator(tle); // AUTO - based on TLE period
+            case DSST -> createDsstPropagator(tle, temeFrame);
+            // AUTO - based on TLE period
+            default -> TleKernels.select(tle, new FrameAlignedProvider(temeFrame), SPACECRAFT_MASS);
         };
     }
 
     @Override
-    public Propagator createNumericalPropagator(TLE tle, IntegratorType integratorType, Frame temeFrame) {
-        // Use analytical propagator to get initial state at TLE epoch
-        TLEPropagator analyticalPropagator = TLEPropagator.selectExtrapolator(tle);
-        PVCoordinates initialPV = analyticalPropagator.getPVCoordinates(tle.getDate(), temeFrame);
+    public PropagatorLease leasePropagator(String tleLine1, String tleLine2, PropagationModelType model,
+            IntegratorType integratorType, Frame temeFrame, AbsoluteDate start) {
+        PropagationModelType resolved = model != null ? model : PropagationModelType.AUTO;
+        if (resolved == PropagationModelType.NUMERICAL || resolved == PropagationModelType.DSST) {
+            TLE tle = tlePropagatorCache.getTle(tleLine1, tleLine2);
+            Propagator propagator = createPropagator(tle, resolved, integratorType, temeFrame);
+            if (resolved == PropagationModelType.NUMERICAL && start != null) {
+                checkpointStore.resume(propagator, new NumericalCheckpointStore.Key(tle.getLine1(), tle.getLine2(),
+                        integratorType, ForceModelRegistry.PROPAGATION_DEFAULT), start);
+            }
+            return PropagatorLease.unpooled(propagator);
+        }
+        return tlePropagatorCache.acquire(tleLine1, tleLine2, resolved,
+                tle -> createPropagator(tle, resolved, integratorType, temeFrame));
+    }
 
-        // Create orbit from PV coordinates
-        Orbit initialOrbit = new KeplerianOrbit(initialPV, temeFrame, tle.getDate(), Constants.WGS84_EARTH_MU);
+    @Override
+    public Propagator createNumericalPropagator(TLE tle, IntegratorType integratorType, Frame temeFrame) {
+        Orbit initialOrbit = initialOrbit(tle, temeFrame);
 
         // Configure integrator based on user selection
         AbstractIntegrator integrator = integratorService.createIntegrator(integratorType, initialOrbit);
@@ -69,14 +86,38 @@ public class PropagatorFactoryServiceImpl implements PropagatorFactoryService {
         NumericalPropagator numProp = new NumericalPropagator(integrator);
         numProp.setOrbitType(OrbitType.KEPLERIAN);
 
-        // Add gravity force model
-        NormalizedSphericalHarmonicsProvider gravityProvider = GravityFieldFactory.getNormalizedProvider(GRAVITY_DEGREE,
-                GRAVITY_ORDER);
-        numProp.addForceModel(new HolmesFeatherstoneAttractionModel(
-                FramesFactory.getITRF(IERSConventions.IERS_2010, true), gravityProvider));
+        // Add preloaded gravity force model
+        forceModelRegistry.getForceModels(ForceModelRegistry.PROPAGATION_DEFAULT).forEach(numProp::addForceModel);
 
         numProp.setInitialState(new SpacecraftState(initialOrbit));
 
         return numProp;
     }
+
+    @Override
+    public Propagator createDsstPropagator(TLE tle, Frame temeFrame) {
+        Orbit initialOrbit = initialOrbit(tle, temeFrame);
+
+        // Mean elements are integrated with large steps, positions include the short-period terms
+        DSSTPropagator dsstProp = new DSSTPropagator(integratorService.createDsstIntegrator(initialOrbit),
+                PropagationType.OSCULATING);
+
+        // Same gravity field as the numerical model, as DSST zonal and tesseral terms
+        forceModelRegistry.createDsstForceModels(ForceModelRegistry.PROPAGATION_DEFAULT)
+                .forEach(dsstProp::addForceModel);
+
+        dsstProp.setInitialState(new SpacecraftState(initialOrbit), PropagationType.OSCULATING);
+
+        return dsstProp;
+    }
+
+    // Osculating orbit at the TLE epoch, from the analytical propagator
+    private Orbit initialOrbit(TLE tle, Frame temeFrame) {
+        PVCoordinates initialPV;
+        try (PropagatorLease lease = tlePropagatorCache.acquire(tle.getLine1(), tle.getLine2(),
+                PropagationModelType.AUTO, t -> createPropagator(t, PropagationModelType.AUTO, null, temeFrame))) {
+            initialPV = lease.propagator().getPVCoordinates(tle.getDate(), temeFrame);
+        }
+        return new KeplerianOrbit(initialPV, temeFrame, tle.getDate(), Constants.WGS84_EARTH_MU);
+    }
 }
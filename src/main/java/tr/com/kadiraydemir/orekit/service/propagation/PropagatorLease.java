@@ -0,0 +1,47 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.orekit.propagation.Propagator;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Exclusive use of a propagator until the lease is closed.
+ * <p>
+ * Pooled propagators go back to the {@link TlePropagatorCache} on close, so
+ * the propagator must not be used afterwards. A lease that is never closed is
+ * simply not returned to the pool.
+ */
+public final class PropagatorLease implements AutoCloseable {
+
+    private final Propagator propagator;
+    private final Consumer<Propagator> release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    PropagatorLease(Propagator propagator, Consumer<Propagator> release) {
+        this.propagator = propagator;
+        this.release = release;
+    }
+
+    /**
+     * Wrap a propagator that is not pooled, closing the lease does nothing.
+     *
+     * @param propagator propagator owned by the caller
+     * @return lease of the propagator
+     */
+    public static PropagatorLease unpooled(Propagator propagator) {
+        return new PropagatorLease(propagator, p -> {
+        });
+    }
+
+    public Propagator propagator() {
+        return propagator;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.accept(propagator);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.propagation.Propagator;
+import org.orekit.time.AbsoluteDate;
+
+/**
+ * SGP4 over many near-earth satellites at once, laid out as structure of
+ * arrays.
+ * <p>
+ * Every constant of the near-earth kernels is held in one array indexed by
+ * slot, so evaluating a date walks the satellites stage by stage over
+ * contiguous arrays: the polynomial secular terms, then the drag terms, then
+ * the state vectors, built by the same routine as the single-satellite
+ * kernels. The time since epoch is counted from a common reference date, so
+ * states agree with Orekit's to a few nanometers rather than bit for bit.
+ * <p>
+ * Disjoint ranges of slots can be evaluated by different threads at once.
+ */
+final class Sgp4Batch {
+
+    private final AbsoluteDate reference;
+    private final int size;
+
+    // Constants of each satellite, written by TleKernels when a slot is loaded
+    final double[] epochOffset;
+    final double[] meanAnomaly;
+    final double[] perigeeArgument;
+    final double[] raan;
+    final double[] eccentricity;
+    final double[] inclination;
+    final double[] bStar;
+    final double[] xmdot;
+    final double[] omgdot;
+    final double[] xnodot;
+    final double[] xnodcf;
+    final double[] c1;
+    final double[] c4;
+    final double[] t2cof;
+    final double[] a0dp;
+    final double[] xn0dp;
+    final double[] eta;
+    final double[] cosi0;
+    final double[] sini0;
+    final boolean[] lessThan220;
+    // Higher order drag constants, zero below 220 km so the secular loop needs no branch
+    final double[] delM0;
+    final double[] d2;
+    final double[] d3;
+    final double[] d4;
+    final double[] t3cof;
+    final double[] t4cof;
+    final double[] t5cof;
+    final double[] sinM0;
+    final double[] omgcof;
+    final double[] xmcof;
+    final double[] c5;
+
+    // Per slot intermediate values of evaluate, overwritten by each call
+    private final double[] tSince;
+    private final double[] xmdf;
+    private final double[] omgadf;
+    private final double[] xnode;
+    private final double[] tempa;
+    private final double[] tempe;
+    private final double[] templ;
+    private final RuntimeException[] failures;
+    private final boolean[] disabled;
+
+    /**
+     * @param reference date the epochs are counted from, close to the evaluated dates for best rounding
+     * @param size      number of slots
+     */
+    Sgp4Batch(AbsoluteDate reference, int size) {
+        this.reference = reference;
+        this.size = size;
+        epochOffset = new double[size];
+        meanAnomaly = new double[size];
+        perigeeArgument = new double[size];
+        raan = new double[size];
+        eccentricity = new double[size];
+        inclination = new double[size];
+        bStar = new double[size];
+        xmdot = new double[size];
+        omgdot = new double[size];
+        xnodot = new double[size];
+        xnodcf = new double[size];
+        c1 = new double[size];
+        c4 = new double[size];
+        t2cof = new double[size];
+        a0dp = new double[size];
+        xn0dp = new double[size];
+        eta = new double[size];
+        cosi0 = new double[size];
+        sini0 = new double[size];
+        lessThan220 = new boolean[size];
+        delM0 = new double[size];
+        d2 = new double[size];
+        d3 = new double[size];
+        d4 = new double[size];
+        t3cof = new double[size];
+        t4cof = new double[size];
+        t5cof = new double[size];
+        sinM0 = new double[size];
+        omgcof = new double[size];
+        xmcof = new double[size];
+        c5 = new double[size];
+        tSince = new double[size];
+        xmdf = new double[size];
+        omgadf = new double[size];
+        xnode = new double[size];
+        tempa = new double[size];
+        tempe = new double[size];
+        templ = new double[size];
+        failures = new RuntimeException[size];
+        disabled = new boolean[size];
+    }
+
+    /**
+     * Check whether a propagator can be loaded, i.e. is a near-earth kernel.
+     */
+    static boolean accepts(Propagator propagator) {
+        return TleKernels.isSgp4(propagator);
+    }
+
+    AbsoluteDate getReference() {
+        return reference;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copy the constants of a near-earth kernel into a slot. The propagator
+     * is not used afterwards.
+     *
+     * @throws ClassCastException when {@link #accepts(Propagator)} is false
+     */
+    void load(int slot, Propagator propagator) {
+        TleKernels.loadSgp4(propagator, this, slot);
+        disabled[slot] = false;
+    }
+
+    /**
+     * Skip a slot in later evaluations, its outputs are left untouched.
+     */
+    void disable(int slot) {
+        disabled[slot] = true;
+    }
+
+    /**
+     * Failure of a slot in the last evaluation covering it, null when its
+     * state vector was written.
+     */
+    RuntimeException failure(int slot) {
+        return failures[slot];
+    }
+
+    /**
+     * Write the TEME state vectors of a range of slots at a date.
+     *
+     * @param date       evaluation date
+     * @param from       first slot, inclusive
+     * @param to         last slot, exclusive
+     * @param positions  receives x, y, z of slot k at {@code 3 * k}, in meters
+     * @param velocities receives vx, vy, vz of slot k at {@code 3 * k}, in meters per second
+     */
+    void evaluate(AbsoluteDate date, int from, int to, double[] positions, double[] velocities) {
+        double dt = date.durationFrom(reference);
+
+        // Secular gravity and drag polynomials, same operation order as the kernels
+        for (int k = from; k < to; k++) {
+            double t = (dt - epochOffset[k]) / 60.0;
+            double tsq = t * t;
+            double tcube = tsq * t;
+            double tfour = t * tcube;
+            tSince[k] = t;
+            xmdf[k] = meanAnomaly[k] + xmdot[k] * t;
+            omgadf[k] = perigeeArgument[k] + omgdot[k] * t;
+            xnode[k] = raan[k] + xnodot[k] * t + xnodcf[k] * tsq;
+            tempa[k] = 1 - c1[k] * t - d2[k] * tsq - d3[k] * tcube - d4[k] * tfour;
+            tempe[k] = bStar[k] * c4[k] * t;
+            templ[k] = t2cof[k] * tsq + t3cof[k] * tcube + tfour * (t4cof[k] + t * t5cof[k]);
+        }
+
+        // Drag on the argument of perigee and mean anomaly above 220 km, xmdf becomes xmp and omgadf omega
+        for (int k = from; k < to; k++) {
+            if (!lessThan220[k]) {
+                double delm = 1. + eta[k] * FastMath.cos(xmdf[k]);
+                delm = xmcof[k] * (delm * delm * delm - delM0[k]);
+                double temp = omgcof[k] * tSince[k] + delm;
+                xmdf[k] = xmdf[k] + temp;
+                omgadf[k] = omgadf[k] - temp;
+                tempe[k] = tempe[k] + bStar[k] * c5[k] * (FastMath.sin(xmdf[k]) - sinM0[k]);
+            }
+        }
+
+        // Updated elements: tempa becomes a, tempe e and templ the mean longitude
+        for (int k = from; k < to; k++) {
+            double e = eccentricity[k] - tempe[k];
+            tempa[k] = a0dp[k] * tempa[k] * tempa[k];
+            tempe[k] = e < 1e-6 ? 1e-6 : e;
+            templ[k] = xmdf[k] + omgadf[k] + xnode[k] + xn0dp[k] * templ[k];
+        }
+
+        for (int k = from; k < to; k++) {
+            if (disabled[k]) {
+                continue;
+            }
+            try {
+                TleKernels.writeState(tempa[k], tempe[k], inclination[k], omgadf[k], templ[k], xnode[k], cosi0[k],
+                        sini0[k], positions, velocities, 3 * k);
+                failures[k] = null;
+            } catch (RuntimeException e) {
+                failures[k] = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
+
+/**
+ * SGP4/SDP4 propagator that can also be evaluated in bulk without allocating.
+ * <p>
+ * Evaluating a TLE propagator allocates a date, two vectors and the state
+ * vector for every point. A kernel writes the TEME state vectors straight
+ * into caller buffers, with the same arithmetic as Orekit, so hot loops over
+ * many epochs produce no garbage.
+ *
+ * @see TleKernels
+ */
+interface TleKernel {
+
+    TLE getTLE();
+
+    /**
+     * Write the TEME state vector at a time since the TLE epoch.
+     *
+     * @param tSince     time since the TLE epoch in minutes
+     * @param positions  receives x, y, z in meters at {@code offset}
+     * @param velocities receives vx, vy, vz in meters per second at {@code offset}
+     * @param offset     index of x and vx in the buffers
+     */
+    void stateAt(double tSince, double[] positions, double[] velocities, int offset);
+
+    /**
+     * Write the TEME state vectors at offsets from a reference date.
+     *
+     * @param reference  date the offsets are counted from
+     * @param offsets    offsets from the reference in seconds
+     * @param count      number of offsets to evaluate
+     * @param positions  receives x, y, z of point k at {@code 3 * k}, in meters
+     * @param velocities receives vx, vy, vz of point k at {@code 3 * k}, in meters per second
+     */
+    default void evaluate(AbsoluteDate reference, double[] offsets, int count, double[] positions,
+            double[] velocities) {
+        double base = reference.durationFrom(getTLE().getDate());
+        for (int k = 0; k < count; k++) {
+            stateAt((base + offsets[k]) / 60.0, positions, velocities, 3 * k);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+import org.hipparchus.util.SinCos;
+import org.orekit.attitudes.AttitudeProvider;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.analytical.tle.DeepSDP4;
+import org.orekit.propagation.analytical.tle.SGP4;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEConstants;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import tr.com.kadiraydemir.orekit.exception.OrekitException;
+
+/**
+ * SGP4 and SDP4 propagators implementing {@link TleKernel}.
+ * <p>
+ * Orekit updates the mean elements of a TLE propagator in place and then
+ * builds the state vector in a private method. The propagators below build
+ * the state vector with a copy of that method writing into arrays, and SGP4
+ * also updates the elements with a copy of Orekit's, so the results match
+ * Orekit's. Everything else is inherited, and they can be used wherever an
+ * Orekit TLE propagator is. SGP4 kernels can also be copied into a
+ * {@link Sgp4Batch} to be evaluated together.
+ */
+final class TleKernels {
+
+    // Kepler equation solver settings, as in Orekit
+    private static final double NEWTON_RAPHSON_EPSILON = 1.0e-12;
+    private static final int MAX_NEWTON_RAPHSON_ITERATIONS = 10;
+
+    private TleKernels() {
+    }
+
+    /**
+     * Create the kernel {@link TLEPropagator#selectExtrapolator(TLE)} would
+     * pick: SDP4 for periods of 225 minutes and more, SGP4 below.
+     *
+     * @param tle      TLE to propagate
+     * @param attitude attitude provider
+     * @param mass     spacecraft mass in kg
+     * @return SGP4 or SDP4 kernel
+     */
+    static TLEPropagator select(TLE tle, AttitudeProvider attitude, double mass) {
+        // Same un-Kozai'd mean motion as TLEPropagator.selectExtrapolator
+        double a1 = FastMath.pow(TLEConstants.XKE / (tle.getMeanMotion() * 60.0), TLEConstants.TWO_THIRD);
+        double cosi0 = FastMath.cos(tle.getI());
+        double temp = TLEConstants.CK2 * 1.5 * (3 * cosi0 * cosi0 - 1.0)
+                * FastMath.pow(1.0 - tle.getE() * tle.getE(), -1.5);
+        double delta1 = temp / (a1 * a1);
+        double a0 = a1 * (1 - delta1 * (TLEConstants.ONE_THIRD + delta1 * (delta1 * 134.0 / 81.0 + 1.0)));
+        double delta0 = temp / (a0 * a0);
+        double xn0dp = tle.getMeanMotion() * 60.0 / (delta0 + 1.0);
+
+        if (MathUtils.TWO_PI / (xn0dp * TLEConstants.MINUTES_PER_DAY) >= 1.0 / 6.4) {
+            return new Sdp4Kernel(tle, attitude, mass);
+        }
+        return new Sgp4Kernel(tle, attitude, mass);
+    }
+
+    static TLEPropagator sgp4(TLE tle, AttitudeProvider attitude, double mass) {
+        return new Sgp4Kernel(tle, attitude, mass);
+    }
+
+    static TLEPropagator sdp4(TLE tle, AttitudeProvider attitude, double mass) {
+        return new Sdp4Kernel(tle, attitude, mass);
+    }
+
+    static boolean isSgp4(Propagator propagator) {
+        return propagator instanceof Sgp4Kernel;
+    }
+
+    /**
+     * Copy the constants of a near-earth kernel into a slot of a batch.
+     */
+    static void loadSgp4(Propagator propagator, Sgp4Batch batch, int slot) {
+        ((Sgp4Kernel) propagator).load(batch, slot);
+    }
+
+    /**
+     * Build the TEME state vector from the updated mean elements of a TLE
+     * propagator. Copy of Orekit's {@code TLEPropagator.computePVCoordinates},
+     * with separate sine and cosine calls and array outputs, so that nothing
+     * is allocated. Also used by {@link Sgp4Batch} on the elements of each slot.
+     */
+    static void writeState(double a, double e, double i, double omega, double xl, double xnode,
+            double cosi0, double sini0, double[] positions, double[] velocities, int offset) {
+        // Long period periodics
+        double axn = e * FastMath.cos(omega);
+        double temp = 1.0 / (a * (1.0 - e * e));
+        double xlcof = 0.125 * TLEConstants.A3OVK2 * sini0 * (3.0 + 5.0 * cosi0) / (1.0 + cosi0);
+        double aycof = 0.25 * TLEConstants.A3OVK2 * sini0;
+        double xll = temp * xlcof * axn;
+        double aynl = temp * aycof;
+        double xlt = xl + xll;
+        double ayn = e * FastMath.sin(omega) + aynl;
+        double elsq = axn * axn + ayn * ayn;
+        double capu = MathUtils.normalizeAngle(xlt - xnode, FastMath.PI);
+        double epw = capu;
+        double ecosE = 0;
+        double esinE = 0;
+        double sinEPW = 0;
+        double cosEPW = 0;
+
+        double cosi0Sq = cosi0 * cosi0;
+        double x3thm1 = 3.0 * cosi0Sq - 1.0;
+        double x1mth2 = 1.0 - cosi0Sq;
+        double x7thm1 = 7.0 * cosi0Sq - 1.0;
+
+        if (e > 1 - 1e-6) {
+            throw new OrekitException("Eccentricity " + e + " is too large for the SGP4/SDP4 model");
+        }
+
+        // Kepler's equation, with a bounded first Newton-Raphson step
+        for (int j = 0; j < MAX_NEWTON_RAPHSON_ITERATIONS; j++) {
+            boolean secondOrder = true;
+            sinEPW = FastMath.sin(epw);
+            cosEPW = FastMath.cos(epw);
+            ecosE = axn * cosEPW + ayn * sinEPW;
+            esinE = axn * sinEPW - ayn * cosEPW;
+            double f = capu - epw + esinE;
+            if (FastMath.abs(f) < NEWTON_RAPHSON_EPSILON) {
+                break;
+            }
+            double fdot = 1.0 - ecosE;
+            double deltaEpw = f / fdot;
+            if (j == 0) {
+                double maxNewtonRaphson = 1.25 * FastMath.abs(e);
+                secondOrder = false;
+                if (deltaEpw > maxNewtonRaphson) {
+                    deltaEpw = maxNewtonRaphson;
+                } else if (deltaEpw < -maxNewtonRaphson) {
+                    deltaEpw = -maxNewtonRaphson;
+                } else {
+                    secondOrder = true;
+                }
+            }
+            if (secondOrder) {
+                deltaEpw = f / (fdot + 0.5 * esinE * deltaEpw);
+            }
+            epw += deltaEpw;
+        }
+
+        // Short period preliminary quantities
+        temp = 1.0 - elsq;
+        double pl = a * temp;
+        double r = a * (1.0 - ecosE);
+        double temp2 = a / r;
+        double betal = FastMath.sqrt(temp);
+        temp = esinE / (1.0 + betal);
+        double cosu = temp2 * (cosEPW - axn + ayn * temp);
+        double sinu = temp2 * (sinEPW - ayn - axn * temp);
+        double u = FastMath.atan2(sinu, cosu);
+        double sin2u = 2.0 * sinu * cosu;
+        double cos2u = 2.0 * cosu * cosu - 1.0;
+        double temp1 = TLEConstants.CK2 / pl;
+        temp2 = temp1 / pl;
+
+        // Short periodics
+        double rk = r * (1.0 - 1.5 * temp2 * betal * x3thm1) + 0.5 * temp1 * x1mth2 * cos2u;
+        double uk = u - 0.25 * temp2 * x7thm1 * sin2u;
+        double xnodek = xnode + 1.5 * temp2 * cosi0 * sin2u;
+        double xinck = i + 1.5 * temp2 * cosi0 * sini0 * cos2u;
+
+        // Orientation vectors
+        double sinuk = FastMath.sin(uk);
+        double cosuk = FastMath.cos(uk);
+        double sinik = FastMath.sin(xinck);
+        double cosik = FastMath.cos(xinck);
+        double sinnok = FastMath.sin(xnodek);
+        double cosnok = FastMath.cos(xnodek);
+        double xmx = -sinnok * cosik;
+        double xmy = cosnok * cosik;
+        double ux = xmx * sinuk + cosnok * cosuk;
+        double uy = xmy * sinuk + sinnok * cosuk;
+        double uz = sinik * sinuk;
+
+        double cr = 1000 * rk * TLEConstants.EARTH_RADIUS;
+        positions[offset] = cr * ux;
+        positions[offset + 1] = cr * uy;
+        positions[offset + 2] = cr * uz;
+
+        double rdot = TLEConstants.XKE * FastMath.sqrt(a) * esinE / r;
+        double rfdot = TLEConstants.XKE * FastMath.sqrt(pl) / r;
+        double xn = TLEConstants.XKE / (a * FastMath.sqrt(a));
+        double rdotk = rdot - xn * temp1 * x1mth2 * sin2u;
+        double rfdotk = rfdot + xn * temp1 * (x1mth2 * cos2u + 1.5 * x3thm1);
+        double vx = xmx * cosuk - cosnok * sinuk;
+        double vy = xmy * cosuk - sinnok * sinuk;
+        double vz = sinik * cosuk;
+
+        double cv = 1000.0 * TLEConstants.EARTH_RADIUS / 60.0;
+        velocities[offset] = cv * (rdotk * ux + rfdotk * vx);
+        velocities[offset + 1] = cv * (rdotk * uy + rfdotk * vy);
+        velocities[offset + 2] = cv * (rdotk * uz + rfdotk * vz);
+    }
+
+    /**
+     * Near-earth kernel.
+     * <p>
+     * Orekit's element update builds two dates per call to look up the drag
+     * term, so the update is ported here too, with the constants of
+     * {@code SGP4.sxpInitialize} kept per TLE. B* is read once per TLE: it
+     * only varies with the date when estimated, which never happens here.
+     */
+    private static final class Sgp4Kernel extends SGP4 implements TleKernel {
+
+        // TLE the constants below were computed for, the propagator can be reset to another one
+        private TLE initialized;
+        private boolean lessThan220;
+        private double meanAnomaly;
+        private double perigeeArgument;
+        private double raan;
+        private double eccentricity;
+        private double inclination;
+        private double bStar;
+        private double delM0;
+        private double d2;
+        private double d3;
+        private double d4;
+        private double t3cof;
+        private double t4cof;
+        private double t5cof;
+        private double sinM0;
+        private double omgcof;
+        private double xmcof;
+        private double c5;
+
+        Sgp4Kernel(TLE tle, AttitudeProvider attitude, double mass) {
+            super(tle, attitude, mass);
+        }
+
+        @Override
+        public void stateAt(double tSince, double[] positions, double[] velocities, int offset) {
+            if (initialized != tle) {
+                initialize();
+            }
+
+            // Secular effects of gravity and drag, as SGP4.sxpPropagate
+            double xmdf = meanAnomaly + xmdot * tSince;
+            double omgadf = perigeeArgument + omgdot * tSince;
+            double xn0ddf = raan + xnodot * tSince;
+            double omegaK = omgadf;
+            double xmp = xmdf;
+            double tsq = tSince * tSince;
+            double xnodeK = xn0ddf + xnodcf * tsq;
+            double tempa = 1 - c1 * tSince;
+            double tempe = bStar * c4 * tSince;
+            double templ = t2cof * tsq;
+
+            if (!lessThan220) {
+                double delomg = omgcof * tSince;
+                double delm = 1. + eta * FastMath.cos(xmdf);
+                delm = xmcof * (delm * delm * delm - delM0);
+                double temp = delomg + delm;
+                xmp = xmdf + temp;
+                omegaK = omgadf - temp;
+                double tcube = tsq * tSince;
+                double tfour = tSince * tcube;
+                tempa = tempa - d2 * tsq - d3 * tcube - d4 * tfour;
+                tempe = tempe + bStar * c5 * (FastMath.sin(xmp) - sinM0);
+                templ = templ + t3cof * tcube + tfour * (t4cof + tSince * t5cof);
+            }
+
+            double aK = a0dp * tempa * tempa;
+            double eK = eccentricity - tempe;
+            if (eK < 1e-6) {
+                eK = 1e-6;
+            }
+            double xlK = xmp + omegaK + xnodeK + xn0dp * templ;
+            writeState(aK, eK, inclination, omegaK, xlK, xnodeK, cosi0, sini0, positions, velocities, offset);
+        }
+
+        void load(Sgp4Batch batch, int slot) {
+            if (initialized != tle) {
+                initialize();
+            }
+            batch.epochOffset[slot] = tle.getDate().durationFrom(batch.getReference());
+            batch.meanAnomaly[slot] = meanAnomaly;
+            batch.perigeeArgument[slot] = perigeeArgument;
+            batch.raan[slot] = raan;
+            batch.eccentricity[slot] = eccentricity;
+            batch.inclination[slot] = inclination;
+            batch.bStar[slot] = bStar;
+            batch.xmdot[slot] = xmdot;
+            batch.omgdot[slot] = omgdot;
+            batch.xnodot[slot] = xnodot;
+            batch.xnodcf[slot] = xnodcf;
+            batch.c1[slot] = c1;
+            batch.c4[slot] = c4;
+            batch.t2cof[slot] = t2cof;
+            batch.a0dp[slot] = a0dp;
+            batch.xn0dp[slot] = xn0dp;
+            batch.eta[slot] = eta;
+            batch.cosi0[slot] = cosi0;
+            batch.sini0[slot] = sini0;
+            batch.lessThan220[slot] = lessThan220;
+            // Below 220 km the higher order terms are unused here and may be left from a previous TLE
+            boolean used = !lessThan220;
+            batch.delM0[slot] = used ? delM0 : 0;
+            batch.d2[slot] = used ? d2 : 0;
+            batch.d3[slot] = used ? d3 : 0;
+            batch.d4[slot] = used ? d4 : 0;
+            batch.t3cof[slot] = used ? t3cof : 0;
+            batch.t4cof[slot] = used ? t4cof : 0;
+            batch.t5cof[slot] = used ? t5cof : 0;
+            batch.sinM0[slot] = used ? sinM0 : 0;
+            batch.omgcof[slot] = used ? omgcof : 0;
+            batch.xmcof[slot] = used ? xmcof : 0;
+            batch.c5[slot] = used ? c5 : 0;
+        }
+
+        // Same constants as SGP4.sxpInitialize, from the common ones of TLEPropagator
+        private void initialize() {
+            meanAnomaly = tle.getMeanAnomaly();
+            perigeeArgument = tle.getPerigeeArgument();
+            raan = tle.getRaan();
+            eccentricity = tle.getE();
+            inclination = tle.getI();
+            bStar = tle.getBStar();
+
+            lessThan220 = perige < 220;
+            if (!lessThan220) {
+                SinCos scM0 = FastMath.sinCos(meanAnomaly);
+                double c1sq = c1 * c1;
+                delM0 = 1.0 + eta * scM0.cos();
+                delM0 *= delM0 * delM0;
+                d2 = 4 * a0dp * tsi * c1sq;
+                double temp = d2 * tsi * c1 / 3.0;
+                d3 = (17 * a0dp + s4) * temp;
+                d4 = 0.5 * temp * a0dp * tsi * (221 * a0dp + 31 * s4) * c1;
+                t3cof = d2 + 2 * c1sq;
+                t4cof = 0.25 * (3 * d3 + c1 * (12 * d2 + 10 * c1sq));
+                t5cof = 0.2 * (3 * d4 + 12 * c1 * d3 + 6 * d2 * d2 + 15 * c1sq * (2 * d2 + c1sq));
+                sinM0 = scM0.sin();
+                if (eccentricity < 1e-4) {
+                    omgcof = 0.;
+                    xmcof = 0.;
+                } else {
+                    double c3 = coef * tsi * TLEConstants.A3OVK2 * xn0dp
+                            * TLEConstants.NORMALIZED_EQUATORIAL_RADIUS * sini0 / eccentricity;
+                    xmcof = -TLEConstants.TWO_THIRD * coef * bStar * TLEConstants.NORMALIZED_EQUATORIAL_RADIUS
+                            / eeta;
+                    omgcof = bStar * c3 * FastMath.cos(perigeeArgument);
+                }
+            }
+            c5 = 2 * coef1 * a0dp * beta02 * (1 + 2.75 * (etasq + eeta) + eeta * etasq);
+            initialized = tle;
+        }
+    }
+
+    /**
+     * Deep-space kernel. The element update is Orekit's, only the state
+     * vector is built without allocating.
+     */
+    private static final class Sdp4Kernel extends DeepSDP4 implements TleKernel {
+
+        Sdp4Kernel(TLE tle, AttitudeProvider attitude, double mass) {
+            super(tle, attitude, mass);
+        }
+
+        @Override
+        public void stateAt(double tSince, double[] positions, double[] velocities, int offset) {
+            sxpPropagate(tSince);
+            writeState(a, e, i, omega, xl, xnode, cosi0, sini0, positions, velocities, offset);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.orekit.attitudes.AttitudeProvider;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of parsed TLEs and initialized analytical propagators.
+ * <p>
+ * Entries are keyed by the TLE line pair with trailing whitespace removed.
+ * Parsed {@link TLE} objects are immutable and shared. SGP4/SDP4 propagators
+ * keep intermediate results in instance fields, so they are handed out
+ * through exclusive {@link PropagatorLease}s and pooled per propagation model
+ * once released.
+ * <p>
+ * A lease may add event detectors and step handlers, they are cleared on
+ * return. Anything else it changes (initial state, attitude provider,
+ * additional data providers) would leak into the next lease, so such a
+ * propagator is dropped instead of pooled.
+ */
+@ApplicationScoped
+public class TlePropagatorCache {
+
+    @ConfigProperty(name = "orekit.tle-cache.max-entries", defaultValue = "25000")
+    int maxEntries;
+
+    @ConfigProperty(name = "orekit.tle-cache.max-idle-propagators", defaultValue = "4")
+    int maxIdlePropagators;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Map<String, Entry> entries;
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        hits = registry.counter("orekit.tle.cache.hits");
+        misses = registry.counter("orekit.tle.cache.misses");
+        evictions = registry.counter("orekit.tle.cache.evictions");
+        Gauge.builder("orekit.tle.cache.size", this, TlePropagatorCache::size).register(registry);
+    }
+
+    /**
+     * Get the parsed TLE for the given lines.
+     *
+     * @param tleLine1 TLE line 1
+     * @param tleLine2 TLE line 2
+     * @return shared parsed TLE
+     */
+    public TLE getTle(String tleLine1, String tleLine2) {
+        return entry(tleLine1, tleLine2).tle;
+    }
+
+    /**
+     * Lease an initialized propagator for the given lines and model.
+     *
+     * @param tleLine1 TLE line 1
+     * @param tleLine2 TLE line 2
+     * @param model    propagation model, part of the pool key
+     * @param creator  builds a new propagator when no idle one is pooled
+     * @return lease returning the propagator to the pool on close
+     */
+    public PropagatorLease acquire(String tleLine1, String tleLine2, PropagationModelType model,
+            Function<TLE, ? extends Propagator> creator) {
+        Entry entry = entry(tleLine1, tleLine2);
+        Pooled pooled = entry.poll(model);
+        if (pooled == null) {
+            pooled = new Pooled(creator.apply(entry.tle));
+        }
+        Pooled leased = pooled;
+        return new PropagatorLease(leased.propagator, released -> entry.offer(model, leased, maxIdlePropagators));
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double getHitCount() {
+        return hits.count();
+    }
+
+    public double getMissCount() {
+        return misses.count();
+    }
+
+    public double getEvictionCount() {
+        return evictions.count();
+    }
+
+    private Entry entry(String tleLine1, String tleLine2) {
+        String line1 = tleLine1.stripTrailing();
+        String line2 = tleLine2.stripTrailing();
+        String key = line1 + '\n' + line2;
+
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        // Parse outside the lock, a concurrent miss on the same key keeps the first entry
+        misses.increment();
+        Entry created = new Entry(new TLE(line1, line2));
+        synchronized (entries) {
+            Entry existing = entries.putIfAbsent(key, created);
+            return existing != null ? existing : created;
+        }
+    }
+
+    /**
+     * Parsed TLE and the idle propagators built from it.
+     */
+    private static final class Entry {
+
+        private final TLE tle;
+        private final Map<PropagationModelType, ArrayDeque<Pooled>> idle = new EnumMap<>(
+                PropagationModelType.class);
+
+        Entry(TLE tle) {
+            this.tle = tle;
+        }
+
+        synchronized Pooled poll(PropagationModelType model) {
+            ArrayDeque<Pooled> pool = idle.get(model);
+            return pool != null ? pool.pollFirst() : null;
+        }
+
+        void offer(PropagationModelType model, Pooled pooled, int maxIdle) {
+            if (!pooled.unchanged()) {
+                return;
+            }
+            // Leave nothing from the previous user behind
+            pooled.propagator.clearEventsDetectors();
+            pooled.propagator.clearStepHandlers();
+            synchronized (this) {
+                ArrayDeque<Pooled> pool = idle.computeIfAbsent(model, m -> new ArrayDeque<>());
+                if (pool.size() < maxIdle) {
+                    pool.addFirst(pooled);
+                }
+            }
+        }
+    }
+
+    /**
+     * Propagator with the settings it was built with.
+     */
+    private static final class Pooled {
+
+        private final Propagator propagator;
+        private final SpacecraftState initialState;
+        private final AttitudeProvider attitudeProvider;
+        private final int additionalDataProviders;
+
+        Pooled(Propagator propagator) {
+            this.propagator = propagator;
+            this.initialState = propagator.getInitialState();
+            this.attitudeProvider = propagator.getAttitudeProvider();
+            this.additionalDataProviders = propagator.getAdditionalDataProviders().size();
+        }
+
+        // Resetting the initial state of a TLE propagator also refits its TLE
+        boolean unchanged() {
+            return propagator.getInitialState() == initialState
+                    && propagator.getAttitudeProvider() == attitudeProvider
+                    && propagator.getAdditionalDataProviders().size() == additionalDataProviders;
+        }
+    }
+}
@@ -20,6 +20,9 @@ import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.Constants;
 import org.orekit.utils.PVCoordinates;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
+import tr.com.kadiraydemir.orekit.service.cancellation.CancellationScope;
+import tr.com.kadiraydemir.orekit.service.cancellation.TaskCancellationMonitor;
 import tr.com.kadiraydemir.orekit.service.frame.FrameService;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
@@ -47,6 +50,9 @@ public class TleFittingServiceImpl implements TleFittingService {
         @Inject
         FrameService frameService;
 
+        @Inject
+        TaskCancellationMonitor cancellationMonitor;
+
         @Override
         public TleFittingResult fitTLE(TleFittingRequest request) {
                 try {
@@ -76,6 +82,12 @@ public class TleFittingServiceImpl implements TleFittingService {
                         // Create the batch least squares estimator
                         BatchLSEstimator estimator = createEstimator(propagatorBuilder, request);
 
+                        // Stop between two evaluations once the call is cancelled
+                        CancellationScope scope = cancellationMonitor.open("tle-fitting");
+                        estimator.setObserver((iterationsCount, evaluationsCount, orbits, estimatedOrbitalParameters,
+                                        estimatedPropagatorParameters, estimatedMeasurementsParameters,
+                                        evaluationsProvider, lspEvaluation) -> scope.check());
+
                         // Get input frame
                         Frame inputFrame = frameService.resolveFrame(request.inputFrame());
 
@@ -114,6 +126,8 @@ public class TleFittingServiceImpl implements TleFittingService {
                                         iterations,
                                         evaluations);
 
+                } catch (TaskCancelledException e) {
+                        throw e;
                 } catch (org.hipparchus.exception.MathRuntimeException e) {
                         LOG.error("TLE fitting failed - Math error", e);
                         return TleFittingResult.failure("TLE fitting failed: " + e.getMessage());
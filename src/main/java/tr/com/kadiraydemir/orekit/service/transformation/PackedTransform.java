@@ -0,0 +1,81 @@
+package tr.com.kadiraydemir.orekit.service.transformation;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.frames.Transform;
+
+/**
+ * Frame transform flattened to plain doubles and applied to packed state
+ * vectors, x, y, z of vector k at {@code 3 * k}.
+ * <p>
+ * Same composition as {@code Transform.transformPVCoordinates}: translate,
+ * rotate, then remove the rotation rate cross the rotated position from the
+ * velocity. The rotation is applied as a matrix rather than a quaternion,
+ * and without the compensated sums of {@code Vector3D}, so results differ
+ * from Orekit at rounding level only. Accelerations are not transformed.
+ * <p>
+ * The incubating Vector API is not used: the service is also built as a
+ * native image, and the loop keeps to scalar code the JIT compiles well.
+ */
+final class PackedTransform {
+
+    private final double m00, m01, m02;
+    private final double m10, m11, m12;
+    private final double m20, m21, m22;
+    private final double wx, wy, wz;
+    private final double tx, ty, tz;
+    private final double tvx, tvy, tvz;
+
+    private PackedTransform(double[][] matrix, Vector3D rate, Vector3D translation, Vector3D velocity) {
+        m00 = matrix[0][0];
+        m01 = matrix[0][1];
+        m02 = matrix[0][2];
+        m10 = matrix[1][0];
+        m11 = matrix[1][1];
+        m12 = matrix[1][2];
+        m20 = matrix[2][0];
+        m21 = matrix[2][1];
+        m22 = matrix[2][2];
+        wx = rate.getX();
+        wy = rate.getY();
+        wz = rate.getZ();
+        tx = translation.getX();
+        ty = translation.getY();
+        tz = translation.getZ();
+        tvx = velocity.getX();
+        tvy = velocity.getY();
+        tvz = velocity.getZ();
+    }
+
+    static PackedTransform of(Transform transform) {
+        return new PackedTransform(transform.getRotation().getMatrix(), transform.getRotationRate(),
+                transform.getTranslation(), transform.getVelocity());
+    }
+
+    /**
+     * Transform vectors {@code from} (inclusive) to {@code to} (exclusive).
+     * Outputs may be the input arrays, each vector is read before it is
+     * written.
+     */
+    void apply(double[] positions, double[] velocities, int from, int to, double[] outPositions,
+            double[] outVelocities) {
+        for (int k = from; k < to; k++) {
+            int i = 3 * k;
+            double px = positions[i] + tx;
+            double py = positions[i + 1] + ty;
+            double pz = positions[i + 2] + tz;
+            double vx = velocities[i] + tvx;
+            double vy = velocities[i + 1] + tvy;
+            double vz = velocities[i + 2] + tvz;
+
+            double rx = m00 * px + m01 * py + m02 * pz;
+            double ry = m10 * px + m11 * py + m12 * pz;
+            double rz = m20 * px + m21 * py + m22 * pz;
+            outPositions[i] = rx;
+            outPositions[i + 1] = ry;
+            outPositions[i + 2] = rz;
+            outVelocities[i] = m00 * vx + m01 * vy + m02 * vz - (wy * rz - wz * ry);
+            outVelocities[i + 1] = m10 * vx + m11 * vy + m12 * vz - (wz * rx - wx * rz);
+            outVelocities[i + 2] = m20 * vx + m21 * vy + m22 * vz - (wx * ry - wy * rx);
+        }
+    }
+}
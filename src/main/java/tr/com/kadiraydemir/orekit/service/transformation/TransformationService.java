@@ -1,5 +1,6 @@
 package tr.com.kadiraydemir.orekit.service.transformation;
 
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 import tr.com.kadiraydemir.orekit.model.TransformRequest;
 import tr.com.kadiraydemir.orekit.model.TransformResult;
 
@@ -15,4 +16,21 @@ public interface TransformationService {
      * @return the transformation result
      */
     TransformResult transform(TransformRequest request);
+
+    /**
+     * Transform packed state vectors sharing one epoch and frame pair. The
+     * transform is resolved once and applied to the arrays directly, nothing
+     * is allocated per vector. Outputs may be the input arrays.
+     *
+     * @param sourceFrame   frame of the input vectors
+     * @param targetFrame   frame of the output vectors
+     * @param epochIso      epoch of every vector, ISO-8601 UTC
+     * @param positions     x, y, z of vector k at {@code 3 * k}, in meters
+     * @param velocities    vx, vy, vz of vector k at {@code 3 * k}, in meters per second
+     * @param count         number of vectors to transform
+     * @param outPositions  receives the transformed positions, same layout
+     * @param outVelocities receives the transformed velocities, same layout
+     */
+    void transformBulk(ReferenceFrameType sourceFrame, ReferenceFrameType targetFrame, String epochIso,
+            double[] positions, double[] velocities, int count, double[] outPositions, double[] outVelocities);
 }
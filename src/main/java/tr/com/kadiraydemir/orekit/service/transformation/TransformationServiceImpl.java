@@ -8,6 +8,7 @@ import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.PVCoordinates;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 import tr.com.kadiraydemir.orekit.model.TransformRequest;
 import tr.com.kadiraydemir.orekit.service.frame.FrameService;
 import tr.com.kadiraydemir.orekit.model.TransformResult;
@@ -20,16 +21,7 @@ public class TransformationServiceImpl implements TransformationService {
 
     @Override
     public TransformResult transform(TransformRequest request) {
-        // Resolve frames
-        Frame sourceFrame = frameService.resolveFrame(request.sourceFrame());
-        Frame targetFrame = frameService.resolveFrame(request.targetFrame());
-
-        // Resolve date
-        // Assuming UTC for simplification, ideally could be configurable or detected
-        AbsoluteDate epoch = new AbsoluteDate(request.epochIso(), TimeScalesFactory.getUTC());
-
-        // Get transform
-        Transform transform = sourceFrame.getTransformTo(targetFrame, epoch);
+        Transform transform = resolveTransform(request.sourceFrame(), request.targetFrame(), request.epochIso());
 
         // input PV
         Vector3D p = new Vector3D(request.x(), request.y(), request.z());
@@ -50,4 +42,24 @@ public class TransformationServiceImpl implements TransformationService {
                 targetPV.getVelocity().getY(),
                 targetPV.getVelocity().getZ());
     }
+
+    @Override
+    public void transformBulk(ReferenceFrameType sourceFrame, ReferenceFrameType targetFrame, String epochIso,
+            double[] positions, double[] velocities, int count, double[] outPositions, double[] outVelocities) {
+        PackedTransform.of(resolveTransform(sourceFrame, targetFrame, epochIso))
+                .apply(positions, velocities, 0, count, outPositions, outVelocities);
+    }
+
+    private Transform resolveTransform(ReferenceFrameType sourceType, ReferenceFrameType targetType,
+            String epochIso) {
+        // Resolve frames
+        Frame sourceFrame = frameService.resolveFrame(sourceType);
+        Frame targetFrame = frameService.resolveFrame(targetType);
+
+        // Resolve date
+        // Assuming UTC for simplification, ideally could be configurable or detected
+        AbsoluteDate epoch = new AbsoluteDate(epochIso, TimeScalesFactory.getUTC());
+
+        return sourceFrame.getTransformTo(targetFrame, epoch);
+    }
 }
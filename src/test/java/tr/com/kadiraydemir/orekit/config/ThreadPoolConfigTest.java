@@ -124,4 +124,23 @@ public class ThreadPoolConfigTest {
         // Cleanup
         config.close(executor);
     }
+
+    @Test
+    @DisplayName("Should size the parallel pool from the configuration")
+    public void createParallelExecutor_configuredThreads_returnsFixedThreadPool() {
+        // Given
+        ThreadPoolConfig config = new ThreadPoolConfig();
+        config.parallelThreads = 3;
+
+        // When
+        ExecutorService executor = config.createParallelExecutor();
+
+        // Then
+        assertTrue(executor instanceof ThreadPoolExecutor);
+        assertEquals(3, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+
+        // Cleanup
+        config.closeParallel(executor);
+        assertTrue(executor.isShutdown());
+    }
 }
@@ -0,0 +1,76 @@
+package tr.com.kadiraydemir.orekit.grpc;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.grpc.runtime.Interceptors;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+@QuarkusTest
+public class CallCancellationInterceptorTest {
+
+    private static final TLEPropagateRequest LONG_REQUEST = TLEPropagateRequest.newBuilder()
+            .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+            .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+            .setStartDate("2024-01-01T00:00:00Z")
+            .setEndDate("2024-03-01T00:00:00Z")
+            .setPositionCount(100_000)
+            .setModel(PropagationModel.NUMERICAL)
+            .setOutputFrame(ReferenceFrame.TEME)
+            .build();
+
+    @GrpcClient("orbital-service-client")
+    OrbitalServiceGrpc.OrbitalServiceBlockingStub orbitalService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testPriorityBetweenQuarkusRoutingContextAndBlockingHandler() {
+        // Fails if Quarkus moves its interceptors around this one
+        Assertions.assertTrue(CallCancellationInterceptor.PRIORITY < Interceptors.ROUTING_CONTEXT);
+        Assertions.assertTrue(CallCancellationInterceptor.PRIORITY > Interceptors.BLOCKING_HANDLER);
+    }
+
+    @Test
+    public void testDeadlineStopsNumericalPropagation() throws InterruptedException {
+        double before = cancelledCount();
+        // Connect first, so that the deadline only covers the computation
+        connect();
+
+        Iterator<TLEPropagateResponse> responses = orbitalService
+                .withDeadlineAfter(500, TimeUnit.MILLISECONDS)
+                .propagateTLE(LONG_REQUEST);
+        StatusRuntimeException e = Assertions.assertThrows(StatusRuntimeException.class, responses::next);
+        Assertions.assertEquals(Status.Code.DEADLINE_EXCEEDED, e.getStatus().getCode());
+
+        awaitCancellation(before);
+    }
+
+    private void connect() {
+        orbitalService.propagateTLE(LONG_REQUEST.toBuilder().setPositionCount(2).build()).forEachRemaining(response -> {
+        });
+    }
+
+    // The server side integration stops at its next step instead of running for two months
+    private void awaitCancellation(double before) throws InterruptedException {
+        long limit = System.currentTimeMillis() + 10_000;
+        while (cancelledCount() == before && System.currentTimeMillis() < limit) {
+            Thread.sleep(50);
+        }
+        Assertions.assertTrue(cancelledCount() > before);
+    }
+
+    private double cancelledCount() {
+        Counter counter = registry.find("orekit.tasks.cancelled").tag("task", "propagation").counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
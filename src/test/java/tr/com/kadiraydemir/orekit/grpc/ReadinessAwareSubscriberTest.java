@@ -0,0 +1,129 @@
+package tr.com.kadiraydemir.orekit.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@QuarkusTest
+public class ReadinessAwareSubscriberTest {
+
+    @Test
+    public void testItemsArePulledOnlyWhileReady() {
+        FakeServerObserver observer = new FakeServerObserver();
+        AtomicInteger produced = new AtomicInteger();
+        Multi<Integer> responses = Multi.createFrom().range(0, 10)
+                .onItem().invoke(produced::incrementAndGet);
+
+        observer.ready = false;
+        ReadinessAwareSubscriber.stream(responses, observer);
+
+        // Nothing is produced while the transport is not ready
+        Assertions.assertEquals(0, produced.get());
+        Assertions.assertTrue(observer.received.isEmpty());
+
+        // Client drains a bit: exactly one item per ready signal while the buffer fills again
+        observer.readyForOneItem = true;
+        observer.ready = true;
+        observer.onReadyHandler.run();
+        Assertions.assertEquals(List.of(0), observer.received);
+        Assertions.assertEquals(1, produced.get());
+
+        // Fast client: everything else flows through without waiting
+        observer.readyForOneItem = false;
+        observer.ready = true;
+        observer.onReadyHandler.run();
+        Assertions.assertEquals(10, observer.received.size());
+        Assertions.assertTrue(observer.completed);
+    }
+
+    @Test
+    public void testCancelStopsUpstream() {
+        FakeServerObserver observer = new FakeServerObserver();
+        AtomicInteger produced = new AtomicInteger();
+        Multi<Integer> responses = Multi.createFrom().range(0, 10)
+                .onItem().invoke(produced::incrementAndGet);
+
+        observer.ready = false;
+        ReadinessAwareSubscriber.stream(responses, observer);
+        observer.onCancelHandler.run();
+
+        observer.ready = true;
+        observer.onReadyHandler.run();
+
+        Assertions.assertEquals(0, produced.get());
+        Assertions.assertFalse(observer.completed);
+    }
+
+    /**
+     * Response observer whose readiness is driven by the test.
+     */
+    private static final class FakeServerObserver extends ServerCallStreamObserver<Integer> {
+
+        private final List<Integer> received = new ArrayList<>();
+        private volatile boolean ready;
+        private volatile boolean readyForOneItem;
+        private boolean completed;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void onNext(Integer value) {
+            received.add(value);
+            if (readyForOneItem) {
+                ready = false;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Assertions.fail(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+    }
+}
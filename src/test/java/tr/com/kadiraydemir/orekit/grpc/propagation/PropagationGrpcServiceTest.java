@@ -1,13 +1,19 @@
 package tr.com.kadiraydemir.orekit.grpc.propagation;
 
+import io.grpc.stub.StreamObserver;
 import io.quarkus.grpc.GrpcClient;
+import io.quarkus.grpc.GrpcService;
 import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import tr.com.kadiraydemir.orekit.grpc.*;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 @QuarkusTest
 public class PropagationGrpcServiceTest {
@@ -15,6 +21,10 @@ public class PropagationGrpcServiceTest {
         @GrpcClient("orbital-service-client")
         OrbitalService orbitalService;
 
+        @Inject
+        @GrpcService
+        PropagationGrpcService propagationGrpcService;
+
         @Test
         public void testPropagateTLE() {
                 String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
@@ -107,4 +117,404 @@ public class PropagationGrpcServiceTest {
                 Assertions.assertEquals(250, totalResults);
         }
 
+        @Test
+        public void testPropagateTLEChunked() {
+                String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+                String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+                TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                                .setTleLine1(line1)
+                                .setTleLine2(line2)
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T13:00:00Z")
+                                .setPositionCount(1000)
+                                .setChunkSize(64)
+                                .setOutputFrame(ReferenceFrame.TEME)
+                                .build();
+
+                List<TLEPropagateResponse> responses = orbitalService.propagateTLE(request)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(30));
+
+                // 1000 positions in chunks of 64 -> 16 responses
+                Assertions.assertEquals(16, responses.size());
+                for (TLEPropagateResponse response : responses) {
+                        Assertions.assertTrue(response.getPositionsCount() <= 64);
+                }
+                int totalPositions = responses.stream()
+                                .mapToInt(TLEPropagateResponse::getPositionsCount)
+                                .sum();
+                Assertions.assertEquals(1000, totalPositions);
+        }
+
+        @Test
+        public void testBatchPropagateTLEPacked() {
+                java.util.List<TLELines> tles = new java.util.ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                        tles.add(TLELines.newBuilder()
+                                        .setTleLine1("1 " + (10000 + i)
+                                                        + "U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                        .setTleLine2("2 " + (10000 + i)
+                                                        + "  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                        .build());
+                }
+
+                BatchTLEPropagateRequest request = BatchTLEPropagateRequest.newBuilder()
+                                .addAllTles(tles)
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T13:00:00Z")
+                                .setPositionCount(61)
+                                .setOutputFrame(ReferenceFrame.TEME)
+                                .setEncoding(EphemerisEncoding.PACKED_COLUMNS)
+                                .build();
+
+                List<BatchTLEPropagateResponse> responses = orbitalService.batchPropagateTLE(request)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(60));
+
+                List<TLEPropagationResult> results = responses.stream()
+                                .flatMap(r -> r.getResultsList().stream())
+                                .toList();
+                Assertions.assertEquals(20, results.size());
+                for (TLEPropagationResult result : results) {
+                        Assertions.assertTrue(result.getError().isEmpty());
+                        Assertions.assertEquals(0, result.getPositionsCount());
+                        Assertions.assertEquals(61, result.getPacked().getXCount());
+                        Assertions.assertEquals(61, result.getPacked().getZCount());
+                        Assertions.assertEquals(60.0, result.getPacked().getStepSeconds(), 1.0e-9);
+                }
+        }
+
+        @Test
+        public void testBatchPropagateTLEChebyshev() {
+                TLELines tle = TLELines.newBuilder()
+                                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                .build();
+
+                BatchTLEPropagateRequest request = BatchTLEPropagateRequest.newBuilder()
+                                .addTles(tle)
+                                .addTles(tle)
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T18:00:00Z")
+                                .setOutputFrame(ReferenceFrame.TEME)
+                                .setEncoding(EphemerisEncoding.CHEBYSHEV)
+                                .setChebyshevToleranceM(10.0)
+                                .build();
+
+                List<TLEPropagationResult> results = orbitalService.batchPropagateTLE(request)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(60))
+                                .stream()
+                                .flatMap(r -> r.getResultsList().stream())
+                                .toList();
+
+                Assertions.assertEquals(2, results.size());
+                for (TLEPropagationResult result : results) {
+                        Assertions.assertTrue(result.getError().isEmpty());
+                        Assertions.assertEquals(0, result.getPositionsCount());
+                        ChebyshevEphemeris chebyshev = result.getChebyshev();
+                        Assertions.assertFalse(chebyshev.getSegmentsList().isEmpty());
+                        Assertions.assertTrue(chebyshev.getMaxFitErrorM() <= 10.0);
+                        ChebyshevSegment last = chebyshev.getSegments(chebyshev.getSegmentsCount() - 1);
+                        Assertions.assertEquals(21600.0, last.getStartOffsetSeconds() + last.getDurationSeconds(),
+                                        1.0e-6);
+                }
+        }
+
+        @Test
+        public void testPropagateTLEChebyshevToleranceBelowMinimum() {
+                TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T13:00:00Z")
+                                .setEncoding(EphemerisEncoding.CHEBYSHEV)
+                                .setChebyshevToleranceM(1.0e-6)
+                                .build();
+
+                io.grpc.StatusRuntimeException error = Assertions.assertThrows(io.grpc.StatusRuntimeException.class,
+                                () -> orbitalService.propagateTLE(request)
+                                                .collect().asList()
+                                                .await().atMost(Duration.ofSeconds(10)));
+                Assertions.assertEquals(io.grpc.Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+        }
+
+        @Test
+        public void testPropagateTLEChordalToleranceRejectedWithEvenGridEncodings() {
+                for (EphemerisEncoding encoding : List.of(EphemerisEncoding.PACKED_COLUMNS,
+                                EphemerisEncoding.GROUND_TRACK)) {
+                        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                                        .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                        .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                        .setStartDate("2024-01-01T12:00:00Z")
+                                        .setEndDate("2024-01-01T13:00:00Z")
+                                        .setPositionCount(10)
+                                        .setEncoding(encoding)
+                                        .setChordalToleranceM(100.0)
+                                        .build();
+
+                        io.grpc.StatusRuntimeException error = Assertions.assertThrows(
+                                        io.grpc.StatusRuntimeException.class,
+                                        () -> orbitalService.propagateTLE(request)
+                                                        .collect().asList()
+                                                        .await().atMost(Duration.ofSeconds(10)));
+                        Assertions.assertEquals(io.grpc.Status.Code.INVALID_ARGUMENT, error.getStatus().getCode(),
+                                        encoding.name());
+                }
+        }
+
+        @Test
+        public void testPropagateTLEGroundTrackMatchesBatch() {
+                String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+                String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+                TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                                .setTleLine1(line1)
+                                .setTleLine2(line2)
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T14:00:00Z")
+                                .setPositionCount(121)
+                                .setEncoding(EphemerisEncoding.GROUND_TRACK)
+                                .build();
+                BatchTLEPropagateRequest batchRequest = BatchTLEPropagateRequest.newBuilder()
+                                .addTles(TLELines.newBuilder().setTleLine1(line1).setTleLine2(line2).build())
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T14:00:00Z")
+                                .setPositionCount(121)
+                                .setEncoding(EphemerisEncoding.GROUND_TRACK)
+                                .build();
+
+                GroundTrack single = orbitalService.propagateTLE(request)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(30))
+                                .get(0).getGroundTrack();
+                TLEPropagationResult batch = orbitalService.batchPropagateTLE(batchRequest)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(30))
+                                .get(0).getResults(0);
+
+                Assertions.assertTrue(batch.getError().isEmpty());
+                Assertions.assertEquals(0, batch.getPositionsCount());
+                GroundTrack track = batch.getGroundTrack();
+                Assertions.assertEquals(single.getStartEpoch(), track.getStartEpoch());
+                Assertions.assertEquals(60.0, track.getStepSeconds(), 1.0e-9);
+                Assertions.assertEquals(121, track.getLatitudeDegCount());
+                for (int i = 0; i < 121; i++) {
+                        // Bounded by the inclination, above the ellipsoid
+                        Assertions.assertTrue(Math.abs(track.getLatitudeDeg(i)) <= 52.0);
+                        Assertions.assertTrue(Math.abs(track.getLongitudeDeg(i)) <= 180.0);
+                        Assertions.assertTrue(track.getAltitudeM(i) > 0);
+                        Assertions.assertEquals(single.getLatitudeDeg(i), track.getLatitudeDeg(i), 1.0e-6);
+                        Assertions.assertEquals(single.getLongitudeDeg(i), track.getLongitudeDeg(i), 1.0e-6);
+                        Assertions.assertEquals(single.getAltitudeM(i), track.getAltitudeM(i), 1.0e-3);
+                }
+        }
+
+        @Test
+        public void testBatchSnapshot() {
+                TLELines tle = TLELines.newBuilder()
+                                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                .build();
+                BatchSnapshotRequest.Builder builder = BatchSnapshotRequest.newBuilder()
+                                .setEpoch("2024-01-01T12:00:00Z")
+                                .setOutputFrame(ReferenceFrame.TEME);
+                for (int i = 0; i < 1000; i++) {
+                        builder.addTles(tle);
+                }
+                builder.addTles(TLELines.newBuilder().setTleLine1("1 99999U invalid").setTleLine2("2 99999 invalid"));
+
+                List<BatchSnapshotResponse> responses = orbitalService.batchSnapshot(builder.build())
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(60));
+
+                int states = 0;
+                int errors = 0;
+                for (BatchSnapshotResponse response : responses) {
+                        Assertions.assertEquals("2024-01-01T12:00:00.000", response.getEpoch());
+                        Assertions.assertEquals("TEME", response.getFrame());
+                        Assertions.assertEquals(response.getSatelliteIdCount(), response.getXCount());
+                        Assertions.assertEquals(response.getSatelliteIdCount(), response.getVzCount());
+                        states += response.getSatelliteIdCount();
+                        errors += response.getErrorsCount();
+                }
+                Assertions.assertEquals(1000, states);
+                Assertions.assertEquals(1, errors);
+                // Blocks of at least 256 satellites
+                Assertions.assertTrue(responses.size() >= 1 && responses.size() <= 4);
+        }
+
+        @Test
+        public void testBatchSnapshotInvalidEpoch() {
+                BatchSnapshotRequest request = BatchSnapshotRequest.newBuilder()
+                                .setEpoch("not-a-date")
+                                .build();
+
+                io.grpc.StatusRuntimeException error = Assertions.assertThrows(io.grpc.StatusRuntimeException.class,
+                                () -> orbitalService.batchSnapshot(request)
+                                                .collect().asList()
+                                                .await().atMost(Duration.ofSeconds(10)));
+                Assertions.assertEquals(io.grpc.Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+        }
+
+        @Test
+        public void testBatchPropagateTLETimeMajor() {
+                TLELines tle = TLELines.newBuilder()
+                                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                .build();
+                BatchTLEPropagateRequest.Builder builder = BatchTLEPropagateRequest.newBuilder()
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T13:00:00Z")
+                                .setPositionCount(10)
+                                .setOutputFrame(ReferenceFrame.GCRF);
+                for (int i = 0; i < 100; i++) {
+                        builder.addTles(tle);
+                }
+                builder.addTles(TLELines.newBuilder().setTleLine1("1 99999U invalid").setTleLine2("2 99999 invalid"));
+                BatchTLEPropagateRequest request = builder.build();
+
+                List<BatchSnapshotResponse> responses = orbitalService.batchPropagateTLETimeMajor(request)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(60));
+                List<TLEPropagationResult> satelliteMajor = orbitalService.batchPropagateTLE(request)
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(60))
+                                .stream()
+                                .flatMap(response -> response.getResultsList().stream())
+                                .filter(result -> result.getError().isEmpty())
+                                .toList();
+
+                // Fewer satellites than a block, so one response per epoch
+                Assertions.assertEquals(10, responses.size());
+                Assertions.assertEquals(1, responses.get(0).getErrorsCount());
+                Assertions.assertEquals(99999, responses.get(0).getErrors(0).getSatelliteId());
+                for (int i = 0; i < responses.size(); i++) {
+                        BatchSnapshotResponse response = responses.get(i);
+                        Assertions.assertEquals("GCRF", response.getFrame());
+                        Assertions.assertEquals(100, response.getSatelliteIdCount());
+                        Assertions.assertEquals(100, response.getVzCount());
+                        PositionPoint point = satelliteMajor.get(0).getPositions(i);
+                        Assertions.assertEquals(point.getTimestamp(), response.getEpoch());
+                        Assertions.assertEquals(point.getX(), response.getX(99), 1.0e-6);
+                        Assertions.assertEquals(point.getY(), response.getY(99), 1.0e-6);
+                        Assertions.assertEquals(point.getZ(), response.getZ(99), 1.0e-6);
+                }
+        }
+
+        @Test
+        public void testBatchPropagateTLETimeMajorInvalidGrid() {
+                BatchTLEPropagateRequest request = BatchTLEPropagateRequest.newBuilder()
+                                .setStartDate("2024-01-01T12:00:00Z")
+                                .setEndDate("2024-01-01T13:00:00Z")
+                                .build();
+
+                io.grpc.StatusRuntimeException error = Assertions.assertThrows(io.grpc.StatusRuntimeException.class,
+                                () -> orbitalService.batchPropagateTLETimeMajor(request)
+                                                .collect().asList()
+                                                .await().atMost(Duration.ofSeconds(10)));
+                Assertions.assertEquals(io.grpc.Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+        }
+
+
+        @Test
+        public void testBatchPropagateTLEStream() {
+                TLELines tle = TLELines.newBuilder()
+                                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                .build();
+
+                // Settings travel with the first chunk, later chunks only carry TLEs
+                List<BatchTLEPropagateRequest> chunks = new java.util.ArrayList<>();
+                for (int chunk = 0; chunk < 5; chunk++) {
+                        BatchTLEPropagateRequest.Builder builder = BatchTLEPropagateRequest.newBuilder();
+                        if (chunk == 0) {
+                                builder.setStartDate("2024-01-01T12:00:00Z")
+                                                .setEndDate("2024-01-01T13:00:00Z")
+                                                .setPositionCount(10)
+                                                .setOutputFrame(ReferenceFrame.TEME);
+                        }
+                        for (int i = 0; i < 20; i++) {
+                                builder.addTles(tle);
+                        }
+                        chunks.add(builder.build());
+                }
+
+                List<BatchTLEPropagateResponse> responses = orbitalService
+                                .batchPropagateTLEStream(io.smallrye.mutiny.Multi.createFrom().iterable(chunks))
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(60));
+
+                List<TLEPropagationResult> results = responses.stream()
+                                .flatMap(r -> r.getResultsList().stream())
+                                .toList();
+                Assertions.assertEquals(100, results.size());
+                for (TLEPropagationResult result : results) {
+                        Assertions.assertTrue(result.getError().isEmpty(), result.getError());
+                        Assertions.assertEquals(25544, result.getSatelliteId());
+                        Assertions.assertEquals(10, result.getPositionsCount());
+                }
+        }
+
+        @Test
+        public void testBatchPropagateTLEStreamWithoutFlowControl() throws Exception {
+                TLELines tle = TLELines.newBuilder()
+                                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                                .build();
+                List<BatchTLEPropagateResponse> responses = new CopyOnWriteArrayList<>();
+                CompletableFuture<Void> done = new CompletableFuture<>();
+
+                // A plain observer offers no flow control, so messages arrive while earlier ones still stream
+                StreamObserver<BatchTLEPropagateRequest> inbound = propagationGrpcService
+                                .batchPropagateTLEStream(new StreamObserver<>() {
+                                        @Override
+                                        public void onNext(BatchTLEPropagateResponse response) {
+                                                responses.add(response);
+                                        }
+
+                                        @Override
+                                        public void onError(Throwable t) {
+                                                done.completeExceptionally(t);
+                                        }
+
+                                        @Override
+                                        public void onCompleted() {
+                                                done.complete(null);
+                                        }
+                                });
+                for (int chunk = 0; chunk < 3; chunk++) {
+                        BatchTLEPropagateRequest.Builder builder = BatchTLEPropagateRequest.newBuilder();
+                        if (chunk == 0) {
+                                builder.setStartDate("2024-01-01T12:00:00Z")
+                                                .setEndDate("2024-01-01T13:00:00Z")
+                                                .setPositionCount(10)
+                                                .setOutputFrame(ReferenceFrame.TEME);
+                        }
+                        for (int i = 0; i < 20; i++) {
+                                builder.addTles(tle);
+                        }
+                        inbound.onNext(builder.build());
+                }
+                inbound.onCompleted();
+                done.get(60, TimeUnit.SECONDS);
+
+                long results = responses.stream().mapToInt(BatchTLEPropagateResponse::getResultsCount).sum();
+                Assertions.assertEquals(60, results);
+        }
+
+        @Test
+        public void testBatchPropagateTLEStreamInvalidGrid() {
+                BatchTLEPropagateRequest request = BatchTLEPropagateRequest.newBuilder()
+                                .setStartDate("invalid")
+                                .setEndDate("2024-01-01T13:00:00Z")
+                                .setPositionCount(10)
+                                .build();
+
+                Assertions.assertThrows(io.grpc.StatusRuntimeException.class, () -> orbitalService
+                                .batchPropagateTLEStream(io.smallrye.mutiny.Multi.createFrom().item(request))
+                                .collect().asList()
+                                .await().atMost(Duration.ofSeconds(30)));
+        }
 }
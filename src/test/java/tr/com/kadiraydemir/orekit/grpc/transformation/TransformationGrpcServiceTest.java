@@ -9,6 +9,7 @@ import tr.com.kadiraydemir.orekit.grpc.*;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @QuarkusTest
 public class TransformationGrpcServiceTest {
@@ -93,4 +94,108 @@ public class TransformationGrpcServiceTest {
             Assertions.assertNotEquals(0.0, response.getX(), 1.0);
         }
     }
+
+    @Test
+    public void testBatchTransformationMatchesSingleTransformInOrder() {
+        BatchTransformRequest request = BatchTransformRequest.newBuilder()
+                .setSourceFrame(ReferenceFrame.ITRF)
+                .setTargetFrame(ReferenceFrame.EME2000)
+                .setEpochIso("2024-01-01T12:00:00Z")
+                .addAllStateVectors(stateVectors(2500))
+                .build();
+
+        List<BatchTransformResponse> batchResponses = coordinateTransformService.batchTransform(request)
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(List.of(1000, 1000, 500),
+                batchResponses.stream().map(BatchTransformResponse::getResultsCount).toList());
+        List<TransformResponse> allResponses = new ArrayList<>();
+        for (BatchTransformResponse batchResponse : batchResponses) {
+            allResponses.addAll(batchResponse.getResultsList());
+        }
+        for (int k : new int[] {0, 999, 1000, 1777, 2499}) {
+            StateVector state = request.getStateVectors(k);
+            TransformResponse expected = coordinateTransformService.transform(TransformRequest.newBuilder()
+                    .setSourceFrame(ReferenceFrame.ITRF)
+                    .setTargetFrame(ReferenceFrame.EME2000)
+                    .setEpochIso("2024-01-01T12:00:00Z")
+                    .setX(state.getX())
+                    .setY(state.getY())
+                    .setZ(state.getZ())
+                    .setVx(state.getVx())
+                    .setVy(state.getVy())
+                    .setVz(state.getVz())
+                    .build()).await().atMost(Duration.ofSeconds(30));
+            TransformResponse actual = allResponses.get(k);
+            Assertions.assertEquals("", actual.getError());
+            Assertions.assertEquals(ReferenceFrame.ITRF, actual.getSourceFrame());
+            Assertions.assertEquals(ReferenceFrame.EME2000, actual.getTargetFrame());
+            Assertions.assertEquals(expected.getX(), actual.getX(), 1.0e-6);
+            Assertions.assertEquals(expected.getY(), actual.getY(), 1.0e-6);
+            Assertions.assertEquals(expected.getZ(), actual.getZ(), 1.0e-6);
+            Assertions.assertEquals(expected.getVx(), actual.getVx(), 1.0e-9);
+            Assertions.assertEquals(expected.getVy(), actual.getVy(), 1.0e-9);
+            Assertions.assertEquals(expected.getVz(), actual.getVz(), 1.0e-9);
+        }
+    }
+
+    @Test
+    public void testBatchTransformationInvalidEpochReportsEveryVector() {
+        BatchTransformRequest request = BatchTransformRequest.newBuilder()
+                .setSourceFrame(ReferenceFrame.TEME)
+                .setTargetFrame(ReferenceFrame.ITRF)
+                .setEpochIso("invalid-date-format")
+                .addAllStateVectors(stateVectors(3))
+                .build();
+
+        List<BatchTransformResponse> batchResponses = coordinateTransformService.batchTransform(request)
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(1, batchResponses.size());
+        Assertions.assertEquals(3, batchResponses.get(0).getResultsCount());
+        for (TransformResponse response : batchResponses.get(0).getResultsList()) {
+            Assertions.assertFalse(response.getError().isEmpty());
+            Assertions.assertEquals("invalid-date-format", response.getEpochIso());
+        }
+    }
+
+    @Test
+    public void testBatchTransformationLargeRequest() {
+        // Mostly transport time, the transform itself is resolved once and applied in bulk
+        int count = 100_000;
+        BatchTransformRequest request = BatchTransformRequest.newBuilder()
+                .setSourceFrame(ReferenceFrame.TEME)
+                .setTargetFrame(ReferenceFrame.ITRF)
+                .setEpochIso("2024-01-01T12:00:00Z")
+                .addAllStateVectors(stateVectors(count))
+                .build();
+
+        long start = System.nanoTime();
+        long received = coordinateTransformService.batchTransform(request)
+                .map(BatchTransformResponse::getResultsCount)
+                .collect().with(Collectors.summingLong(Integer::longValue))
+                .await().atMost(Duration.ofSeconds(60));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("BATCH_TRANSFORM_BENCHMARK: " + count + " vectors in " + elapsedMs + " ms");
+        Assertions.assertEquals(count, received);
+    }
+
+    private static List<StateVector> stateVectors(int count) {
+        List<StateVector> stateVectors = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            double angle = 1.0e-3 * k;
+            stateVectors.add(StateVector.newBuilder()
+                    .setX(7000000.0 * Math.cos(angle))
+                    .setY(7000000.0 * Math.sin(angle))
+                    .setZ(1000.0 * (k % 100))
+                    .setVx(-7500.0 * Math.sin(angle))
+                    .setVy(7500.0 * Math.cos(angle))
+                    .setVz(0.0)
+                    .build());
+        }
+        return stateVectors;
+    }
 }
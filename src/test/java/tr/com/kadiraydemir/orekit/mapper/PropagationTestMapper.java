@@ -1,6 +1,7 @@
 package tr.com.kadiraydemir.orekit.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 import org.mapstruct.ValueMapping;
 import tr.com.kadiraydemir.orekit.grpc.PropagationModel;
@@ -14,6 +15,7 @@ import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
 @Mapper(componentModel = "jakarta", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface PropagationTestMapper {
     PropagateRequest toDTO(tr.com.kadiraydemir.orekit.grpc.PropagateRequest source);
+    @Mapping(target = "outputFrames", source = "outputFramesList")
     TLEPropagateRequest toDTO(tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest source);
 
     @ValueMapping(source = "UNRECOGNIZED", target = "AUTO")
@@ -0,0 +1,96 @@
+package tr.com.kadiraydemir.orekit.service.cancellation;
+
+import io.grpc.Context;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
+import tr.com.kadiraydemir.orekit.model.AccessIntervalsRequest;
+import tr.com.kadiraydemir.orekit.model.GroundStation;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
+import tr.com.kadiraydemir.orekit.service.propagation.EpochGrid;
+import tr.com.kadiraydemir.orekit.service.propagation.PropagationService;
+import tr.com.kadiraydemir.orekit.service.visibility.VisibilityService;
+
+@QuarkusTest
+public class TaskCancellationMonitorTest {
+
+    private static final String LINE1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+    private static final String LINE2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+    @Inject
+    TaskCancellationMonitor cancellationMonitor;
+
+    @Inject
+    PropagationService propagationService;
+
+    @Inject
+    VisibilityService visibilityService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testActiveCallIsNotCancelled() {
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.run(() -> {
+            CancellationScope scope = cancellationMonitor.open("test");
+            Assertions.assertFalse(scope.isCancelled());
+            Assertions.assertDoesNotThrow(() -> scope.check(0.5));
+        });
+        context.cancel(null);
+    }
+
+    @Test
+    public void testCancelledCallStopsPropagation() {
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T00:00:00Z", "2024-01-31T00:00:00Z",
+                10_000, ReferenceFrameType.TEME);
+        double before = cancelledCount("propagation");
+
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.cancel(null);
+        context.run(() -> Assertions.assertThrows(TaskCancelledException.class,
+                () -> propagationService.propagateTLE(LINE1, LINE2, PropagationModelType.AUTO, null, grid)));
+
+        Assertions.assertEquals(before + 1, cancelledCount("propagation"));
+    }
+
+    @Test
+    public void testCancelledCallStopsEventSearch() {
+        AccessIntervalsRequest request = new AccessIntervalsRequest(LINE1, LINE2,
+                "2024-01-01T00:00:00Z", "2024-01-31T00:00:00Z",
+                new GroundStation("Ankara", 39.9334, 32.8597, 1000.0), 10.0);
+        double before = cancelledCount("visibility");
+
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.cancel(null);
+        context.run(() -> Assertions.assertThrows(TaskCancelledException.class,
+                () -> visibilityService.getAccessIntervals(request)));
+
+        Assertions.assertEquals(before + 1, cancelledCount("visibility"));
+    }
+
+    @Test
+    public void testCancellationFollowsPropagatedRunnable() throws Exception {
+        Context.CancellableContext context = Context.current().withCancellation();
+        boolean[] cancelled = new boolean[1];
+        Runnable work = context.call(() -> cancellationMonitor.propagate(
+                () -> cancelled[0] = cancellationMonitor.open("test").isCancelled()));
+        context.cancel(null);
+
+        Thread thread = new Thread(work);
+        thread.start();
+        thread.join();
+
+        Assertions.assertTrue(cancelled[0]);
+    }
+
+    private double cancelledCount(String task) {
+        Counter counter = registry.find("orekit.tasks.cancelled").tag("task", task).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
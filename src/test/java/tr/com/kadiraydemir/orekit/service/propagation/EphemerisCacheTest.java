@@ -0,0 +1,232 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hipparchus.util.FastMath;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import tr.com.kadiraydemir.orekit.grpc.PropagationModel;
+import tr.com.kadiraydemir.orekit.grpc.ReferenceFrame;
+import tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest;
+import tr.com.kadiraydemir.orekit.mapper.PropagationTestMapper;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+
+import java.time.Duration;
+
+@QuarkusTest
+public class EphemerisCacheTest {
+
+    private static final String LINE1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+    private static final String LINE2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+    @Inject
+    PropagationService propagationService;
+
+    @Inject
+    PropagationTestMapper propagationTestMapper;
+
+    @Inject
+    EphemerisCache ephemerisCache;
+
+    @BeforeEach
+    public void clearCache() {
+        ephemerisCache.clear();
+    }
+
+    @Test
+    public void testRepeatedWindowIsServedFromCache() {
+        TLEPropagateRequest.Builder request = window("2024-01-01T00:00:00Z", "2024-01-01T06:00:00Z", 2161);
+
+        double hits = ephemerisCache.getHitCount();
+        double misses = ephemerisCache.getMissCount();
+        PackedEphemerisResult first = propagate(request.setInterpolationErrorBudgetM(1.0));
+        PackedEphemerisResult second = propagate(request.setInterpolationErrorBudgetM(1.0));
+
+        Assertions.assertEquals(misses + 1, ephemerisCache.getMissCount());
+        Assertions.assertEquals(hits + 1, ephemerisCache.getHitCount());
+        Assertions.assertEquals(1, ephemerisCache.size());
+        Assertions.assertTrue(ephemerisCache.getHitRatio() > 0);
+        Assertions.assertArrayEquals(first.x(), second.x());
+
+        // Within the cache tolerance of the exact positions
+        PackedEphemerisResult exact = propagate(request.setInterpolationErrorBudgetM(0));
+        Assertions.assertTrue(second.maxInterpolationError() > 0);
+        Assertions.assertTrue(second.maxInterpolationError() <= ephemerisCache.getTolerance());
+        assertClose(exact, 0, second, 0, second.x().length, 2 * ephemerisCache.getTolerance());
+    }
+
+    @Test
+    public void testOverlappingWindowExtendsCachedSpan() {
+        propagate(window("2024-01-01T00:00:00Z", "2024-01-01T06:00:00Z", 361).setInterpolationErrorBudgetM(1.0));
+
+        double extensions = ephemerisCache.getExtensionCount();
+        PackedEphemerisResult extended = propagate(window("2024-01-01T03:00:00Z", "2024-01-01T09:00:00Z", 361)
+                .setInterpolationErrorBudgetM(1.0));
+        Assertions.assertEquals(extensions + 1, ephemerisCache.getExtensionCount());
+
+        // The whole span is now cached
+        double hits = ephemerisCache.getHitCount();
+        PackedEphemerisResult whole = propagate(window("2024-01-01T00:00:00Z", "2024-01-01T09:00:00Z", 541)
+                .setInterpolationErrorBudgetM(1.0));
+        Assertions.assertEquals(hits + 1, ephemerisCache.getHitCount());
+
+        PackedEphemerisResult exact = propagate(window("2024-01-01T03:00:00Z", "2024-01-01T09:00:00Z", 361));
+        assertClose(exact, 0, extended, 0, 361, 2 * ephemerisCache.getTolerance());
+        assertClose(exact, 0, whole, 180, 361, 2 * ephemerisCache.getTolerance());
+    }
+
+    @Test
+    public void testNumericalTrajectoryIsCached() {
+        TLEPropagateRequest.Builder request = window("2024-01-01T12:00:00Z", "2024-01-01T14:00:00Z", 121)
+                .setModel(PropagationModel.NUMERICAL);
+
+        PackedEphemerisResult exact = propagate(request.setInterpolationErrorBudgetM(0));
+        propagate(request.setInterpolationErrorBudgetM(1.0));
+        double hits = ephemerisCache.getHitCount();
+        PackedEphemerisResult cached = propagate(request.setInterpolationErrorBudgetM(1.0));
+
+        Assertions.assertEquals(hits + 1, ephemerisCache.getHitCount());
+        assertClose(exact, 0, cached, 0, 121, 2 * ephemerisCache.getTolerance());
+    }
+
+    @Test
+    public void testBudgetBelowToleranceBypassesCache() {
+        double requests = ephemerisCache.getHitCount() + ephemerisCache.getExtensionCount()
+                + ephemerisCache.getMissCount();
+
+        propagate(window("2024-01-01T00:00:00Z", "2024-01-01T01:00:00Z", 61)
+                .setInterpolationErrorBudgetM(ephemerisCache.getTolerance() / 2));
+
+        Assertions.assertEquals(requests, ephemerisCache.getHitCount() + ephemerisCache.getExtensionCount()
+                + ephemerisCache.getMissCount());
+        Assertions.assertEquals(0, ephemerisCache.size());
+    }
+
+    @Test
+    public void testByteBudgetEvictsLeastRecentlyUsed() {
+        EphemerisCache cache = new EphemerisCache();
+        cache.registry = new SimpleMeterRegistry();
+        cache.tolerance = 0.1;
+        // Room for two trajectories of 101 nodes
+        cache.maxBytes = 2 * (128 + 101 * 6 * 8);
+        cache.init();
+
+        AbsoluteDate start = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        AbsoluteDate end = start.shiftedBy(1000.0);
+        EphemerisCache.Key a = key("A");
+        EphemerisCache.Key b = key("B");
+        EphemerisCache.Key c = key("C");
+
+        cache.getTrajectory(a, 10.0, start, end, 1.0, EphemerisCacheTest::circularNodes);
+        cache.getTrajectory(b, 10.0, start, end, 1.0, EphemerisCacheTest::circularNodes);
+        // Touch A so that B is the least recently used
+        cache.getTrajectory(a, 10.0, start, end, 1.0, EphemerisCacheTest::circularNodes);
+        cache.getTrajectory(c, 10.0, start, end, 1.0, EphemerisCacheTest::circularNodes);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertTrue(cache.getBytes() <= cache.maxBytes);
+        double misses = cache.getMissCount();
+        cache.getTrajectory(a, 10.0, start, end, 1.0, EphemerisCacheTest::circularNodes);
+        Assertions.assertEquals(misses, cache.getMissCount());
+        cache.getTrajectory(b, 10.0, start, end, 1.0, EphemerisCacheTest::circularNodes);
+        Assertions.assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testWindowOverByteBudgetIsNotComputed() {
+        EphemerisCache cache = new EphemerisCache();
+        cache.registry = new SimpleMeterRegistry();
+        cache.tolerance = 0.1;
+        // Room for about 1000 nodes
+        cache.maxBytes = 1000 * 6 * 8;
+        cache.init();
+
+        AbsoluteDate start = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        EphemerisCache.NodeSource failing = (first, step, count) -> {
+            throw new AssertionError("Computed " + count + " nodes");
+        };
+
+        // A century at a 10 s step, well past the array limits too
+        Assertions.assertNull(cache.getTrajectory(key("A"), 10.0, start, start.shiftedBy(3.2e9), 1.0, failing));
+        Assertions.assertNull(cache.getTrajectory(key("A"), 10.0, start, start.shiftedBy(20_000.0), 1.0, failing));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testTrajectoryOverBudgetIsNotCached() {
+        EphemerisCache cache = new EphemerisCache();
+        cache.registry = new SimpleMeterRegistry();
+        cache.tolerance = 0.1;
+        cache.maxBytes = 1 << 20;
+        cache.init();
+
+        AbsoluteDate start = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        AbsoluteDate end = start.shiftedBy(6000.0);
+        int[] computed = new int[1];
+        EphemerisCache.NodeSource counting = (first, step, count) -> {
+            computed[0]++;
+            return circularNodes(first, step, count);
+        };
+
+        // Ten minute nodes on a 100 minute orbit miss a 1 m budget by far
+        Assertions.assertNull(cache.getTrajectory(key("A"), 600.0, start, end, 1.0, counting));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getBytes());
+
+        // Not computed again for the same budget, only for one it might meet
+        Assertions.assertNull(cache.getTrajectory(key("A"), 600.0, start, end, 1.0, counting));
+        Assertions.assertEquals(1, computed[0]);
+        EphemerisCache.Trajectory coarse = cache.getTrajectory(key("A"), 600.0, start, end, 1.0e6, counting);
+        Assertions.assertEquals(2, computed[0]);
+        Assertions.assertTrue(coarse.maxError() > 1.0);
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    private PackedEphemerisResult propagate(TLEPropagateRequest.Builder request) {
+        return propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request.build()))
+                .toUni().await().atMost(Duration.ofSeconds(30));
+    }
+
+    private static TLEPropagateRequest.Builder window(String start, String end, int positionCount) {
+        return TLEPropagateRequest.newBuilder()
+                .setTleLine1(LINE1)
+                .setTleLine2(LINE2)
+                .setStartDate(start)
+                .setEndDate(end)
+                .setPositionCount(positionCount)
+                .setOutputFrame(ReferenceFrame.TEME);
+    }
+
+    private static void assertClose(PackedEphemerisResult expected, int expectedFrom,
+            PackedEphemerisResult actual, int actualFrom, int count, double tolerance) {
+        for (int i = 0; i < count; i++) {
+            Assertions.assertEquals(expected.x()[expectedFrom + i], actual.x()[actualFrom + i], tolerance);
+            Assertions.assertEquals(expected.y()[expectedFrom + i], actual.y()[actualFrom + i], tolerance);
+            Assertions.assertEquals(expected.z()[expectedFrom + i], actual.z()[actualFrom + i], tolerance);
+        }
+    }
+
+    private static EphemerisCache.Key key(String name) {
+        return EphemerisCache.Key.of(name, name, PropagationModelType.SGP4, null, "TEME");
+    }
+
+    // Circular orbit of 7000 km with a 100 minute period
+    private static double[] circularNodes(AbsoluteDate first, double step, int count) {
+        double radius = 7.0e6;
+        double rate = 2 * FastMath.PI / 6000.0;
+        double[] nodes = new double[6 * count];
+        for (int i = 0; i < count; i++) {
+            double angle = rate * i * step;
+            nodes[6 * i] = radius * FastMath.cos(angle);
+            nodes[6 * i + 1] = radius * FastMath.sin(angle);
+            nodes[6 * i + 3] = -radius * rate * FastMath.sin(angle);
+            nodes[6 * i + 4] = radius * rate * FastMath.cos(angle);
+        }
+        return nodes;
+    }
+}
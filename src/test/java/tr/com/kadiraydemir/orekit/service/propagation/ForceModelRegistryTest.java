@@ -0,0 +1,87 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.orekit.forces.ForceModel;
+import org.orekit.forces.gravity.HolmesFeatherstoneAttractionModel;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTForceModel;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTTesseral;
+import org.orekit.propagation.semianalytical.dsst.forces.DSSTZonal;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
+
+import java.util.List;
+
+@QuarkusTest
+public class ForceModelRegistryTest {
+
+    @Inject
+    ForceModelRegistry forceModelRegistry;
+
+    @Test
+    public void testSameKeyReturnsSameStack() {
+        List<ForceModel> first = forceModelRegistry.getForceModels(ForceModelRegistry.PROPAGATION_DEFAULT);
+        List<ForceModel> second = forceModelRegistry.getForceModels(new ForceModelRegistry.Key(10, 10, false, false));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, first.size());
+        Assertions.assertTrue(first.get(0) instanceof HolmesFeatherstoneAttractionModel);
+    }
+
+    @Test
+    public void testDifferentKeysReturnDifferentStacks() {
+        List<ForceModel> low = forceModelRegistry.getForceModels(new ForceModelRegistry.Key(4, 4, false, false));
+        List<ForceModel> high = forceModelRegistry.getForceModels(new ForceModelRegistry.Key(8, 8, false, false));
+
+        Assertions.assertNotSame(low, high);
+    }
+
+    @Test
+    public void testStackIsImmutable() {
+        List<ForceModel> stack = forceModelRegistry.getForceModels(ForceModelRegistry.PROPAGATION_DEFAULT);
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> stack.clear());
+    }
+
+    @Test
+    public void testDsstStacksAreNotShared() {
+        List<DSSTForceModel> first = forceModelRegistry.createDsstForceModels(ForceModelRegistry.PROPAGATION_DEFAULT);
+        List<DSSTForceModel> second = forceModelRegistry.createDsstForceModels(ForceModelRegistry.PROPAGATION_DEFAULT);
+
+        Assertions.assertEquals(2, first.size());
+        Assertions.assertTrue(first.get(0) instanceof DSSTZonal);
+        Assertions.assertTrue(first.get(1) instanceof DSSTTesseral);
+        // Short-period coefficients live in the force models, so each propagator gets its own
+        Assertions.assertNotSame(first.get(0), second.get(0));
+        // The gravity field itself is loaded once
+        Assertions.assertSame(((DSSTZonal) first.get(0)).getProvider(), ((DSSTZonal) second.get(0)).getProvider());
+    }
+
+    @Test
+    public void testDsstStackForLowDegreeField() {
+        List<DSSTForceModel> stack = forceModelRegistry.createDsstForceModels(new ForceModelRegistry.Key(4, 4, false, false));
+
+        Assertions.assertEquals(2, stack.size());
+    }
+
+    @Test
+    public void testDegreeBeyondLoadedFieldIsRejected() {
+        Assertions.assertThrows(InvalidArgumentException.class,
+                () -> forceModelRegistry.getForceModels(new ForceModelRegistry.Key(10_000, 10_000, false, false)));
+        Assertions.assertThrows(InvalidArgumentException.class,
+                () -> forceModelRegistry.createDsstForceModels(new ForceModelRegistry.Key(4, 6, false, false)));
+    }
+
+    @Test
+    public void testStacksAreEvictedBeyondMaxEntries() {
+        List<ForceModel> first = forceModelRegistry.getForceModels(new ForceModelRegistry.Key(2, 0, false, false));
+        for (int degree = 2; degree <= 6; degree++) {
+            for (int order = 0; order <= degree; order++) {
+                forceModelRegistry.getForceModels(new ForceModelRegistry.Key(degree, order, false, true));
+            }
+        }
+
+        Assertions.assertNotSame(first, forceModelRegistry.getForceModels(new ForceModelRegistry.Key(2, 0, false, false)));
+    }
+}
@@ -0,0 +1,146 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.grpc.Context;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import tr.com.kadiraydemir.orekit.exception.TaskCancelledException;
+import tr.com.kadiraydemir.orekit.grpc.PropagationModel;
+import tr.com.kadiraydemir.orekit.grpc.ReferenceFrame;
+import tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest;
+import tr.com.kadiraydemir.orekit.mapper.PropagationTestMapper;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.service.frame.FrameService;
+
+import java.time.Duration;
+
+@QuarkusTest
+public class NumericalCheckpointStoreTest {
+
+    private static final String LINE1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+    private static final String LINE2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+    @Inject
+    PropagationService propagationService;
+
+    @Inject
+    PropagationTestMapper propagationTestMapper;
+
+    @Inject
+    NumericalCheckpointStore checkpointStore;
+
+    @Inject
+    PropagatorFactoryService propagatorFactoryService;
+
+    @Inject
+    FrameService frameService;
+
+    @BeforeEach
+    public void clearCheckpoints() {
+        checkpointStore.clear();
+    }
+
+    @Test
+    public void testRepeatedWindowResumesFromCheckpoint() {
+        TLEPropagateRequest.Builder request = window("2024-01-03T12:00:00Z", "2024-01-03T14:00:00Z");
+
+        double hits = checkpointStore.getHitCount();
+        double misses = checkpointStore.getMissCount();
+        long coldStart = System.nanoTime();
+        PackedEphemerisResult cold = propagate(request);
+        long coldTime = System.nanoTime() - coldStart;
+
+        Assertions.assertEquals(misses + 1, checkpointStore.getMissCount());
+        // Checkpoints one and two days after the epoch
+        Assertions.assertEquals(2, checkpointStore.stateCount());
+
+        long warmStart = System.nanoTime();
+        PackedEphemerisResult warm = propagate(request);
+        long warmTime = System.nanoTime() - warmStart;
+
+        Assertions.assertEquals(hits + 1, checkpointStore.getHitCount());
+        System.out.printf("Numerical window 2.5 days after epoch: cold %d ms, from checkpoint %d ms%n",
+                coldTime / 1_000_000, warmTime / 1_000_000);
+        assertClose(cold, warm, 10.0);
+    }
+
+    @Test
+    public void testLaterWindowExtendsCheckpoints() {
+        propagate(window("2024-01-03T12:00:00Z", "2024-01-03T13:00:00Z"));
+
+        double hits = checkpointStore.getHitCount();
+        PackedEphemerisResult resumed = propagate(window("2024-01-05T06:00:00Z", "2024-01-05T07:00:00Z"));
+        Assertions.assertEquals(hits + 1, checkpointStore.getHitCount());
+        Assertions.assertEquals(4, checkpointStore.stateCount());
+
+        checkpointStore.clear();
+        PackedEphemerisResult fromEpoch = propagate(window("2024-01-05T06:00:00Z", "2024-01-05T07:00:00Z"));
+        assertClose(fromEpoch, resumed, 10.0);
+    }
+
+    @Test
+    public void testCheckpointsStopAtMaxPerSatellite() {
+        // The test profile keeps four checkpoints per satellite, days one to four
+        propagate(window("2024-01-07T06:00:00Z", "2024-01-07T07:00:00Z"));
+        Assertions.assertEquals(4, checkpointStore.stateCount());
+
+        double hits = checkpointStore.getHitCount();
+        propagate(window("2024-01-07T06:00:00Z", "2024-01-07T07:00:00Z"));
+        Assertions.assertEquals(hits + 1, checkpointStore.getHitCount());
+        Assertions.assertEquals(4, checkpointStore.stateCount());
+    }
+
+    @Test
+    public void testWindowWithinFirstIntervalIsNotCheckpointed() {
+        double requests = checkpointStore.getHitCount() + checkpointStore.getMissCount();
+
+        propagate(window("2024-01-01T06:00:00Z", "2024-01-01T07:00:00Z"));
+
+        Assertions.assertEquals(requests, checkpointStore.getHitCount() + checkpointStore.getMissCount());
+        Assertions.assertEquals(0, checkpointStore.stateCount());
+    }
+
+    @Test
+    public void testCancelledCallStopsIntegrationToWindowStart() {
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.cancel(null);
+
+        // The leg from the epoch to the window start crosses two checkpoints
+        context.run(() -> Assertions.assertThrows(TaskCancelledException.class,
+                () -> propagatorFactoryService.leasePropagator(LINE1, LINE2, PropagationModelType.NUMERICAL,
+                        IntegratorType.DORMAND_PRINCE_853, frameService.getTemeFrame(),
+                        new AbsoluteDate("2024-01-03T12:00:00Z", TimeScalesFactory.getUTC()))));
+        Assertions.assertEquals(0, checkpointStore.stateCount());
+    }
+
+    private PackedEphemerisResult propagate(TLEPropagateRequest.Builder request) {
+        return propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request.build()))
+                .toUni().await().atMost(Duration.ofSeconds(60));
+    }
+
+    private static TLEPropagateRequest.Builder window(String start, String end) {
+        return TLEPropagateRequest.newBuilder()
+                .setTleLine1(LINE1)
+                .setTleLine2(LINE2)
+                .setModel(PropagationModel.NUMERICAL)
+                .setStartDate(start)
+                .setEndDate(end)
+                .setPositionCount(61)
+                .setOutputFrame(ReferenceFrame.TEME);
+    }
+
+    private static void assertClose(PackedEphemerisResult expected, PackedEphemerisResult actual, double tolerance) {
+        Assertions.assertEquals(expected.x().length, actual.x().length);
+        for (int i = 0; i < expected.x().length; i++) {
+            Assertions.assertEquals(expected.x()[i], actual.x()[i], tolerance);
+            Assertions.assertEquals(expected.y()[i], actual.y()[i], tolerance);
+            Assertions.assertEquals(expected.z()[i], actual.z()[i], tolerance);
+        }
+    }
+}
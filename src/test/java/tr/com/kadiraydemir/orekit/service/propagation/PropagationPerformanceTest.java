@@ -2,13 +2,26 @@ package tr.com.kadiraydemir.orekit.service.propagation;
 
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.PVCoordinates;
+import tr.com.kadiraydemir.orekit.grpc.PropagationModel;
 import tr.com.kadiraydemir.orekit.grpc.ReferenceFrame;
 import tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest;
 import tr.com.kadiraydemir.orekit.mapper.PropagationTestMapper;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
 import tr.com.kadiraydemir.orekit.model.TleResult;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -25,6 +38,12 @@ public class PropagationPerformanceTest {
     @Inject
     PropagationTestMapper propagationTestMapper;
 
+    @Inject
+    PropagatorFactoryService propagatorFactoryService;
+
+    @Inject
+    EphemerisCache ephemerisCache;
+
     @Test
     public void testConcurrentPropagation() throws InterruptedException {
         int threadCount = 10;
@@ -66,4 +85,300 @@ public class PropagationPerformanceTest {
 
         executor.shutdown();
     }
+
+    @Test
+    public void testNumericalSinglePassBenchmark() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        int positionCount = 361;
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T18:00:00Z")
+                .setPositionCount(positionCount)
+                .setModel(PropagationModel.NUMERICAL)
+                .setOutputFrame(ReferenceFrame.TEME)
+                .build();
+
+        // Per-point approach: the integrator is restarted at every output epoch
+        long perPointStart = System.nanoTime();
+        Propagator propagator = propagatorFactoryService.createPropagator(new TLE(line1, line2),
+                PropagationModelType.NUMERICAL, IntegratorType.DORMAND_PRINCE_853, FramesFactory.getTEME());
+        AbsoluteDate startDate = new AbsoluteDate("2024-01-01T12:00:00Z", TimeScalesFactory.getUTC());
+        double step = 6 * 3600.0 / (positionCount - 1);
+        Vector3D[] perPoint = new Vector3D[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            perPoint[i] = propagator.getPosition(startDate.shiftedBy(i * step), FramesFactory.getTEME());
+        }
+        long perPointMs = (System.nanoTime() - perPointStart) / 1_000_000;
+
+        // Single pass: one integration over [start, end], epochs interpolated from the dense output
+        long singlePassStart = System.nanoTime();
+        TleResult result = propagationService.propagateTLE(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(30));
+        long singlePassMs = (System.nanoTime() - singlePassStart) / 1_000_000;
+
+        Assertions.assertEquals(positionCount, result.positions().size());
+        double maxDifference = 0;
+        for (int i = 0; i < positionCount; i++) {
+            TleResult.PositionPointResult point = result.positions().get(i);
+            maxDifference = Math.max(maxDifference,
+                    Vector3D.distance(perPoint[i], new Vector3D(point.x(), point.y(), point.z())));
+        }
+
+        System.out.println("NUMERICAL_BENCHMARK: Points: " + positionCount);
+        System.out.println("NUMERICAL_BENCHMARK: Per-point: " + perPointMs + " ms");
+        System.out.println("NUMERICAL_BENCHMARK: Single pass: " + singlePassMs + " ms");
+        System.out.println("NUMERICAL_BENCHMARK: Max difference: " + maxDifference + " m");
+
+        // Both approaches integrate within the same tolerances
+        Assertions.assertTrue(maxDifference < 10.0, "Max difference " + maxDifference + " m");
+    }
+
+    @Test
+    public void testDsstVersusNumericalBenchmark() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        int positionCount = 721;
+
+        // 30 days, one position every hour
+        TLEPropagateRequest.Builder request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2024-01-31T00:00:00Z")
+                .setPositionCount(positionCount)
+                .setOutputFrame(ReferenceFrame.TEME);
+
+        // Warm up both models on a short window, so that class loading is not measured
+        for (PropagationModel model : List.of(PropagationModel.NUMERICAL, PropagationModel.DSST)) {
+            propagationService.propagateTLE(propagationTestMapper.toDTO(request.clone()
+                    .setModel(model).setEndDate("2024-01-02T00:00:00Z").setPositionCount(10).build()))
+                    .toUni().await().atMost(Duration.ofMinutes(1));
+        }
+
+        long numericalStart = System.nanoTime();
+        TleResult numerical = propagationService.propagateTLE(propagationTestMapper.toDTO(
+                request.setModel(PropagationModel.NUMERICAL).build()))
+                .toUni().await().atMost(Duration.ofMinutes(2));
+        long numericalMs = (System.nanoTime() - numericalStart) / 1_000_000;
+
+        long dsstStart = System.nanoTime();
+        TleResult dsst = propagationService.propagateTLE(propagationTestMapper.toDTO(
+                request.setModel(PropagationModel.DSST).build()))
+                .toUni().await().atMost(Duration.ofMinutes(2));
+        long dsstMs = (System.nanoTime() - dsstStart) / 1_000_000;
+
+        Assertions.assertEquals(positionCount, numerical.positions().size());
+        Assertions.assertEquals(positionCount, dsst.positions().size());
+        double maxDifference = 0;
+        for (int i = 0; i < positionCount; i++) {
+            TleResult.PositionPointResult n = numerical.positions().get(i);
+            TleResult.PositionPointResult d = dsst.positions().get(i);
+            maxDifference = Math.max(maxDifference,
+                    Vector3D.distance(new Vector3D(n.x(), n.y(), n.z()), new Vector3D(d.x(), d.y(), d.z())));
+        }
+
+        System.out.println("DSST_BENCHMARK: Points: " + positionCount + " over 30 days");
+        System.out.println("DSST_BENCHMARK: NUMERICAL: " + numericalMs + " ms");
+        System.out.println("DSST_BENCHMARK: DSST: " + dsstMs + " ms");
+        System.out.println("DSST_BENCHMARK: Max difference: " + maxDifference + " m");
+
+        Assertions.assertTrue(maxDifference < 10_000.0, "Max difference " + maxDifference + " m");
+    }
+
+    @Test
+    public void testInterpolatedSgp4Benchmark() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        int positionCount = 86_401;
+        double errorBudget = 1.0;
+
+        // One day, one position every second
+        TLEPropagateRequest.Builder request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2024-01-02T00:00:00Z")
+                .setPositionCount(positionCount)
+                .setOutputFrame(ReferenceFrame.TEME);
+
+        // Warm up both paths
+        for (double budget : new double[] { 0, errorBudget }) {
+            propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request.clone()
+                    .setInterpolationErrorBudgetM(budget).build()))
+                    .toUni().await().atMost(Duration.ofMinutes(1));
+        }
+
+        long exactStart = System.nanoTime();
+        PackedEphemerisResult exact = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(
+                request.setInterpolationErrorBudgetM(0).build()))
+                .toUni().await().atMost(Duration.ofMinutes(1));
+        long exactMs = (System.nanoTime() - exactStart) / 1_000_000;
+
+        // Cold request: the trajectory nodes are computed, not taken from the warm-up
+        ephemerisCache.clear();
+        long interpolatedStart = System.nanoTime();
+        PackedEphemerisResult interpolated = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(
+                request.setInterpolationErrorBudgetM(errorBudget).build()))
+                .toUni().await().atMost(Duration.ofMinutes(1));
+        long interpolatedMs = (System.nanoTime() - interpolatedStart) / 1_000_000;
+
+        long cachedStart = System.nanoTime();
+        PackedEphemerisResult cached = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(
+                request.build()))
+                .toUni().await().atMost(Duration.ofMinutes(1));
+        long cachedMs = (System.nanoTime() - cachedStart) / 1_000_000;
+
+        double maxDifference = 0;
+        for (int i = 0; i < positionCount; i++) {
+            maxDifference = Math.max(maxDifference, Vector3D.distance(
+                    new Vector3D(exact.x()[i], exact.y()[i], exact.z()[i]),
+                    new Vector3D(interpolated.x()[i], interpolated.y()[i], interpolated.z()[i])));
+        }
+
+        System.out.println("INTERPOLATION_BENCHMARK: Points: " + positionCount);
+        System.out.println("INTERPOLATION_BENCHMARK: Exact: " + exactMs + " ms");
+        System.out.println("INTERPOLATION_BENCHMARK: Interpolated: " + interpolatedMs + " ms");
+        System.out.println("INTERPOLATION_BENCHMARK: Cached: " + cachedMs + " ms");
+        System.out.println("INTERPOLATION_BENCHMARK: Reported error: " + interpolated.maxInterpolationError() + " m");
+        System.out.println("INTERPOLATION_BENCHMARK: Max difference: " + maxDifference + " m");
+
+        Assertions.assertEquals(0.0, exact.maxInterpolationError());
+        Assertions.assertTrue(interpolated.maxInterpolationError() > 0);
+        Assertions.assertTrue(interpolated.maxInterpolationError() <= errorBudget);
+        // The midpoint estimate tracks the actual error closely
+        Assertions.assertTrue(maxDifference <= 1.1 * interpolated.maxInterpolationError(),
+                "Max difference " + maxDifference + " m");
+        Assertions.assertArrayEquals(interpolated.x(), cached.x());
+    }
+
+    @Test
+    public void testBulkSgp4AllocationBenchmark() {
+        // ISS TLE
+        String line1 = "1 25544U 98067A   23355.72295190  .00016622  00000+0  30613-3 0  9997";
+        String line2 = "2 25544  51.6413 259.6247 0001395 348.8188 126.9748 15.49571329431105";
+        int pointCount = 1_000_000;
+        AbsoluteDate start = new AbsoluteDate("2023-12-21T12:00:00Z", TimeScalesFactory.getUTC());
+        double[] offsets = new double[pointCount];
+        for (int k = 0; k < pointCount; k++) {
+            offsets[k] = 0.1 * k;
+        }
+        double[] positions = new double[3 * pointCount];
+        double[] velocities = new double[3 * pointCount];
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        TLEPropagator propagator = TLEPropagator.selectExtrapolator(new TLE(line1, line2));
+
+        // Warm up both paths
+        for (int k = 0; k < 100_000; k++) {
+            propagator.getPVCoordinates(start.shiftedBy(offsets[k]));
+        }
+        propagationService.propagateTLEBulk(line1, line2, PropagationModelType.SGP4, start, offsets, 100_000,
+                positions, velocities);
+
+        // Per-point path: a date and a state vector for every point
+        long perPointBytes = threads.getThreadAllocatedBytes(threadId);
+        long perPointStart = System.nanoTime();
+        for (int k = 0; k < pointCount; k++) {
+            PVCoordinates pv = propagator.getPVCoordinates(start.shiftedBy(offsets[k]));
+            positions[3 * k] = pv.getPosition().getX();
+            positions[3 * k + 1] = pv.getPosition().getY();
+            positions[3 * k + 2] = pv.getPosition().getZ();
+            velocities[3 * k] = pv.getVelocity().getX();
+            velocities[3 * k + 1] = pv.getVelocity().getY();
+            velocities[3 * k + 2] = pv.getVelocity().getZ();
+        }
+        long perPointMs = (System.nanoTime() - perPointStart) / 1_000_000;
+        perPointBytes = threads.getThreadAllocatedBytes(threadId) - perPointBytes;
+        double[] perPointPositions = positions.clone();
+
+        // Bulk path: the same points written into the reused buffers
+        long bulkBytes = threads.getThreadAllocatedBytes(threadId);
+        long bulkStart = System.nanoTime();
+        propagationService.propagateTLEBulk(line1, line2, PropagationModelType.SGP4, start, offsets, pointCount,
+                positions, velocities);
+        long bulkMs = (System.nanoTime() - bulkStart) / 1_000_000;
+        bulkBytes = threads.getThreadAllocatedBytes(threadId) - bulkBytes;
+
+        double maxDifference = 0;
+        for (int k = 0; k < 3 * pointCount; k++) {
+            maxDifference = Math.max(maxDifference, Math.abs(positions[k] - perPointPositions[k]));
+        }
+
+        System.out.println("BULK_SGP4_BENCHMARK: Points: " + pointCount);
+        System.out.println("BULK_SGP4_BENCHMARK: Per-point: " + perPointMs + " ms, "
+                + perPointBytes / pointCount + " bytes/point");
+        System.out.println("BULK_SGP4_BENCHMARK: Bulk: " + bulkMs + " ms, " + bulkBytes + " bytes in total");
+        System.out.println("BULK_SGP4_BENCHMARK: Max difference: " + maxDifference + " m");
+
+        // Only the lease is allocated, whatever the number of points
+        Assertions.assertTrue(bulkBytes < pointCount, "Bulk allocated " + bulkBytes + " bytes");
+        Assertions.assertTrue(perPointBytes > 50L * pointCount, "Per-point allocated " + perPointBytes + " bytes");
+        Assertions.assertTrue(maxDifference < 1.0e-3, "Max difference " + maxDifference + " m");
+    }
+
+    @Test
+    public void testSoaSgp4CatalogSnapshotBenchmark() {
+        int satelliteCount = 10_000;
+        int epochCount = 50;
+        List<TLE> catalog = Sgp4BatchTest.catalog(satelliteCount);
+        AbsoluteDate start = new AbsoluteDate("2024-01-02T00:00:00Z", TimeScalesFactory.getUTC());
+        List<TLEPropagator> propagators = catalog.stream().map(TLEPropagator::selectExtrapolator).toList();
+        Sgp4Batch batch = Sgp4BatchTest.load(catalog, start);
+        double[] positions = new double[3 * satelliteCount];
+        double[] velocities = new double[3 * satelliteCount];
+        double[] perSatellitePositions = new double[3 * satelliteCount];
+
+        // Warm up both paths
+        for (int epoch = 0; epoch < 20; epoch++) {
+            AbsoluteDate date = start.shiftedBy(-60.0 * epoch);
+            for (TLEPropagator propagator : propagators) {
+                propagator.getPVCoordinates(date);
+            }
+            batch.evaluate(date, 0, satelliteCount, positions, velocities);
+        }
+
+        // Per-satellite path: one TLEPropagator call per satellite and epoch
+        long perSatelliteStart = System.nanoTime();
+        for (int epoch = 0; epoch < epochCount; epoch++) {
+            AbsoluteDate date = start.shiftedBy(60.0 * epoch);
+            for (int k = 0; k < satelliteCount; k++) {
+                PVCoordinates pv = propagators.get(k).getPVCoordinates(date);
+                perSatellitePositions[3 * k] = pv.getPosition().getX();
+                perSatellitePositions[3 * k + 1] = pv.getPosition().getY();
+                perSatellitePositions[3 * k + 2] = pv.getPosition().getZ();
+            }
+        }
+        long perSatelliteNs = System.nanoTime() - perSatelliteStart;
+
+        // Structure-of-arrays path: the whole catalog evaluated stage by stage at each epoch
+        long batchStart = System.nanoTime();
+        for (int epoch = 0; epoch < epochCount; epoch++) {
+            batch.evaluate(start.shiftedBy(60.0 * epoch), 0, satelliteCount, positions, velocities);
+        }
+        long batchNs = System.nanoTime() - batchStart;
+
+        // Both loops end on the last epoch
+        double maxDifference = 0;
+        for (int k = 0; k < 3 * satelliteCount; k++) {
+            if (!Double.isNaN(perSatellitePositions[k])) {
+                maxDifference = Math.max(maxDifference, Math.abs(positions[k] - perSatellitePositions[k]));
+            }
+        }
+        double points = (double) satelliteCount * epochCount;
+
+        System.out.println("SOA_SGP4_BENCHMARK: Satellites: " + satelliteCount + ", epochs: " + epochCount);
+        System.out.println("SOA_SGP4_BENCHMARK: Per-satellite: " + perSatelliteNs / 1_000_000 + " ms, "
+                + Math.round(points * 1.0e9 / perSatelliteNs) + " states/s");
+        System.out.println("SOA_SGP4_BENCHMARK: Batch: " + batchNs / 1_000_000 + " ms, "
+                + Math.round(points * 1.0e9 / batchNs) + " states/s");
+        System.out.println("SOA_SGP4_BENCHMARK: Speedup: " + (double) perSatelliteNs / batchNs);
+        System.out.println("SOA_SGP4_BENCHMARK: Max difference: " + maxDifference + " m");
+
+        Assertions.assertTrue(maxDifference < 1.0e-6, "Max difference " + maxDifference + " m");
+    }
 }
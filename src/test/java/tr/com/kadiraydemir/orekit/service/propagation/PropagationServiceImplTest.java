@@ -2,16 +2,35 @@ package tr.com.kadiraydemir.orekit.service.propagation;
 
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScale;
+import org.orekit.time.TimeScalesFactory;
+import tr.com.kadiraydemir.orekit.exception.InvalidArgumentException;
 import tr.com.kadiraydemir.orekit.grpc.PropagateRequest;
+import tr.com.kadiraydemir.orekit.grpc.PropagationModel;
 import tr.com.kadiraydemir.orekit.grpc.ReferenceFrame;
 import tr.com.kadiraydemir.orekit.grpc.TLEPropagateRequest;
 import tr.com.kadiraydemir.orekit.mapper.PropagationTestMapper;
+import tr.com.kadiraydemir.orekit.model.ChebyshevEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.GroundTrackResult;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
 import tr.com.kadiraydemir.orekit.model.OrbitResult;
+import tr.com.kadiraydemir.orekit.model.PackedEphemerisResult;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
+import tr.com.kadiraydemir.orekit.model.SatelliteTle;
+import tr.com.kadiraydemir.orekit.model.SnapshotResult;
 import tr.com.kadiraydemir.orekit.model.TleResult;
+import tr.com.kadiraydemir.orekit.service.frame.FrameService;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 @QuarkusTest
@@ -23,6 +42,12 @@ public class PropagationServiceImplTest {
     @Inject
     PropagationTestMapper propagationTestMapper;
 
+    @Inject
+    FrameService frameService;
+
+    @Inject
+    TlePropagatorCache tlePropagatorCache;
+
     @Test
     public void testPropagate() {
         PropagateRequest request = PropagateRequest.newBuilder()
@@ -84,6 +109,25 @@ public class PropagationServiceImplTest {
                 .collect().asList().await().atMost(Duration.ofSeconds(5)));
     }
 
+    @Test
+    public void testUnsubscribedStreamsLeaseNoPropagator() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(10)
+                .setOutputFrame(ReferenceFrame.TEME)
+                .build();
+        double lookups = tlePropagatorCache.getHitCount() + tlePropagatorCache.getMissCount();
+
+        propagationService.propagateTLE(propagationTestMapper.toDTO(request));
+        propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request));
+        propagationService.propagateTLEGroundTrack(propagationTestMapper.toDTO(request));
+
+        Assertions.assertEquals(lookups, tlePropagatorCache.getHitCount() + tlePropagatorCache.getMissCount());
+    }
+
     @Test
     public void testPropagateTLEHighVolume() {
         String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
@@ -168,8 +212,649 @@ public class PropagationServiceImplTest {
                 .setOutputFrame(ReferenceFrame.TEME)
                 .build();
 
-        // Should throw exception because ArrayList constructor fails with negative capacity
+        // Should throw exception because a negative position count is rejected
         Assertions.assertThrows(Exception.class, () -> propagationService.propagateTLE(propagationTestMapper.toDTO(request))
                 .collect().asList().await().atMost(Duration.ofSeconds(5)));
     }
+
+    @Test
+    public void testPropagateTLE_ChunkedStreaming() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(250)
+                .setChunkSize(100)
+                .setOutputFrame(ReferenceFrame.TEME)
+                .build();
+
+        List<TleResult> results = propagationService.propagateTLE(propagationTestMapper.toDTO(request))
+                .collect().asList().await().atMost(Duration.ofSeconds(5));
+
+        // 250 positions in chunks of 100 -> 100, 100, 50
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(100, results.get(0).positions().size());
+        Assertions.assertEquals(100, results.get(1).positions().size());
+        Assertions.assertEquals(50, results.get(2).positions().size());
+        Assertions.assertEquals("2024-01-01T12:00:00.000", results.get(0).positions().get(0).timestamp());
+        Assertions.assertEquals("2024-01-01T13:00:00.000", results.get(2).positions().get(49).timestamp());
+    }
+
+    @Test
+    public void testPropagateTLEPacked_MatchesPositionPoints() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(61)
+                .setOutputFrame(ReferenceFrame.ITRF)
+                .build();
+
+        TleResult points = propagationService.propagateTLE(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(5));
+        PackedEphemerisResult packed = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(points.frame(), packed.frame());
+        Assertions.assertEquals(60.0, packed.stepSeconds(), 1.0e-9);
+        Assertions.assertEquals(points.positions().get(0).timestamp(), packed.startEpoch());
+        Assertions.assertEquals(61, packed.x().length);
+        for (int i = 0; i < packed.x().length; i++) {
+            Assertions.assertEquals(points.positions().get(i).x(), packed.x()[i], 1.0e-6);
+            Assertions.assertEquals(points.positions().get(i).y(), packed.y()[i], 1.0e-6);
+            Assertions.assertEquals(points.positions().get(i).z(), packed.z()[i], 1.0e-6);
+        }
+    }
+
+    @Test
+    public void testPropagateTLEPacked_MultipleOutputFramesMatchSingleFrameRequests() {
+        TLEPropagateRequest.Builder request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(250)
+                .setChunkSize(100);
+        List<ReferenceFrame> frames = List.of(ReferenceFrame.TEME, ReferenceFrame.GCRF, ReferenceFrame.ITRF);
+
+        List<PackedEphemerisResult> results = propagationService.propagateTLEPacked(
+                propagationTestMapper.toDTO(request.clone().addAllOutputFrames(frames).build()))
+                .collect().asList().await().atMost(Duration.ofSeconds(5));
+
+        // One result per frame for each of the 3 chunks, in request frame order
+        Assertions.assertEquals(9, results.size());
+        for (int k = 0; k < frames.size(); k++) {
+            List<PackedEphemerisResult> single = propagationService.propagateTLEPacked(
+                    propagationTestMapper.toDTO(request.clone().setOutputFrame(frames.get(k)).build()))
+                    .collect().asList().await().atMost(Duration.ofSeconds(5));
+            for (int chunk = 0; chunk < single.size(); chunk++) {
+                PackedEphemerisResult expected = single.get(chunk);
+                PackedEphemerisResult actual = results.get(chunk * frames.size() + k);
+                Assertions.assertEquals(expected.frame(), actual.frame());
+                Assertions.assertEquals(expected.startEpoch(), actual.startEpoch());
+                Assertions.assertEquals(expected.x().length, actual.x().length);
+                for (int i = 0; i < expected.x().length; i++) {
+                    Assertions.assertEquals(expected.x()[i], actual.x()[i], 1.0e-6);
+                    Assertions.assertEquals(expected.y()[i], actual.y()[i], 1.0e-6);
+                    Assertions.assertEquals(expected.z()[i], actual.z()[i], 1.0e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPropagateTLE_MultipleOutputFramesShareTimestamps() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(61)
+                .addOutputFrames(ReferenceFrame.EME2000)
+                .addOutputFrames(ReferenceFrame.ITRF)
+                .build();
+
+        List<TleResult> results = propagationService.propagateTLE(propagationTestMapper.toDTO(request))
+                .collect().asList().await().atMost(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals("EME2000", results.get(0).frame());
+        Assertions.assertTrue(results.get(1).frame().contains("ITRF"));
+        for (int i = 0; i < 61; i++) {
+            TleResult.PositionPointResult inertial = results.get(0).positions().get(i);
+            TleResult.PositionPointResult earthFixed = results.get(1).positions().get(i);
+            Assertions.assertEquals(inertial.timestamp(), earthFixed.timestamp());
+            // Same point, so the same distance from the Earth's center in both frames
+            Assertions.assertEquals(
+                    Math.sqrt(inertial.x() * inertial.x() + inertial.y() * inertial.y() + inertial.z() * inertial.z()),
+                    Math.sqrt(earthFixed.x() * earthFixed.x() + earthFixed.y() * earthFixed.y()
+                            + earthFixed.z() * earthFixed.z()),
+                    1.0e-3);
+        }
+    }
+
+    @Test
+    public void testPropagateTLEGroundTrack_MatchesGeodeticItrfPositions() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(61)
+                .setOutputFrame(ReferenceFrame.ITRF)
+                .build();
+
+        PackedEphemerisResult itrf = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(5));
+        GroundTrackResult track = propagationService.propagateTLEGroundTrack(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(itrf.frame(), track.frame());
+        Assertions.assertEquals(itrf.startEpoch(), track.startEpoch());
+        Assertions.assertEquals(61, track.latitude().length);
+        OneAxisEllipsoid earth = frameService.getEarth();
+        AbsoluteDate start = new AbsoluteDate("2024-01-01T12:00:00Z", TimeScalesFactory.getUTC());
+        for (int i = 0; i < 61; i++) {
+            GeodeticPoint expected = earth.transform(new Vector3D(itrf.x()[i], itrf.y()[i], itrf.z()[i]),
+                    earth.getBodyFrame(), start.shiftedBy(i * 60.0));
+            Assertions.assertEquals(Math.toDegrees(expected.getLatitude()), track.latitude()[i], 1.0e-9);
+            Assertions.assertEquals(Math.toDegrees(expected.getLongitude()), track.longitude()[i], 1.0e-9);
+            Assertions.assertEquals(expected.getAltitude(), track.altitude()[i], 1.0e-6);
+        }
+    }
+
+    @Test
+    public void testPropagateTLE_AdaptiveSamplingWithinChordalTolerance() {
+        TLEPropagateRequest.Builder request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T18:00:00Z")
+                .setOutputFrame(ReferenceFrame.ITRF);
+
+        List<TleResult> chunks = propagationService.propagateTLE(propagationTestMapper.toDTO(
+                request.clone().setChordalToleranceM(100.0).setChunkSize(50).build()))
+                .collect().asList().await().atMost(Duration.ofSeconds(10));
+        List<TleResult.PositionPointResult> adaptive = chunks.stream().flatMap(c -> c.positions().stream()).toList();
+        TleResult dense = propagationService.propagateTLE(propagationTestMapper.toDTO(
+                request.clone().setPositionCount(2161).build()))
+                .toUni().await().atMost(Duration.ofSeconds(10));
+
+        Assertions.assertTrue(chunks.stream().allMatch(c -> c.positions().size() <= 50));
+        Assertions.assertEquals(dense.positions().get(0).timestamp(), adaptive.get(0).timestamp());
+        Assertions.assertEquals(dense.positions().get(2160).timestamp(), adaptive.get(adaptive.size() - 1).timestamp());
+        Assertions.assertTrue(chunks.get(0).maxInterpolationError() <= 100.0);
+        System.out.printf("Adaptive sampling at 100 m: %d points instead of %d%n", adaptive.size(),
+                dense.positions().size());
+        Assertions.assertTrue(maxChordError(adaptive, dense.positions()) <= 100.0);
+    }
+
+    @Test
+    public void testPropagateTLE_AdaptiveSamplingDensifiesPerigee() {
+        AbsoluteDate epoch = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        // Molniya orbit, perigee at the start of the window
+        TLE molniya = new TLE(99999, 'U', 2024, 1, "A", 0, 999, epoch, 2.006 * 2 * Math.PI / 86400.0, 0, 0,
+                0.72, Math.toRadians(63.4), Math.toRadians(270.0), Math.toRadians(40.0), 0, 1, 0);
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(molniya.getLine1())
+                .setTleLine2(molniya.getLine2())
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2024-01-01T12:00:00Z")
+                .setOutputFrame(ReferenceFrame.TEME)
+                .setChordalToleranceM(1000.0)
+                .build();
+
+        List<TleResult.PositionPointResult> adaptive = propagationService
+                .propagateTLE(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(10)).positions();
+
+        TimeScale utc = TimeScalesFactory.getUTC();
+        double minStep = Double.MAX_VALUE;
+        double maxStep = 0;
+        for (int i = 1; i < adaptive.size(); i++) {
+            double step = new AbsoluteDate(adaptive.get(i).timestamp(), utc)
+                    .durationFrom(new AbsoluteDate(adaptive.get(i - 1).timestamp(), utc));
+            minStep = Math.min(minStep, step);
+            maxStep = Math.max(maxStep, step);
+        }
+        // An even grid at the perigee step would need far more points
+        System.out.printf("Adaptive Molniya sampling at 1 km: %d points, steps %.1f s to %.1f s%n",
+                adaptive.size(), minStep, maxStep);
+        Assertions.assertTrue(maxStep > 10 * minStep);
+        Assertions.assertTrue(adaptive.size() < 43200.0 / minStep / 3);
+
+        TleResult dense = propagationService.propagateTLE(propagationTestMapper.toDTO(request.toBuilder()
+                .setChordalToleranceM(0).setPositionCount(4321).build()))
+                .toUni().await().atMost(Duration.ofSeconds(10));
+        Assertions.assertTrue(maxChordError(adaptive, dense.positions()) <= 1000.0);
+    }
+
+    @Test
+    public void testPropagateTLE_AdaptiveSamplingToleranceBelowMinimumRejected() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T18:00:00Z")
+                .setChordalToleranceM(1.0e-4)
+                .build();
+
+        Assertions.assertThrows(InvalidArgumentException.class, () -> propagationService
+                .propagateTLE(propagationTestMapper.toDTO(request))
+                .collect().asList().await().atMost(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void testPropagateTLE_AdaptiveSamplingStreamsChunksUpToSampleLimit() {
+        // At 1 cm the steps stay at their 0.1 s floor, about 864k points a day
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2024-01-03T00:00:00Z")
+                .setChordalToleranceM(0.01)
+                .setChunkSize(100_000)
+                .build();
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        Assertions.assertThrows(InvalidArgumentException.class, () -> propagationService
+                .propagateTLE(propagationTestMapper.toDTO(request))
+                .onItem().invoke(chunk -> chunkSizes.add(chunk.positions().size()))
+                .collect().asList().await().atMost(Duration.ofSeconds(60)));
+
+        // Chunks were sent as the sampler advanced, before the limit was reached
+        Assertions.assertEquals(10, chunkSizes.size());
+        Assertions.assertTrue(chunkSizes.stream().allMatch(size -> size == 100_000));
+    }
+
+    // Largest distance between the dense positions and the chords of the sampled points
+    private static double maxChordError(List<TleResult.PositionPointResult> samples,
+            List<TleResult.PositionPointResult> dense) {
+        TimeScale utc = TimeScalesFactory.getUTC();
+        double maxError = 0;
+        int segment = 0;
+        for (TleResult.PositionPointResult point : dense) {
+            AbsoluteDate date = new AbsoluteDate(point.timestamp(), utc);
+            while (segment < samples.size() - 2
+                    && new AbsoluteDate(samples.get(segment + 1).timestamp(), utc).compareTo(date) <= 0) {
+                segment++;
+            }
+            TleResult.PositionPointResult a = samples.get(segment);
+            TleResult.PositionPointResult b = samples.get(segment + 1);
+            AbsoluteDate aDate = new AbsoluteDate(a.timestamp(), utc);
+            double s = date.durationFrom(aDate) / new AbsoluteDate(b.timestamp(), utc).durationFrom(aDate);
+            Vector3D chord = new Vector3D(1 - s, new Vector3D(a.x(), a.y(), a.z()), s, new Vector3D(b.x(), b.y(), b.z()));
+            maxError = Math.max(maxError, Vector3D.distance(chord, new Vector3D(point.x(), point.y(), point.z())));
+        }
+        return maxError;
+    }
+
+    @Test
+    public void testPropagateSnapshot_MatchesSingleSatellitePropagation() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        List<SatelliteTle> tles = List.of(
+                new SatelliteTle(line1, line2),
+                new SatelliteTle("1 99999U invalid", "2 99999 invalid"),
+                new SatelliteTle(line1, line2));
+
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T12:00:00Z", "2024-01-01T12:00:00Z", 1,
+                ReferenceFrameType.ITRF);
+        SnapshotResult snapshot = propagationService.propagateSnapshot(tles, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid);
+        TleResult single = propagationService.propagateTLE(line1, line2, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid);
+
+        Assertions.assertEquals("2024-01-01T12:00:00.000", snapshot.epoch());
+        Assertions.assertEquals(single.frame(), snapshot.frame());
+        Assertions.assertArrayEquals(new int[] { 25544, 25544 }, snapshot.satelliteIds());
+        Assertions.assertEquals(1, snapshot.errors().size());
+        Assertions.assertEquals(99999, snapshot.errors().get(0).satelliteId());
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertEquals(single.positions().get(0).x(), snapshot.x()[i], 1.0e-6);
+            Assertions.assertEquals(single.positions().get(0).y(), snapshot.y()[i], 1.0e-6);
+            Assertions.assertEquals(single.positions().get(0).z(), snapshot.z()[i], 1.0e-6);
+        }
+
+        // Earth-fixed velocity, checked against the positions one second apart
+        EpochGrid next = propagationService.createEpochGrid("2024-01-01T12:00:00.5Z", "2024-01-01T12:00:00.5Z", 1,
+                ReferenceFrameType.ITRF);
+        EpochGrid previous = propagationService.createEpochGrid("2024-01-01T11:59:59.5Z", "2024-01-01T11:59:59.5Z",
+                1, ReferenceFrameType.ITRF);
+        SnapshotResult after = propagationService.propagateSnapshot(tles.subList(0, 1), PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, next);
+        SnapshotResult before = propagationService.propagateSnapshot(tles.subList(0, 1), PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, previous);
+        Assertions.assertEquals(after.x()[0] - before.x()[0], snapshot.vx()[0], 1.0e-2);
+        Assertions.assertEquals(after.y()[0] - before.y()[0], snapshot.vy()[0], 1.0e-2);
+        Assertions.assertEquals(after.z()[0] - before.z()[0], snapshot.vz()[0], 1.0e-2);
+    }
+
+    @Test
+    public void testPropagateTimeMajor_MatchesSatelliteMajorPropagation() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        List<SatelliteTle> tles = List.of(
+                new SatelliteTle(line1, line2),
+                new SatelliteTle("1 99999U invalid", "2 99999 invalid"),
+                new SatelliteTle(line1, line2));
+
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T12:00:00Z", "2024-01-01T13:00:00Z", 5,
+                ReferenceFrameType.ITRF);
+        List<SnapshotResult> results = propagationService.propagateTimeMajor(tles, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid, 2)
+                .collect().asList()
+                .await().indefinitely();
+        TleResult single = propagationService.propagateTLE(line1, line2, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid);
+
+        // Two blocks per epoch, epochs in time order
+        Assertions.assertEquals(10, results.size());
+        for (int index = 0; index < 5; index++) {
+            SnapshotResult first = results.get(2 * index);
+            SnapshotResult second = results.get(2 * index + 1);
+            Assertions.assertEquals(grid.getTimestamp(index), first.epoch());
+            Assertions.assertEquals(grid.getTimestamp(index), second.epoch());
+            Assertions.assertEquals(single.frame(), first.frame());
+            Assertions.assertArrayEquals(new int[] { 25544 }, first.satelliteIds());
+            Assertions.assertArrayEquals(new int[] { 25544 }, second.satelliteIds());
+            // The invalid TLE is only reported with the first epoch
+            Assertions.assertEquals(index == 0 ? 1 : 0, first.errors().size());
+            Assertions.assertTrue(second.errors().isEmpty());
+
+            TleResult.PositionPointResult expected = single.positions().get(index);
+            for (SnapshotResult block : List.of(first, second)) {
+                Assertions.assertEquals(expected.x(), block.x()[0], 1.0e-6);
+                Assertions.assertEquals(expected.y(), block.y()[0], 1.0e-6);
+                Assertions.assertEquals(expected.z(), block.z()[0], 1.0e-6);
+            }
+        }
+        Assertions.assertEquals(99999, results.get(0).errors().get(0).satelliteId());
+    }
+
+    @Test
+    public void testPropagateTLEChebyshev_MultipleOutputFramesRejected() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .addOutputFrames(ReferenceFrame.TEME)
+                .addOutputFrames(ReferenceFrame.ITRF)
+                .build();
+
+        Assertions.assertThrows(RuntimeException.class,
+                () -> propagationService.propagateTLEChebyshev(propagationTestMapper.toDTO(request)));
+    }
+
+    @Test
+    public void testPropagateTLEChebyshev_ToleranceBelowMinimumRejected() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setChebyshevToleranceM(1.0e-4)
+                .build();
+
+        Assertions.assertThrows(InvalidArgumentException.class,
+                () -> propagationService.propagateTLEChebyshev(propagationTestMapper.toDTO(request)));
+    }
+
+    @Test
+    public void testPropagateTLEChebyshev_TooManySegmentsRejected() {
+        // Two years of LEO at 1 mm take about 16k hour-long segments
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2026-01-01T00:00:00Z")
+                .setChebyshevToleranceM(1.0e-3)
+                .build();
+
+        Assertions.assertThrows(InvalidArgumentException.class,
+                () -> propagationService.propagateTLEChebyshev(propagationTestMapper.toDTO(request)));
+    }
+
+    @Test
+    public void testPropagateTLE_SharedEpochGridMatchesPerRequest() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T13:00:00Z")
+                .setPositionCount(31)
+                .setOutputFrame(ReferenceFrame.ITRF)
+                .build();
+
+        TleResult expected = propagationService.propagateTLE(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(5));
+
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T12:00:00Z", "2024-01-01T13:00:00Z", 31,
+                ReferenceFrameType.ITRF);
+        TleResult shared = propagationService.propagateTLE(line1, line2, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid);
+        PackedEphemerisResult packed = propagationService.propagateTLEPacked(line1, line2,
+                PropagationModelType.AUTO, IntegratorType.DORMAND_PRINCE_853, grid);
+
+        Assertions.assertEquals(expected.frame(), shared.frame());
+        Assertions.assertEquals(expected.frame(), packed.frame());
+        Assertions.assertEquals(31, shared.positions().size());
+        Assertions.assertEquals(expected.positions().get(0).timestamp(), packed.startEpoch());
+        for (int i = 0; i < shared.positions().size(); i++) {
+            TleResult.PositionPointResult a = expected.positions().get(i);
+            TleResult.PositionPointResult b = shared.positions().get(i);
+            Assertions.assertEquals(a.timestamp(), b.timestamp());
+            Assertions.assertEquals(a.x(), b.x(), 1.0e-3);
+            Assertions.assertEquals(a.y(), b.y(), 1.0e-3);
+            Assertions.assertEquals(a.z(), b.z(), 1.0e-3);
+            Assertions.assertEquals(b.x(), packed.x()[i], 1.0e-9);
+            Assertions.assertEquals(b.y(), packed.y()[i], 1.0e-9);
+            Assertions.assertEquals(b.z(), packed.z()[i], 1.0e-9);
+        }
+    }
+
+    @Test
+    public void testPropagateTLE_InterpolatedWithinErrorBudget() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T12:00:00Z", "2024-01-01T15:00:00Z", 1081,
+                ReferenceFrameType.ITRF);
+        TleResult exact = propagationService.propagateTLE(line1, line2, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid);
+        TleResult interpolated = propagationService.propagateTLE(line1, line2, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid, 0.5);
+
+        Assertions.assertEquals(0.0, exact.maxInterpolationError());
+        Assertions.assertTrue(interpolated.maxInterpolationError() <= 0.5);
+        Assertions.assertEquals(exact.positions().size(), interpolated.positions().size());
+        for (int i = 0; i < exact.positions().size(); i++) {
+            TleResult.PositionPointResult a = exact.positions().get(i);
+            TleResult.PositionPointResult b = interpolated.positions().get(i);
+            Assertions.assertEquals(a.timestamp(), b.timestamp());
+            Assertions.assertEquals(a.x(), b.x(), 0.6);
+            Assertions.assertEquals(a.y(), b.y(), 0.6);
+            Assertions.assertEquals(a.z(), b.z(), 0.6);
+        }
+    }
+
+    @Test
+    public void testCreateEpochGrid_InvalidDate() {
+        Assertions.assertThrows(RuntimeException.class, () -> propagationService.createEpochGrid("invalid",
+                "2024-01-01T13:00:00Z", 10, ReferenceFrameType.TEME));
+    }
+
+    @Test
+    public void testCreateEpochGrid_ReleasedEpochIsComputedAgain() {
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T12:00:00Z", "2024-01-01T13:00:00Z", 61,
+                ReferenceFrameType.ITRF);
+        Vector3D teme = new Vector3D(7.0e6, 1.0e5, -2.0e5);
+
+        String timestamp = grid.getTimestamp(30);
+        Vector3D itrf = grid.toOutputFrame(30, teme);
+        grid.release(30);
+
+        Assertions.assertEquals("2024-01-01T12:30:00.000", timestamp);
+        Assertions.assertEquals(timestamp, grid.getTimestamp(30));
+        Assertions.assertEquals(0.0, Vector3D.distance(itrf, grid.toOutputFrame(30, teme)));
+    }
+
+    @Test
+    public void testPropagateTLE_LargeRequestSplitIntoParallelRanges() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        int positionCount = 50_000;
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2024-01-08T00:00:00Z")
+                .setPositionCount(positionCount)
+                .setOutputFrame(ReferenceFrame.TEME)
+                .build();
+
+        TleResult parallel = propagationService.propagateTLE(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(30));
+        PackedEphemerisResult packed = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(30));
+
+        // Reference evaluated sequentially on a single propagator
+        EpochGrid grid = propagationService.createEpochGrid("2024-01-01T00:00:00Z", "2024-01-08T00:00:00Z",
+                positionCount, ReferenceFrameType.TEME);
+        TleResult sequential = propagationService.propagateTLE(line1, line2, PropagationModelType.AUTO,
+                IntegratorType.DORMAND_PRINCE_853, grid);
+
+        Assertions.assertEquals(positionCount, parallel.positions().size());
+        Assertions.assertEquals(positionCount, packed.x().length);
+        for (int i = 0; i < positionCount; i++) {
+            TleResult.PositionPointResult expected = sequential.positions().get(i);
+            TleResult.PositionPointResult actual = parallel.positions().get(i);
+            Assertions.assertEquals(expected.timestamp(), actual.timestamp());
+            Assertions.assertEquals(expected.x(), actual.x(), 1.0e-6);
+            Assertions.assertEquals(expected.y(), actual.y(), 1.0e-6);
+            Assertions.assertEquals(expected.z(), actual.z(), 1.0e-6);
+            Assertions.assertEquals(expected.x(), packed.x()[i], 1.0e-6);
+            Assertions.assertEquals(expected.y(), packed.y()[i], 1.0e-6);
+            Assertions.assertEquals(expected.z(), packed.z()[i], 1.0e-6);
+        }
+    }
+
+    @Test
+    public void testPropagateTLEChebyshev_WithinToleranceOfSampledPositions() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+        int positionCount = 1441;
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T00:00:00Z")
+                .setEndDate("2024-01-02T00:00:00Z")
+                .setPositionCount(positionCount)
+                .setOutputFrame(ReferenceFrame.ITRF)
+                .setChebyshevToleranceM(1.0)
+                .build();
+
+        PackedEphemerisResult packed = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(10));
+        ChebyshevEphemerisResult chebyshev = propagationService.propagateTLEChebyshev(
+                propagationTestMapper.toDTO(request));
+
+        Assertions.assertEquals(packed.frame(), chebyshev.frame());
+        Assertions.assertEquals(packed.startEpoch(), chebyshev.startEpoch());
+        Assertions.assertTrue(chebyshev.maxFitError() <= 1.0);
+        assertSegmentsCover(chebyshev, 86400.0);
+        for (int i = 0; i < positionCount; i++) {
+            double[] fitted = evaluate(chebyshev, i * packed.stepSeconds());
+            Assertions.assertEquals(packed.x()[i], fitted[0], 2.0);
+            Assertions.assertEquals(packed.y()[i], fitted[1], 2.0);
+            Assertions.assertEquals(packed.z()[i], fitted[2], 2.0);
+        }
+
+        // A minute sampling of a day takes several times more doubles than its fit
+        int coefficientCount = chebyshev.segments().size() * 3 * (ChebyshevFitter.DEGREE + 1);
+        Assertions.assertTrue(coefficientCount * 3 < 3 * positionCount,
+                "Fit uses " + coefficientCount + " coefficients for " + positionCount + " positions");
+    }
+
+    @Test
+    public void testPropagateTLEChebyshev_NumericalModel() {
+        String line1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+        String line2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setModel(PropagationModel.NUMERICAL)
+                .setTleLine1(line1)
+                .setTleLine2(line2)
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T14:00:00Z")
+                .setPositionCount(121)
+                .setOutputFrame(ReferenceFrame.GCRF)
+                .build();
+
+        PackedEphemerisResult packed = propagationService.propagateTLEPacked(propagationTestMapper.toDTO(request))
+                .toUni().await().atMost(Duration.ofSeconds(30));
+        ChebyshevEphemerisResult chebyshev = propagationService.propagateTLEChebyshev(
+                propagationTestMapper.toDTO(request));
+
+        // Unset tolerance falls back to 1 m
+        Assertions.assertTrue(chebyshev.maxFitError() <= 1.0);
+        assertSegmentsCover(chebyshev, 7200.0);
+        for (int i = 0; i < packed.x().length; i++) {
+            double[] fitted = evaluate(chebyshev, i * packed.stepSeconds());
+            Assertions.assertEquals(packed.x()[i], fitted[0], 2.0);
+            Assertions.assertEquals(packed.y()[i], fitted[1], 2.0);
+            Assertions.assertEquals(packed.z()[i], fitted[2], 2.0);
+        }
+    }
+
+    @Test
+    public void testPropagateTLEChebyshev_EmptySpan() {
+        TLEPropagateRequest request = TLEPropagateRequest.newBuilder()
+                .setTleLine1("1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991")
+                .setTleLine2("2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005")
+                .setStartDate("2024-01-01T12:00:00Z")
+                .setEndDate("2024-01-01T12:00:00Z")
+                .build();
+
+        Assertions.assertThrows(RuntimeException.class,
+                () -> propagationService.propagateTLEChebyshev(propagationTestMapper.toDTO(request)));
+    }
+
+    private static void assertSegmentsCover(ChebyshevEphemerisResult chebyshev, double span) {
+        double end = 0;
+        for (ChebyshevEphemerisResult.Segment segment : chebyshev.segments()) {
+            Assertions.assertEquals(end, segment.startOffsetSeconds(), 1.0e-6);
+            Assertions.assertEquals(ChebyshevFitter.DEGREE + 1, segment.x().length);
+            end = segment.startOffsetSeconds() + segment.durationSeconds();
+        }
+        Assertions.assertEquals(span, end, 1.0e-6);
+    }
+
+    private static double[] evaluate(ChebyshevEphemerisResult chebyshev, double offset) {
+        for (ChebyshevEphemerisResult.Segment segment : chebyshev.segments()) {
+            double segmentEnd = segment.startOffsetSeconds() + segment.durationSeconds();
+            if (offset <= segmentEnd + 1.0e-6) {
+                double tau = 2 * (offset - segment.startOffsetSeconds()) / segment.durationSeconds() - 1;
+                return new double[] {
+                        ChebyshevFitter.evaluate(segment.x(), tau),
+                        ChebyshevFitter.evaluate(segment.y(), tau),
+                        ChebyshevFitter.evaluate(segment.z(), tau) };
+            }
+        }
+        throw new IllegalArgumentException("Offset outside of the ephemeris: " + offset);
+    }
 }
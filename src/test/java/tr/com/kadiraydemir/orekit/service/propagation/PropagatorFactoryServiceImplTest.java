@@ -46,5 +46,9 @@ public class PropagatorFactoryServiceImplTest {
         Propagator p5 = factoryService.createPropagator(tle, null, null, FramesFactory.getTEME());
         Assertions.assertNotNull(p5);
         Assertions.assertTrue(p5 instanceof org.orekit.propagation.analytical.tle.TLEPropagator);
+
+        Propagator p6 = factoryService.createPropagator(tle, propagationTestMapper.map(PropagationModel.DSST), null, FramesFactory.getTEME());
+        Assertions.assertNotNull(p6);
+        Assertions.assertTrue(p6 instanceof org.orekit.propagation.semianalytical.dsst.DSSTPropagator);
     }
 }
@@ -0,0 +1,110 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.orekit.attitudes.FrameAlignedProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.PVCoordinates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@QuarkusTest
+public class Sgp4BatchTest {
+
+    @Test
+    public void testMatchesOrekitAcrossCatalog() {
+        List<TLE> catalog = catalog(500);
+        AbsoluteDate start = catalog.get(0).getDate().shiftedBy(3600.0);
+        Sgp4Batch batch = load(catalog, start);
+        double[] positions = new double[3 * batch.size()];
+        double[] velocities = new double[3 * batch.size()];
+
+        List<TLEPropagator> orekit = catalog.stream().map(TLEPropagator::selectExtrapolator).toList();
+        for (int step = 0; step < 12; step++) {
+            AbsoluteDate date = start.shiftedBy(7200.0 * step);
+            batch.evaluate(date, 0, batch.size(), positions, velocities);
+            for (int k = 0; k < batch.size(); k++) {
+                Assertions.assertNull(batch.failure(k));
+                PVCoordinates pv = orekit.get(k).getPVCoordinates(date);
+                Assertions.assertEquals(pv.getPosition().getX(), positions[3 * k], 1.0e-5);
+                Assertions.assertEquals(pv.getPosition().getY(), positions[3 * k + 1], 1.0e-5);
+                Assertions.assertEquals(pv.getPosition().getZ(), positions[3 * k + 2], 1.0e-5);
+                Assertions.assertEquals(pv.getVelocity().getX(), velocities[3 * k], 1.0e-8);
+                Assertions.assertEquals(pv.getVelocity().getY(), velocities[3 * k + 1], 1.0e-8);
+                Assertions.assertEquals(pv.getVelocity().getZ(), velocities[3 * k + 2], 1.0e-8);
+            }
+        }
+    }
+
+    @Test
+    public void testCatalogCoversBothDragBranches() {
+        Sgp4Batch batch = load(catalog(500), catalog(1).get(0).getDate());
+        int low = 0;
+        for (int k = 0; k < batch.size(); k++) {
+            low += batch.lessThan220[k] ? 1 : 0;
+        }
+        Assertions.assertTrue(low > 0 && low < batch.size(), low + " satellites below 220 km");
+    }
+
+    @Test
+    public void testRangeAndDisabledSlotsLeaveOtherOutputsUntouched() {
+        List<TLE> catalog = catalog(10);
+        Sgp4Batch batch = load(catalog, catalog.get(0).getDate());
+        double[] positions = new double[3 * batch.size()];
+        double[] velocities = new double[3 * batch.size()];
+        batch.disable(5);
+        batch.evaluate(catalog.get(0).getDate().shiftedBy(600.0), 2, 8, positions, velocities);
+
+        for (int k = 0; k < batch.size(); k++) {
+            boolean written = k >= 2 && k < 8 && k != 5;
+            Assertions.assertEquals(written, positions[3 * k] != 0.0, "slot " + k);
+        }
+    }
+
+    @Test
+    public void testDeepSpaceKernelNotAccepted() {
+        FrameAlignedProvider attitude = new FrameAlignedProvider(FramesFactory.getTEME());
+        AbsoluteDate epoch = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        TLE molniya = new TLE(99999, 'U', 2024, 1, "A", 0, 999, epoch, 2.006 * 2 * Math.PI / 86400.0, 0, 0,
+                0.72, Math.toRadians(63.4), Math.toRadians(270.0), Math.toRadians(40.0), 0, 1, 0);
+
+        Assertions.assertTrue(Sgp4Batch.accepts(TleKernels.select(catalog(1).get(0), attitude, 1.0)));
+        Assertions.assertFalse(Sgp4Batch.accepts(TleKernels.select(molniya, attitude, 1.0)));
+        Assertions.assertFalse(Sgp4Batch.accepts(TLEPropagator.selectExtrapolator(catalog(1).get(0))));
+    }
+
+    static Sgp4Batch load(List<TLE> catalog, AbsoluteDate reference) {
+        FrameAlignedProvider attitude = new FrameAlignedProvider(FramesFactory.getTEME());
+        Sgp4Batch batch = new Sgp4Batch(reference, catalog.size());
+        for (int k = 0; k < catalog.size(); k++) {
+            batch.load(k, TleKernels.sgp4(catalog.get(k), attitude, 1000.0));
+        }
+        return batch;
+    }
+
+    /**
+     * Synthetic near-earth catalog: epochs spread over two days, 11 to 16.4
+     * revolutions per day, so a few perigees are below 220 km, and
+     * eccentricities from circular to 0.05.
+     */
+    static List<TLE> catalog(int size) {
+        AbsoluteDate epoch = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        List<TLE> catalog = new ArrayList<>(size);
+        for (int k = 0; k < size; k++) {
+            double revolutionsPerDay = 11.0 + 5.4 * ((k * 37) % 100) / 99.0;
+            double eccentricity = 0.05 * ((k * 53) % 100) / 99.0 * ((k * 53) % 100) / 99.0;
+            catalog.add(new TLE(10000 + k, 'U', 2024, 1, "A", 0, 999,
+                    epoch.shiftedBy(172800.0 * ((k * 71) % 100) / 100.0),
+                    revolutionsPerDay * 2 * Math.PI / 86400.0, 0, 0, eccentricity,
+                    Math.toRadians((k * 17) % 180), Math.toRadians((k * 29) % 360), Math.toRadians((k * 43) % 360),
+                    Math.toRadians((k * 61) % 360), 0, 1.0e-4 * ((k * 13) % 10)));
+        }
+        return catalog;
+    }
+}
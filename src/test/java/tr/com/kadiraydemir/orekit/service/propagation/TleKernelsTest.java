@@ -0,0 +1,180 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.orekit.attitudes.FrameAlignedProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.DeepSDP4;
+import org.orekit.propagation.analytical.tle.SGP4;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.PVCoordinates;
+import tr.com.kadiraydemir.orekit.model.IntegratorType;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+import tr.com.kadiraydemir.orekit.model.ReferenceFrameType;
+import tr.com.kadiraydemir.orekit.model.TleResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@QuarkusTest
+public class TleKernelsTest {
+
+    private static final String LINE1 = "1 25544U 98067A   23355.72295190  .00016622  00000+0  30613-3 0  9997";
+    private static final String LINE2 = "2 25544  51.6413 259.6247 0001395 348.8188 126.9748 15.49571329431105";
+
+    @Inject
+    PropagationService propagationService;
+
+    @Test
+    public void testSgp4MatchesOrekitBitForBit() {
+        assertMatchesOrekit(new TLE(LINE1, LINE2), 0.0);
+    }
+
+    @Test
+    public void testSdp4MatchesOrekitBitForBit() {
+        assertMatchesOrekit(molniya(), 0.0);
+    }
+
+    @Test
+    public void testSdp4LowInclinationMatchesOrekit() {
+        // Geostationary, the lunisolar periodics go through the Lyddane modification; the state
+        // assembly rounds an ulp away from Orekit's near zero inclination
+        AbsoluteDate epoch = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        assertMatchesOrekit(new TLE(99998, 'U', 2024, 1, "B", 0, 999, epoch, 1.0027 * 2 * Math.PI / 86400.0, 0,
+                0, 0.0003, Math.toRadians(0.05), Math.toRadians(120.0), Math.toRadians(75.0), Math.toRadians(10.0),
+                0, 0), 1.0e-6);
+    }
+
+    @Test
+    public void testBatchGridDeepSpaceMatchesStockDeepSdp4() {
+        // Batch grid path, each deep-space satellite evaluates Orekit's own lunisolar terms
+        EpochGrid grid = propagationService.createEpochGrid("2024-12-01T00:00:00Z", "2024-12-02T00:00:00Z", 97,
+                ReferenceFrameType.TEME);
+        for (TLE tle : deepSpaceCatalog(6, 330)) {
+            TleResult result = propagationService.propagateTLE(tle.getLine1(), tle.getLine2(),
+                    PropagationModelType.AUTO, IntegratorType.DORMAND_PRINCE_853, grid);
+            TLEPropagator orekit = TLEPropagator.selectExtrapolator(tle);
+            Assertions.assertInstanceOf(DeepSDP4.class, orekit);
+            for (int i = 0; i < grid.size(); i++) {
+                PVCoordinates pv = orekit.getPVCoordinates(grid.getDate(i));
+                TleResult.PositionPointResult point = result.positions().get(i);
+                Assertions.assertEquals(pv.getPosition().getX(), point.x(), 1.0e-4);
+                Assertions.assertEquals(pv.getPosition().getY(), point.y(), 1.0e-4);
+                Assertions.assertEquals(pv.getPosition().getZ(), point.z(), 1.0e-4);
+            }
+        }
+    }
+
+    @Test
+    public void testOffsetsFromAnotherReference() {
+        // Offsets are added to the reference in double precision instead of as dates, ~1e-10 s apart
+        TLE tle = new TLE(LINE1, LINE2);
+        AbsoluteDate reference = new AbsoluteDate("2023-12-24T03:17:41.25Z", TimeScalesFactory.getUTC());
+        int count = 1000;
+        double[] offsets = new double[count];
+        for (int k = 0; k < count; k++) {
+            offsets[k] = 86.4 * k;
+        }
+        double[] positions = new double[3 * count];
+        double[] velocities = new double[3 * count];
+        propagationService.propagateTLEBulk(LINE1, LINE2, PropagationModelType.AUTO, reference, offsets, count,
+                positions, velocities);
+
+        TLEPropagator orekit = TLEPropagator.selectExtrapolator(tle);
+        for (int k = 0; k < count; k++) {
+            PVCoordinates pv = orekit.getPVCoordinates(reference.shiftedBy(offsets[k]));
+            Assertions.assertEquals(pv.getPosition().getX(), positions[3 * k], 1.0e-5);
+            Assertions.assertEquals(pv.getPosition().getY(), positions[3 * k + 1], 1.0e-5);
+            Assertions.assertEquals(pv.getPosition().getZ(), positions[3 * k + 2], 1.0e-5);
+            Assertions.assertEquals(pv.getVelocity().getX(), velocities[3 * k], 1.0e-8);
+            Assertions.assertEquals(pv.getVelocity().getY(), velocities[3 * k + 1], 1.0e-8);
+            Assertions.assertEquals(pv.getVelocity().getZ(), velocities[3 * k + 2], 1.0e-8);
+        }
+    }
+
+    @Test
+    public void testSelectMatchesOrekit() {
+        FrameAlignedProvider attitude = new FrameAlignedProvider(FramesFactory.getTEME());
+        TLE leo = new TLE(LINE1, LINE2);
+        TLE deep = molniya();
+
+        Assertions.assertInstanceOf(SGP4.class, TLEPropagator.selectExtrapolator(leo));
+        Assertions.assertInstanceOf(SGP4.class, TleKernels.select(leo, attitude, 1.0));
+        Assertions.assertInstanceOf(DeepSDP4.class, TLEPropagator.selectExtrapolator(deep));
+        Assertions.assertInstanceOf(DeepSDP4.class, TleKernels.select(deep, attitude, 1.0));
+    }
+
+    @Test
+    public void testNumericalModelRejected() {
+        double[] buffer = new double[3];
+        Assertions.assertThrows(RuntimeException.class, () -> propagationService.propagateTLEBulk(LINE1, LINE2,
+                PropagationModelType.NUMERICAL, new TLE(LINE1, LINE2).getDate(), new double[1], 1, buffer,
+                buffer));
+    }
+
+    // Offsets counted from the TLE epoch give Orekit and the kernel the same time since epoch
+    private void assertMatchesOrekit(TLE tle, double tolerance) {
+        int count = 2000;
+        double[] offsets = new double[count];
+        for (int k = 0; k < count; k++) {
+            offsets[k] = 60.0 * k;
+        }
+        double[] positions = new double[3 * count];
+        double[] velocities = new double[3 * count];
+        propagationService.propagateTLEBulk(tle.getLine1(), tle.getLine2(), PropagationModelType.AUTO,
+                tle.getDate(), offsets, count, positions, velocities);
+
+        TLEPropagator orekit = TLEPropagator.selectExtrapolator(tle);
+        for (int k = 0; k < count; k++) {
+            PVCoordinates pv = orekit.getPVCoordinates(tle.getDate().shiftedBy(offsets[k]));
+            Assertions.assertEquals(pv.getPosition().getX(), positions[3 * k], tolerance);
+            Assertions.assertEquals(pv.getPosition().getY(), positions[3 * k + 1], tolerance);
+            Assertions.assertEquals(pv.getPosition().getZ(), positions[3 * k + 2], tolerance);
+            Assertions.assertEquals(pv.getVelocity().getX(), velocities[3 * k], tolerance);
+            Assertions.assertEquals(pv.getVelocity().getY(), velocities[3 * k + 1], tolerance);
+            Assertions.assertEquals(pv.getVelocity().getZ(), velocities[3 * k + 2], tolerance);
+        }
+    }
+
+    /**
+     * Synthetic deep-space catalog, TLE epochs spread over the first days of
+     * 2024: two thirds geostationary at 0 to 15 degrees of inclination, the
+     * rest GTO and Molniya orbits.
+     */
+    static List<TLE> deepSpaceCatalog(int size, int epochSpreadDays) {
+        AbsoluteDate start = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        List<TLE> catalog = new ArrayList<>(size);
+        for (int k = 0; k < size; k++) {
+            AbsoluteDate epoch = start.shiftedBy(86400.0 * ((k * 7919) % epochSpreadDays));
+            double raan = Math.toRadians((k * 29) % 360);
+            double meanAnomaly = Math.toRadians((k * 61) % 360);
+            TLE tle = switch (k % 3) {
+                case 2 -> k % 2 == 0
+                        ? orbit(k, epoch, 2.25, 0.73, 7 + (k % 21), 180.0, raan, meanAnomaly)
+                        : orbit(k, epoch, 2.006, 0.72, 63.4, 270.0, raan, meanAnomaly);
+                default -> orbit(k, epoch, 1.0027, 1.0e-4 * (1 + k % 10), 0.15 * (k % 100), (k * 43) % 360, raan,
+                        meanAnomaly);
+            };
+            catalog.add(tle);
+        }
+        return catalog;
+    }
+
+    private static TLE orbit(int k, AbsoluteDate epoch, double revolutionsPerDay, double eccentricity,
+            double inclinationDegrees, double perigeeDegrees, double raan, double meanAnomaly) {
+        return new TLE(20000 + k, 'U', 2024, 1, "A", 0, 999, epoch, revolutionsPerDay * 2 * Math.PI / 86400.0, 0, 0,
+                eccentricity, Math.toRadians(inclinationDegrees), Math.toRadians(perigeeDegrees), raan, meanAnomaly,
+                0, 0);
+    }
+
+    private static TLE molniya() {
+        AbsoluteDate epoch = new AbsoluteDate("2024-01-01T00:00:00Z", TimeScalesFactory.getUTC());
+        return new TLE(99999, 'U', 2024, 1, "A", 0, 999, epoch, 2.006 * 2 * Math.PI / 86400.0, 0, 0,
+                0.72, Math.toRadians(63.4), Math.toRadians(270.0), Math.toRadians(40.0), 0, 1, 0);
+    }
+}
@@ -0,0 +1,101 @@
+package tr.com.kadiraydemir.orekit.service.propagation;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.orekit.attitudes.FrameAlignedProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.events.DateDetector;
+import tr.com.kadiraydemir.orekit.model.PropagationModelType;
+
+@QuarkusTest
+public class TlePropagatorCacheTest {
+
+    private static final String LINE1 = "1 25544U 98067A   24001.00000000  .00016717  00000-0  10270-3 0  9991";
+    private static final String LINE2 = "2 25544  51.6444  20.0000 0005000  0.0000  50.0000 15.50000000 10005";
+
+    @Inject
+    TlePropagatorCache tlePropagatorCache;
+
+    @Inject
+    PropagatorFactoryService propagatorFactoryService;
+
+    @Test
+    public void testTleIsParsedOnce() {
+        double misses = tlePropagatorCache.getMissCount();
+        double hits = tlePropagatorCache.getHitCount();
+
+        TLE first = tlePropagatorCache.getTle(LINE1, LINE2);
+        TLE second = tlePropagatorCache.getTle(LINE1 + "  ", LINE2 + "\n");
+
+        Assertions.assertSame(first, second);
+        Assertions.assertTrue(tlePropagatorCache.getMissCount() <= misses + 1);
+        Assertions.assertTrue(tlePropagatorCache.getHitCount() >= hits + 1);
+        Assertions.assertTrue(tlePropagatorCache.size() > 0);
+    }
+
+    @Test
+    public void testReleasedPropagatorIsReused() {
+        Propagator first;
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                PropagationModelType.SGP4, null, FramesFactory.getTEME())) {
+            first = lease.propagator();
+            first.addEventDetector(new DateDetector(((TLEPropagator) first).getTLE().getDate()));
+            first.propagate(((TLEPropagator) first).getTLE().getDate().shiftedBy(3600.0));
+        }
+
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                PropagationModelType.SGP4, null, FramesFactory.getTEME())) {
+            Assertions.assertSame(first, lease.propagator());
+            // Detectors of the previous user are cleared on release
+            Assertions.assertTrue(lease.propagator().getEventDetectors().isEmpty());
+        }
+    }
+
+    @Test
+    public void testChangedPropagatorIsNotPooled() {
+        Propagator changed;
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                PropagationModelType.SGP4, null, FramesFactory.getTEME())) {
+            changed = lease.propagator();
+            changed.setAttitudeProvider(new FrameAlignedProvider(FramesFactory.getGCRF()));
+        }
+
+        try (PropagatorLease lease = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                PropagationModelType.SGP4, null, FramesFactory.getTEME())) {
+            Assertions.assertNotSame(changed, lease.propagator());
+        }
+    }
+
+    @Test
+    public void testConcurrentLeasesAreExclusive() {
+        try (PropagatorLease first = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                PropagationModelType.AUTO, null, FramesFactory.getTEME());
+                PropagatorLease second = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                        PropagationModelType.AUTO, null, FramesFactory.getTEME())) {
+            Assertions.assertNotSame(first.propagator(), second.propagator());
+        }
+    }
+
+    @Test
+    public void testModelsArePooledSeparately() {
+        try (PropagatorLease sgp4 = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                PropagationModelType.SGP4, null, FramesFactory.getTEME());
+                PropagatorLease sdp4 = propagatorFactoryService.leasePropagator(LINE1, LINE2,
+                        PropagationModelType.SDP4, null, FramesFactory.getTEME())) {
+            Assertions.assertTrue(sgp4.propagator() instanceof org.orekit.propagation.analytical.tle.SGP4);
+            Assertions.assertTrue(sdp4.propagator() instanceof org.orekit.propagation.analytical.tle.DeepSDP4);
+        }
+    }
+
+    @Test
+    public void testInvalidTleIsNotCached() {
+        int size = tlePropagatorCache.size();
+        Assertions.assertThrows(RuntimeException.class, () -> tlePropagatorCache.getTle("invalid", "invalid"));
+        Assertions.assertEquals(size, tlePropagatorCache.size());
+    }
+}
@@ -183,4 +183,75 @@ public class TransformationServiceImplTest {
         assertTrue(Math.abs(result.vy()) > 0);
         assertTrue(Math.abs(result.vz()) > 0);
     }
+
+    @Test
+    @DisplayName("Should match the per-vector transform in bulk")
+    public void transformBulk_everyFramePair_matchesPerVectorTransform() {
+        // Given - Vectors from low orbit to beyond GEO
+        int count = 100;
+        double[] positions = new double[3 * count];
+        double[] velocities = new double[3 * count];
+        for (int k = 0; k < count; k++) {
+            double radius = 6.6e6 + 4.0e5 * k;
+            double angle = 0.37 * k;
+            positions[3 * k] = radius * Math.cos(angle);
+            positions[3 * k + 1] = radius * Math.sin(angle);
+            positions[3 * k + 2] = 1.0e5 * (k % 7 - 3);
+            velocities[3 * k] = -7500.0 * Math.sin(angle);
+            velocities[3 * k + 1] = 7500.0 * Math.cos(angle);
+            velocities[3 * k + 2] = 100.0 * (k % 5 - 2);
+        }
+        double[] outPositions = new double[3 * count];
+        double[] outVelocities = new double[3 * count];
+
+        for (ReferenceFrameType source : ReferenceFrameType.values()) {
+            for (ReferenceFrameType target : ReferenceFrameType.values()) {
+                // When
+                transformationService.transformBulk(source, target, "2024-03-01T06:30:00Z", positions, velocities,
+                        count, outPositions, outVelocities);
+
+                // Then
+                for (int k = 0; k < count; k++) {
+                    TransformResult expected = transformationService.transform(new TransformRequest(source, target,
+                            "2024-03-01T06:30:00Z", positions[3 * k], positions[3 * k + 1], positions[3 * k + 2],
+                            velocities[3 * k], velocities[3 * k + 1], velocities[3 * k + 2]));
+                    assertEquals(expected.x(), outPositions[3 * k], 1.0e-6);
+                    assertEquals(expected.y(), outPositions[3 * k + 1], 1.0e-6);
+                    assertEquals(expected.z(), outPositions[3 * k + 2], 1.0e-6);
+                    assertEquals(expected.vx(), outVelocities[3 * k], 1.0e-9);
+                    assertEquals(expected.vy(), outVelocities[3 * k + 1], 1.0e-9);
+                    assertEquals(expected.vz(), outVelocities[3 * k + 2], 1.0e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should transform in place in bulk")
+    public void transformBulk_sameBuffers_transformsInPlace() {
+        // Given
+        double[] positions = {7000000.0, 0.0, 0.0, 0.0, 42164000.0, 0.0};
+        double[] velocities = {0.0, 7500.0, 0.0, -3075.0, 0.0, 0.0};
+        double[] outPositions = new double[6];
+        double[] outVelocities = new double[6];
+        transformationService.transformBulk(ReferenceFrameType.EME2000, ReferenceFrameType.ITRF,
+                "2024-01-01T12:00:00Z", positions, velocities, 2, outPositions, outVelocities);
+
+        // When
+        transformationService.transformBulk(ReferenceFrameType.EME2000, ReferenceFrameType.ITRF,
+                "2024-01-01T12:00:00Z", positions, velocities, 2, positions, velocities);
+
+        // Then
+        assertArrayEquals(outPositions, positions);
+        assertArrayEquals(outVelocities, velocities);
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid date format in bulk")
+    public void transformBulk_invalidDate_throwsException() {
+        double[] buffer = new double[3];
+
+        assertThrows(Exception.class, () -> transformationService.transformBulk(ReferenceFrameType.EME2000,
+                ReferenceFrameType.ITRF, "invalid-date-format", buffer, buffer, 1, buffer, buffer));
+    }
 }